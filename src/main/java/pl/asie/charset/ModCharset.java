@@ -180,6 +180,8 @@ public class ModCharset {
 	public void postInit(FMLPostInitializationEvent event) {
 		ModuleLoader.INSTANCE.postInit();
 		ModuleLoader.INSTANCE.passEventWithProgress(event);
+		CharsetIMC.INSTANCE.compileRules();
+		ModuleLoader.INSTANCE.writeStartupReport();
 	}
 
 	@Mod.EventHandler
@@ -31,14 +31,118 @@ import pl.asie.charset.lib.config.ConfigUtils;
 import pl.asie.charset.lib.utils.ThreeState;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 public final class CharsetIMC {
+    /**
+     * A compiled view of the whitelist and blacklist entries for a single
+     * key. Instances stay valid across registry changes and can be kept
+     * around by callers in hot paths.
+     */
+    public final class Rule {
+        private final String key;
+        private final AtomicReference<CompiledRule> compiled = new AtomicReference<>();
+
+        private Rule(String key) {
+            this.key = key;
+        }
+
+        // callers hold the CharsetIMC lock, as for compile()
+        private void invalidate() {
+            compiled.set(null);
+        }
+
+        private CompiledRule compile() {
+            Map<ResourceLocation, ThreeState> locations = new HashMap<>();
+            Map<String, ThreeState> domains = new HashMap<>();
+            // blacklist entries take priority over whitelist entries
+            for (ResourceLocation location : registryLocs.get("w:" + key)) {
+                locations.put(location, ThreeState.YES);
+            }
+            for (ResourceLocation location : registryLocs.get("b:" + key)) {
+                locations.put(location, ThreeState.NO);
+            }
+            for (String domain : registryDomainLocs.get("w:" + key)) {
+                domains.put(domain, ThreeState.YES);
+            }
+            for (String domain : registryDomainLocs.get("b:" + key)) {
+                domains.put(domain, ThreeState.NO);
+            }
+            CompiledRule rule = new CompiledRule(locations, domains);
+            compiled.set(rule);
+            return rule;
+        }
+
+        public ThreeState allows(ResourceLocation location) {
+            CompiledRule rule = compiled.get();
+            if (rule == null) {
+                synchronized (CharsetIMC.this) {
+                    rule = compiled.get();
+                    if (rule == null) {
+                        rule = compile();
+                    }
+                }
+            }
+
+            return rule.get(location);
+        }
+
+        public ThreeState allows(Collection<ResourceLocation> locations) {
+            ThreeState result = ThreeState.MAYBE;
+
+            for (ResourceLocation loc : locations) {
+                ThreeState newResult = allows(loc);
+                if (newResult == ThreeState.NO)
+                    return ThreeState.NO;
+                else if (result != ThreeState.YES)
+                    result = newResult;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * An immutable snapshot of a rule's entries. Results are memoized per
+     * location; as they only depend on this snapshot, a stale snapshot is
+     * simply replaced as a whole on invalidation.
+     */
+    private static final class CompiledRule {
+        private static final int MAX_CACHED_RESULTS = 4096;
+
+        private final Map<ResourceLocation, ThreeState> locations;
+        private final Map<String, ThreeState> domains;
+        private final Map<ResourceLocation, ThreeState> results = new ConcurrentHashMap<>();
+
+        private CompiledRule(Map<ResourceLocation, ThreeState> locations, Map<String, ThreeState> domains) {
+            this.locations = locations;
+            this.domains = domains;
+        }
+
+        private ThreeState get(ResourceLocation location) {
+            ThreeState result = results.get(location);
+            if (result == null) {
+                result = locations.get(location);
+                if (result == null) {
+                    result = domains.getOrDefault(location.getNamespace(), ThreeState.MAYBE);
+                }
+
+                if (results.size() < MAX_CACHED_RESULTS) {
+                    results.put(location, result);
+                }
+            }
+            return result;
+        }
+    }
+
     public static CharsetIMC INSTANCE = new CharsetIMC();
     private final Multimap<String, ResourceLocation> registryLocs = HashMultimap.create();
     private final Multimap<String, String> registryDomainLocs = HashMultimap.create();
     private final Multimap<String, Consumer<CharsetIMC>> registryChangeListeners = MultimapBuilder.hashKeys().arrayListValues().build();
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
     private Set<Consumer<CharsetIMC>> queuedListeners = Collections.newSetFromMap(new IdentityHashMap<>());
     private int registriesFrozen = 0;
     private int buildingCallQueue = 0;
@@ -88,10 +192,12 @@ public final class CharsetIMC {
         }
     }
 
+    private static String toRuleKey(String key) {
+        return key.contains(":") ? key.substring(key.indexOf(":") + 1) : key;
+    }
+
     private void onChange(String key) {
-        if (key.contains(":")) {
-            key = key.substring(key.indexOf(":") + 1);
-        }
+        key = toRuleKey(key);
 
         if (buildingCallQueue > 0) {
             queuedListeners.addAll(registryChangeListeners.get(key));
@@ -126,35 +232,32 @@ public final class CharsetIMC {
         endQueueingListeners();
     }
 
-    public ThreeState allows(String key, ResourceLocation location) {
-        String bKey = "b:" + key;
-        String wKey = "w:" + key;
-
-        if (registryLocs.get(bKey).contains(location)) {
-            return ThreeState.NO;
-        } else if (registryLocs.get(wKey).contains(location)) {
-            return ThreeState.YES;
-        } else if (registryDomainLocs.get(bKey).contains(location.getNamespace())) {
-            return ThreeState.NO;
-        } else if (registryDomainLocs.get(wKey).contains(location.getNamespace())) {
-            return ThreeState.YES;
-        } else {
-            return ThreeState.MAYBE;
-        }
+    public Rule getRule(String key) {
+        return rules.computeIfAbsent(key, Rule::new);
     }
 
-    public ThreeState allows(String key, Collection<ResourceLocation> locations) {
-        ThreeState result = ThreeState.MAYBE;
-
-        for (ResourceLocation loc : locations) {
-            ThreeState newResult = allows(key, loc);
-            if (newResult == ThreeState.NO)
-                return ThreeState.NO;
-            else if (result != ThreeState.YES)
-                result = newResult;
+    /**
+     * Compiles every rule known so far. Called once IMC messages have been
+     * processed, so that lookups in hot paths do not have to.
+     */
+    public synchronized void compileRules() {
+        for (String entryKey : registryLocs.keySet()) {
+            getRule(entryKey.substring(entryKey.indexOf(":") + 1));
+        }
+        for (String entryKey : registryDomainLocs.keySet()) {
+            getRule(entryKey.substring(entryKey.indexOf(":") + 1));
+        }
+        for (Rule rule : rules.values()) {
+            rule.compile();
         }
+    }
 
-        return result;
+    public ThreeState allows(String key, ResourceLocation location) {
+        return getRule(key).allows(location);
+    }
+
+    public ThreeState allows(String key, Collection<ResourceLocation> locations) {
+        return getRule(key).allows(locations);
     }
 
     private boolean add(Collection<String> entryKeys, ResourceLocation entry) {
@@ -169,10 +272,19 @@ public final class CharsetIMC {
         if (checkFrozen(entryKey)) return false;
 
         boolean result;
-        if (entry.getPath().equals("*")) {
-            result = registryDomainLocs.put(entryKey, entry.getNamespace());
-        } else {
-            result = registryLocs.put(entryKey, entry);
+        // entries and rule invalidation change together under the lock rules compile under
+        synchronized (this) {
+            if (entry.getPath().equals("*")) {
+                result = registryDomainLocs.put(entryKey, entry.getNamespace());
+            } else {
+                result = registryLocs.put(entryKey, entry);
+            }
+            if (result) {
+                Rule rule = rules.get(toRuleKey(entryKey));
+                if (rule != null) {
+                    rule.invalidate();
+                }
+            }
         }
         if (result) {
             onChange(entryKey);
@@ -184,10 +296,19 @@ public final class CharsetIMC {
         if (checkFrozen(entryKey)) return false;
 
         boolean result;
-        if (entry.getPath().equals("*")) {
-            result = registryDomainLocs.remove(entryKey, entry.getNamespace());
-        } else {
-            result = registryLocs.remove(entryKey, entry);
+        // entries and rule invalidation change together under the lock rules compile under
+        synchronized (this) {
+            if (entry.getPath().equals("*")) {
+                result = registryDomainLocs.remove(entryKey, entry.getNamespace());
+            } else {
+                result = registryLocs.remove(entryKey, entry);
+            }
+            if (result) {
+                Rule rule = rules.get(toRuleKey(entryKey));
+                if (rule != null) {
+                    rule.invalidate();
+                }
+            }
         }
         if (result) {
             onChange(entryKey);
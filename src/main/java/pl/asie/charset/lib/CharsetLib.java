@@ -32,11 +32,13 @@ import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.fml.client.FMLClientHandler;
 import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.LoaderState;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.ObfuscationReflectionHelper;
 import net.minecraftforge.fml.common.event.*;
 import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
@@ -53,6 +55,7 @@ import pl.asie.charset.lib.audio.types.AudioDataGameSound;
 import pl.asie.charset.lib.audio.types.AudioSinkBlock;
 import pl.asie.charset.lib.block.PacketCustomBlockDust;
 import pl.asie.charset.lib.capability.Capabilities;
+import pl.asie.charset.lib.capability.EntityNeighborCache;
 import pl.asie.charset.lib.command.*;
 import pl.asie.charset.lib.config.CharsetLoadConfigEvent;
 import pl.asie.charset.lib.config.ConfigUtils;
@@ -66,6 +69,7 @@ import pl.asie.charset.lib.material.FastRecipeLookup;
 import pl.asie.charset.lib.material.ItemMaterialHeuristics;
 import pl.asie.charset.lib.handlers.FluidExtraInformationHandler;
 import pl.asie.charset.lib.misc.Todokete;
+import pl.asie.charset.lib.network.PacketBundleHandler;
 import pl.asie.charset.lib.network.PacketRegistry;
 import pl.asie.charset.lib.notify.NotifyImplementation;
 import pl.asie.charset.lib.notify.PacketNotification;
@@ -73,6 +77,7 @@ import pl.asie.charset.lib.notify.PacketPoint;
 import pl.asie.charset.lib.recipe.IngredientGroup;
 import pl.asie.charset.lib.recipe.RecipeIngredientPatcher;
 import pl.asie.charset.lib.recipe.RecipeReplacement;
+import pl.asie.charset.lib.render.model.ModelDiskCache;
 import pl.asie.charset.lib.render.model.ModelFactory;
 import pl.asie.charset.lib.render.sprite.TextureWhitener;
 import pl.asie.charset.lib.resources.CharsetFakeResourcePack;
@@ -121,10 +126,16 @@ public class CharsetLib {
 
 	// TODO public static boolean showAllItemTypesSeparateTabs;
 	public static int doubleClickDuration;
+	public static int modelCacheMaxQuads;
+	public static boolean prewarmModelCaches;
+	public static boolean persistModelCaches;
 
 	@SubscribeEvent(priority = EventPriority.LOWEST)
 	@SideOnly(Side.CLIENT)
 	public void onModelBake(ModelBakeEvent event) {
+		ModelFactory.cacheMaxQuads = modelCacheMaxQuads;
+		ModelFactory.prewarmCaches = prewarmModelCaches;
+		ModelDiskCache.enabled = persistModelCaches;
 		ModelFactory.clearCaches();
 		TextureWhitener.INSTANCE.clear();
 		ColorLookupHandler.INSTANCE.clear();
@@ -155,6 +166,14 @@ public class CharsetLib {
 		MinecraftForge.EVENT_BUS.register(ColorPaletteParser.INSTANCE);
 	}
 
+	@SubscribeEvent
+	@SideOnly(Side.CLIENT)
+	public void onClientTick(TickEvent.ClientTickEvent event) {
+		if (event.phase == TickEvent.Phase.END && Loader.instance().hasReachedState(LoaderState.AVAILABLE)) {
+			ModelFactory.prewarmIfRequested();
+		}
+	}
+
 	@Mod.EventHandler
 	public void loadConfig(CharsetLoadConfigEvent event) {
 		alwaysDropDroppablesGivenToPlayer = ConfigUtils.getBoolean(config, "general", "alwaysDropDroppablesGivenToPlayer", false, "Setting this option to true will stop Charset from giving players items directly into the player inventory when the alternative is dropping it (for instance, taking item out of barrels).", true);
@@ -165,6 +184,9 @@ public class CharsetLib {
 		FastRecipeLookup.ENABLED = !ConfigUtils.getBoolean(config, "general", "disableRecipeOptimizations", false, "Set to true to disable recipe optimizations. Use only if weird behaviour exhibited, and always contact the developer first!", false);
 
 		doubleClickDuration = ConfigUtils.getInt(config, "general", "doubleClickDuration", 10, 0, 60*20, "The duration of ticks that can pass between two clicks to be registered as a double-click.", false);
+		modelCacheMaxQuads = ConfigUtils.getInt(config, "client", "modelCacheMaxQuads", 262144, 1024, Integer.MAX_VALUE, "The maximum amount of quads kept in each dynamic model cache (barrels, scaffolds, shelves, etc.).", false);
+		persistModelCaches = ConfigUtils.getBoolean(config, "client", "persistModelCaches", true, "Keep baked dynamic models (barrels, scaffolds, shelves) on disk between restarts to avoid first-render stutter.", false);
+		prewarmModelCaches = ConfigUtils.getBoolean(config, "client", "prewarmModelCaches", false, "Bake the item models of all known material variants after every resource reload, instead of on first use.", false);
 
 		boolean oldShowAllItemTypes = showAllItemTypes;
 		showAllItemTypes = ConfigUtils.getBoolean(config, "general","showAllItemTypes", ModCharset.INDEV, "Show all item types in Charset's main creative tab.", false);
@@ -193,6 +215,8 @@ public class CharsetLib {
 		MinecraftForge.EVENT_BUS.register(new CharsetLibEventHandler());
 		MinecraftForge.EVENT_BUS.register(CharsetSounds.INSTANCE);
 		MinecraftForge.EVENT_BUS.register(Scheduler.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(EntityNeighborCache.INSTANCE);
+		MinecraftForge.EVENT_BUS.register(PacketBundleHandler.INSTANCE);
 
 		Colorspaces.init();
 	}
@@ -218,6 +242,7 @@ public class CharsetLib {
 		CommandCharset.register(new SubCommandClientCmdList("nice", "Makes it a sunny morning", "/time set 1200", "/weather clear"));
 		CommandCharset.register(new SubCommandFog());
 		CommandCharset.register(new SubCommandSetupTestWorld());
+		CommandCharset.register(new SubCommandModelCache());
 	}
 
 	@Mod.EventHandler
@@ -252,6 +277,7 @@ public class CharsetLib {
 		SubCommandAt at = new SubCommandAt();
 		CommandCharset.register(new SubCommandHand(at));
 		CommandCharset.register(at);
+		CommandCharset.register(new SubCommandNetStats());
 	}
 
 	@Mod.EventHandler
@@ -22,7 +22,6 @@ package pl.asie.charset.lib.capability;
 import net.minecraft.entity.Entity;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.common.capabilities.Capability;
@@ -110,7 +109,7 @@ public class CapabilityCache extends TileCache {
         }
 
         if (entities && hasEntityCaps) {
-            List<Entity> entityList = world.getEntitiesWithinAABBExcludingEntity(null, new AxisAlignedBB(pos));
+            List<Entity> entityList = EntityNeighborCache.INSTANCE.getEntities(world, pos);
             for (Entity entity : entityList) {
                 T result = CapabilityHelper.get(capability, entity, facing);
                 if (result != null)
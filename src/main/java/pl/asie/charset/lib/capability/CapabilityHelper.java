@@ -28,7 +28,6 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
@@ -148,7 +147,7 @@ public final class CapabilityHelper {
 
         if (world instanceof World) {
             if (entities && !world.isSideSolid(pos, facing, false)) {
-                List<Entity> entityList = ((World) world).getEntitiesWithinAABBExcludingEntity(null, new AxisAlignedBB(pos));
+                List<Entity> entityList = EntityNeighborCache.INSTANCE.getEntities((World) world, pos);
                 for (Entity entity : entityList) {
                     if (has(capability, entity, facing))
                         return true;
@@ -182,7 +181,7 @@ public final class CapabilityHelper {
 
         if (world instanceof World) {
             if (entities && !world.isSideSolid(pos, facing, false)) {
-                List<Entity> entityList = ((World) world).getEntitiesWithinAABBExcludingEntity(null, new AxisAlignedBB(pos));
+                List<Entity> entityList = EntityNeighborCache.INSTANCE.getEntities((World) world, pos);
                 for (Entity entity : entityList) {
                     T result = get(capability, entity, facing);
                     if (result != null)
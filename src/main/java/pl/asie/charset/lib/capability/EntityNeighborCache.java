@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.capability;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorldEventListener;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers which entities occupy a given block position for the duration
+ * of a tick, so that repeated capability probes against the same neighbour
+ * cost a hash lookup instead of an AABB search.
+ *
+ * Each chunk section has a version, bumped whenever an entity joins, leaves
+ * or moves into or out of it; entries remember the versions of the sections
+ * their search covered and miss once any of them changed. Everything is
+ * dropped when the world time advances.
+ */
+public class EntityNeighborCache {
+	public static final EntityNeighborCache INSTANCE = new EntityNeighborCache();
+
+	private static class Entry {
+		private final List<Entity> entities;
+		private final int version;
+
+		Entry(List<Entity> entities, int version) {
+			this.entities = entities;
+			this.version = version;
+		}
+	}
+
+	// only ever accessed from the thread owning the world
+	private static class WorldCache {
+		private final TLongObjectMap<Entry> entries = new TLongObjectHashMap<>();
+		private final TLongIntMap sectionVersions = new TLongIntHashMap();
+		private long time = Long.MIN_VALUE;
+	}
+
+	// shared by the client and (integrated) server threads
+	private final Map<World, WorldCache> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private EntityNeighborCache() {
+
+	}
+
+	private static long getSectionKey(int cx, int sy, int cz) {
+		return ((long) (cx & 0x3FFFFFF) << 38) | ((long) (cz & 0x3FFFFFF) << 12) | (sy & 0xFFF);
+	}
+
+	/**
+	 * @return The combined version of the chunk sections an entity search at
+	 * the given position covers (the same range as World.getEntitiesWithinAABBExcludingEntity).
+	 */
+	private static int getVersion(WorldCache cache, BlockPos pos) {
+		if (cache.sectionVersions.isEmpty()) {
+			return 0;
+		}
+
+		int minCX = MathHelper.floor((pos.getX() - World.MAX_ENTITY_RADIUS) / 16.0D);
+		int maxCX = MathHelper.floor((pos.getX() + 1 + World.MAX_ENTITY_RADIUS) / 16.0D);
+		int minCZ = MathHelper.floor((pos.getZ() - World.MAX_ENTITY_RADIUS) / 16.0D);
+		int maxCZ = MathHelper.floor((pos.getZ() + 1 + World.MAX_ENTITY_RADIUS) / 16.0D);
+		int minSY = MathHelper.floor((pos.getY() - World.MAX_ENTITY_RADIUS) / 16.0D);
+		int maxSY = MathHelper.floor((pos.getY() + 1 + World.MAX_ENTITY_RADIUS) / 16.0D);
+
+		// versions only ever increase, so the sum changes whenever one of them does
+		int version = 0;
+		for (int cx = minCX; cx <= maxCX; cx++) {
+			for (int cz = minCZ; cz <= maxCZ; cz++) {
+				for (int sy = minSY; sy <= maxSY; sy++) {
+					version += cache.sectionVersions.get(getSectionKey(cx, sy, cz));
+				}
+			}
+		}
+		return version;
+	}
+
+	private void markSectionChanged(World world, int cx, int sy, int cz) {
+		WorldCache cache = caches.get(world);
+		if (cache != null && !cache.entries.isEmpty()) {
+			cache.sectionVersions.adjustOrPutValue(getSectionKey(cx, sy, cz), 1, 1);
+		}
+	}
+
+	private void markSectionChanged(Entity entity) {
+		markSectionChanged(entity.world, MathHelper.floor(entity.posX) >> 4, MathHelper.floor(entity.posY) >> 4, MathHelper.floor(entity.posZ) >> 4);
+	}
+
+	public List<Entity> getEntities(World world, BlockPos pos) {
+		WorldCache cache = caches.get(world);
+		if (cache == null) {
+			cache = new WorldCache();
+			caches.put(world, cache);
+		}
+
+		long time = world.getTotalWorldTime();
+		if (cache.time != time) {
+			cache.entries.clear();
+			cache.sectionVersions.clear();
+			cache.time = time;
+		}
+
+		long key = pos.toLong();
+		int version = getVersion(cache, pos);
+		Entry entry = cache.entries.get(key);
+		if (entry == null || entry.version != version) {
+			List<Entity> list = world.getEntitiesWithinAABBExcludingEntity(null, new AxisAlignedBB(pos));
+			if (list.isEmpty()) {
+				list = Collections.emptyList();
+			}
+			entry = new Entry(list, version);
+			cache.entries.put(key, entry);
+		}
+		return entry.entities;
+	}
+
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load event) {
+		event.getWorld().addEventListener(new Listener(event.getWorld()));
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		caches.remove(event.getWorld());
+	}
+
+	@SubscribeEvent
+	public void onEntityJoinWorld(EntityJoinWorldEvent event) {
+		markSectionChanged(event.getEntity());
+	}
+
+	@SubscribeEvent
+	public void onEntityEnteringChunk(EntityEvent.EnteringChunk event) {
+		Entity entity = event.getEntity();
+		if (entity.world != null) {
+			// chunkCoordY still holds the section the entity is leaving
+			markSectionChanged(entity.world, event.getOldChunkX(), entity.chunkCoordY, event.getOldChunkZ());
+			markSectionChanged(entity);
+		}
+	}
+
+	private class Listener implements IWorldEventListener {
+		private final World world;
+
+		Listener(World world) {
+			this.world = world;
+		}
+
+		@Override
+		public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {
+
+		}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+
+		}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {
+
+		}
+
+		@Override
+		public void playRecord(SoundEvent soundIn, BlockPos pos) {
+
+		}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+
+		}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean p_190570_3_, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+
+		}
+
+		@Override
+		public void onEntityAdded(Entity entityIn) {
+			// joins are already covered by EntityJoinWorldEvent
+		}
+
+		@Override
+		public void onEntityRemoved(Entity entityIn) {
+			markSectionChanged(world, entityIn.chunkCoordX, entityIn.chunkCoordY, entityIn.chunkCoordZ);
+		}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {
+
+		}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+
+		}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+
+		}
+	}
+}
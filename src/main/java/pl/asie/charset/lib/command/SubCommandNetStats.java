@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.command;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.util.text.TextFormatting;
+import net.minecraftforge.fml.relauncher.Side;
+import pl.asie.charset.lib.network.Packet;
+import pl.asie.charset.lib.network.PacketRegistry;
+import pl.asie.charset.lib.network.PacketStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class SubCommandNetStats extends SubCommand {
+    private static final int TOP_ENTRIES = 10;
+
+    private static class Entry {
+        private final PacketRegistry registry;
+        private final int id;
+
+        Entry(PacketRegistry registry, int id) {
+            this.registry = registry;
+            this.id = id;
+        }
+
+        String getName() {
+            Class<? extends Packet> cl = registry.getPacketClass(id);
+            return registry.getChannelName() + "/" + (cl != null ? cl.getSimpleName() : ("#" + id));
+        }
+
+        long get(PacketStatistics.Type type) {
+            return registry.getStatistics().getTotal(type, id);
+        }
+
+        double getRate(PacketStatistics.Type type) {
+            return registry.getStatistics().getRate(type, id);
+        }
+    }
+
+    public SubCommandNetStats() {
+        super("netstats", Side.SERVER);
+    }
+
+    @Override
+    public String getUsage() {
+        return "Report network traffic per packet type. Arguments: [reset|csv]";
+    }
+
+    @Override
+    public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args) {
+        if (args.length == 1) {
+            return CommandBase.getListOfStringsMatchingLastWord(args, "reset", "csv");
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Entry> collect() {
+        List<Entry> entries = new ArrayList<>();
+        for (PacketRegistry registry : PacketRegistry.getRegistries()) {
+            PacketStatistics statistics = registry.getStatistics();
+            for (int i = 0; i < 256; i++) {
+                if (statistics.getTotal(PacketStatistics.Type.SENT_PACKETS, i) > 0 || statistics.getTotal(PacketStatistics.Type.RECEIVED_PACKETS, i) > 0) {
+                    entries.add(new Entry(registry, i));
+                }
+            }
+        }
+        entries.sort(Comparator.comparingLong((Entry e) -> e.get(PacketStatistics.Type.SENT_BYTES) + e.get(PacketStatistics.Type.RECEIVED_BYTES)).reversed());
+        return entries;
+    }
+
+    private void writeCsv(ICommandSender sender, List<Entry> entries) {
+        File outputFile = new File("charsetNetStats.csv");
+        try (PrintWriter writer = new PrintWriter(outputFile)) {
+            writer.println("channel,id,packet,sent_packets,sent_bytes,recipients,received_packets,received_bytes,sent_packets_per_sec,sent_bytes_per_sec,received_packets_per_sec,received_bytes_per_sec");
+            for (Entry e : entries) {
+                Class<? extends Packet> cl = e.registry.getPacketClass(e.id);
+                writer.println(String.format("%s,%d,%s,%d,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f",
+                        e.registry.getChannelName(), e.id, cl != null ? cl.getName() : "",
+                        e.get(PacketStatistics.Type.SENT_PACKETS), e.get(PacketStatistics.Type.SENT_BYTES),
+                        e.get(PacketStatistics.Type.RECIPIENTS),
+                        e.get(PacketStatistics.Type.RECEIVED_PACKETS), e.get(PacketStatistics.Type.RECEIVED_BYTES),
+                        e.getRate(PacketStatistics.Type.SENT_PACKETS), e.getRate(PacketStatistics.Type.SENT_BYTES),
+                        e.getRate(PacketStatistics.Type.RECEIVED_PACKETS), e.getRate(PacketStatistics.Type.RECEIVED_BYTES)));
+            }
+            sender.sendMessage(new TextComponentString("Wrote " + entries.size() + " entries to " + outputFile.getAbsolutePath()));
+        } catch (IOException e) {
+            sender.sendMessage(new TextComponentString(TextFormatting.RED + "Could not write " + outputFile.getName() + ": " + e.getMessage()));
+        }
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) {
+        if (args.length >= 1 && "reset".equalsIgnoreCase(args[0])) {
+            for (PacketRegistry registry : PacketRegistry.getRegistries()) {
+                registry.getStatistics().reset();
+            }
+            sender.sendMessage(new TextComponentString("Network statistics reset."));
+            return;
+        }
+
+        List<Entry> entries = collect();
+        if (args.length >= 1 && "csv".equalsIgnoreCase(args[0])) {
+            writeCsv(sender, entries);
+            return;
+        }
+
+        if (entries.isEmpty()) {
+            sender.sendMessage(new TextComponentString("No packets recorded."));
+            return;
+        }
+
+        sender.sendMessage(new TextComponentString(TextFormatting.YELLOW + "Top packets by traffic (total, last window rate):"));
+        for (int i = 0; i < Math.min(TOP_ENTRIES, entries.size()); i++) {
+            Entry e = entries.get(i);
+            sender.sendMessage(new TextComponentString(String.format("- %s: sent %d (%d B, %d recipients, %.1f/s, %.1f B/s), received %d (%d B, %.1f/s)",
+                    e.getName(),
+                    e.get(PacketStatistics.Type.SENT_PACKETS), e.get(PacketStatistics.Type.SENT_BYTES), e.get(PacketStatistics.Type.RECIPIENTS),
+                    e.getRate(PacketStatistics.Type.SENT_PACKETS), e.getRate(PacketStatistics.Type.SENT_BYTES),
+                    e.get(PacketStatistics.Type.RECEIVED_PACKETS), e.get(PacketStatistics.Type.RECEIVED_BYTES),
+                    e.getRate(PacketStatistics.Type.RECEIVED_PACKETS))));
+        }
+    }
+}
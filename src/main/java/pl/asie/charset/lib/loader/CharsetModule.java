@@ -23,6 +23,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 
 import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
@@ -67,4 +68,14 @@ public @interface CharsetModule {
 	@interface Configuration {
 		String value() default "";
 	}
+
+	/**
+	 * Marks a module event handler as safe to run off the main thread,
+	 * concurrently with handlers of modules it does not depend on. Only
+	 * takes effect if parallel module loading is enabled.
+	 */
+	@Retention(value = RUNTIME)
+	@Target(value = METHOD)
+	@interface ThreadSafe {
+	}
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.loader;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.discovery.ASMDataTable;
+import net.minecraftforge.fml.common.discovery.asm.ModAnnotation;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The subset of the ASM annotation data which the module loader needs.
+ *
+ * It is collected from the (pack-wide) ASMDataTable once, so that the
+ * loader's repeated lookups only ever see Charset's own entries.
+ */
+public final class ModuleIndex {
+	public static final class Entry {
+		private final String className, objectName;
+		private final Map<String, Object> annotationInfo;
+
+		private Entry(String className, String objectName, Map<String, Object> annotationInfo) {
+			this.className = className;
+			this.objectName = objectName;
+			this.annotationInfo = annotationInfo;
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		public String getObjectName() {
+			return objectName;
+		}
+
+		public Map<String, Object> getAnnotationInfo() {
+			return annotationInfo;
+		}
+	}
+
+	private static final String[] ANNOTATIONS = new String[] {
+			CharsetModule.class.getName(),
+			CharsetModule.SidedProxy.class.getName(),
+			CharsetModule.PacketRegistry.class.getName(),
+			CharsetModule.Instance.class.getName(),
+			CharsetModule.Configuration.class.getName(),
+			CharsetCompatAnnotation.class.getName()
+	};
+
+	private final Multimap<String, Entry> entries = ArrayListMultimap.create();
+
+	private ModuleIndex() {
+
+	}
+
+	public Collection<Entry> getAll(String annotation) {
+		return entries.get(annotation);
+	}
+
+	public static ModuleIndex fromTable(ASMDataTable table) {
+		ModuleIndex index = new ModuleIndex();
+		Set<String> moduleClasses = new HashSet<>();
+
+		for (String annotation : ANNOTATIONS) {
+			for (ASMDataTable.ASMData data : table.getAll(annotation)) {
+				index.entries.put(annotation, new Entry(data.getClassName(), data.getObjectName(), data.getAnnotationInfo()));
+				if (annotation.equals(CharsetModule.class.getName())) {
+					moduleClasses.add(data.getClassName());
+				}
+			}
+		}
+
+		// compat annotations (JEI plugins, MCMP addons...) are themselves looked up by name
+		Set<String> compatAnnotations = new HashSet<>();
+		for (Entry entry : index.entries.get(CharsetCompatAnnotation.class.getName())) {
+			compatAnnotations.add(entry.getClassName());
+		}
+		for (String annotation : compatAnnotations) {
+			for (ASMDataTable.ASMData data : table.getAll(annotation)) {
+				index.entries.put(annotation, new Entry(data.getClassName(), data.getObjectName(), data.getAnnotationInfo()));
+			}
+		}
+
+		// event handlers are only ever looked up on module classes
+		String eventHandler = Mod.EventHandler.class.getName();
+		for (ASMDataTable.ASMData data : table.getAll(eventHandler)) {
+			if (moduleClasses.contains(data.getClassName())) {
+				index.entries.put(eventHandler, new Entry(data.getClassName(), data.getObjectName(), data.getAnnotationInfo()));
+			}
+		}
+
+		return index;
+	}
+
+	public static String getEnumValue(Object o) {
+		return o instanceof ModAnnotation.EnumHolder ? ((ModAnnotation.EnumHolder) o).getValue() : (String) o;
+	}
+}
@@ -30,7 +30,6 @@ import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.ProgressManager;
 import net.minecraftforge.fml.common.discovery.ASMDataTable;
-import net.minecraftforge.fml.common.discovery.asm.ModAnnotation;
 import net.minecraftforge.fml.common.event.FMLEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import org.apache.commons.lang3.tuple.Pair;
@@ -42,11 +41,15 @@ import pl.asie.charset.lib.modcompat.mcmultipart.CharsetMCMPAddon;
 import pl.asie.charset.lib.network.PacketRegistry;
 import pl.asie.charset.lib.utils.ThreeState;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
 
 public class ModuleLoader {
@@ -85,6 +88,9 @@ public class ModuleLoader {
 
 	private static final Multimap<String, String> dependencies = HashMultimap.create();
 	private static final Map<Class, List<Pair<String, MethodHandle>>> loaderHandles = new IdentityHashMap<>();
+	private static final Set<MethodHandle> threadSafeHandles = Collections.newSetFromMap(new IdentityHashMap<>());
+	private static final ModuleStartupReport startupReport = new ModuleStartupReport();
+	private static boolean parallelLoading;
 
 	private static final BiMap<String, Object> loadedModules = HashBiMap.create();
 	private static final Map<String, Object> loadedModulesByClass = new HashMap<>();
@@ -102,7 +108,7 @@ public class ModuleLoader {
 		return loadedModules.keySet();
 	}
 
-	private Class getClass(ASMDataTable.ASMData data) {
+	private Class getClass(ModuleIndex.Entry data) {
 		try {
 			return getClass().getClassLoader().loadClass(data.getClassName());
 		} catch (ClassNotFoundException e) {
@@ -110,7 +116,7 @@ public class ModuleLoader {
 		}
 	}
 
-	private Field getField(ASMDataTable.ASMData data) {
+	private Field getField(ModuleIndex.Entry data) {
 		try {
 			Field f = getClass(data).getDeclaredField(data.getObjectName());
 			f.setAccessible(true);
@@ -120,7 +126,7 @@ public class ModuleLoader {
 		}
 	}
 
-	private MethodHandle getStaticMethod(ASMDataTable.ASMData data) {
+	private MethodHandle getStaticMethod(ModuleIndex.Entry data) {
 		String methodName = data.getObjectName().substring(0, data.getObjectName().indexOf('('));
 		String methodDesc = data.getObjectName().substring(methodName.length());
 
@@ -131,16 +137,16 @@ public class ModuleLoader {
 		}
 	}
 
-	private void iterateModules(ASMDataTable table, String annotation, BiConsumer<ASMDataTable.ASMData, Object> c) {
-		for (ASMDataTable.ASMData data : table.getAll(annotation)) {
+	private void iterateModules(ModuleIndex table, String annotation, BiConsumer<ModuleIndex.Entry, Object> c) {
+		for (ModuleIndex.Entry data : table.getAll(annotation)) {
 			if (loadedModulesByClass.containsKey(data.getClassName())) {
 				c.accept(data, loadedModulesByClass.get(data.getClassName()));
 			}
 		}
 	}
 
-	private void addClassNames(ASMDataTable table, Class annotationClass, String confType) {
-		for (ASMDataTable.ASMData data : table.getAll(annotationClass.getName())) {
+	private void addClassNames(ModuleIndex table, Class annotationClass, String confType) {
+		for (ModuleIndex.Entry data : table.getAll(annotationClass.getName())) {
 			String id = (String) data.getAnnotationInfo().get("value");
 			Property prop = ModCharset.configModules.get(
 					"compat",
@@ -178,11 +184,11 @@ public class ModuleLoader {
 	}
 
 	@SuppressWarnings("unchecked")
-	private void readDataTable(ASMDataTable table) {
+	private void readDataTable(ModuleIndex table) {
 		Multimap<String, String> unmetDependencies = HashMultimap.create();
 		Set<String> enabledModules = new HashSet<>();
 		Set<String> compatModules = new HashSet<>();
-		Map<String, ASMDataTable.ASMData> moduleData = new HashMap<>();
+		Map<String, ModuleIndex.Entry> moduleData = new HashMap<>();
 
 		Property baseProfileProp = ModCharset.configGeneral.get(
 				"general",
@@ -214,6 +220,15 @@ public class ModuleLoader {
 		ModCharset.profile = profile;
 		ModCharset.logger.info("Charset profile is " + ModCharset.profile);
 
+		Property parallelLoadingProp = ModCharset.configGeneral.get(
+				"general",
+				"parallelModuleLoading",
+				false,
+				"Run module event handlers marked as thread-safe in parallel, following the module dependency graph.\nOff by default - modules are then initialized one after another."
+		);
+		parallelLoadingProp.setRequiresMcRestart(true);
+		parallelLoading = parallelLoadingProp.getBoolean();
+
 		ConfigCategory category = ModCharset.configModules.getCategory("overrides");
 		category.setComment("Overrides can have one of three values: DEFAULT, ENABLE, DISABLE\nDEFAULT will enable the module based on your profile settings and dependency availability.");
 
@@ -225,7 +240,7 @@ public class ModuleLoader {
 		Map<String, Boolean> categoryMap = new HashMap<>();
 
 		// Initialize categories
-		for (ASMDataTable.ASMData data : table.getAll(CharsetModule.class.getName())) {
+		for (ModuleIndex.Entry data : table.getAll(CharsetModule.class.getName())) {
 			Map<String, Object> info = data.getAnnotationInfo();
 			List<String> tags = (List<String>) info.getOrDefault("categories", Collections.emptyList());
 			for (String s : tags) {
@@ -237,12 +252,12 @@ public class ModuleLoader {
 			}
 		}
 
-		for (ASMDataTable.ASMData data : table.getAll(CharsetModule.class.getName())) {
+		for (ModuleIndex.Entry data : table.getAll(CharsetModule.class.getName())) {
 			Map<String, Object> info = data.getAnnotationInfo();
 			String name = (String) info.get("name");
 			String desc = (String) info.get("description");
 			if (desc == null) desc = "";
-			ModuleProfile modProfile = ModuleProfile.valueOf(((ModAnnotation.EnumHolder) info.get("profile")).getValue());
+			ModuleProfile modProfile = ModuleProfile.valueOf(ModuleIndex.getEnumValue(info.get("profile")));
 			Boolean isDefault = (Boolean) info.getOrDefault("isDefault", true);
 			Boolean compat = modProfile == ModuleProfile.COMPAT;
 			Boolean clientOnly = (Boolean) info.getOrDefault("isClientOnly", false);
@@ -397,7 +412,7 @@ public class ModuleLoader {
 			if (ModCharset.INDEV) {
 				ModCharset.logger.info("Instantiating module " + name);
 			}
-			ASMDataTable.ASMData data = moduleData.get(name);
+			ModuleIndex.Entry data = moduleData.get(name);
 			try {
 				Object o = getClass(data).newInstance();
 				loadedModules.put(name, o);
@@ -431,6 +446,10 @@ public class ModuleLoader {
 				list.sort(Comparator.comparing(Pair::getLeft));
 
 				list.add(Pair.of(loadedModules.inverse().get(instance), methodHandle));
+
+				if (getClass(data).getDeclaredMethod(methodName, methodType.parameterArray()).isAnnotationPresent(CharsetModule.ThreadSafe.class)) {
+					threadSafeHandles.add(methodHandle);
+				}
 			} catch (NoSuchMethodException e) {
 				// method has been annotated away, ignore
 			} catch (Exception e) {
@@ -477,7 +496,7 @@ public class ModuleLoader {
 		});
 
 		Side side = FMLCommonHandler.instance().getSide();
-		for (ASMDataTable.ASMData data : table.getAll(CharsetModule.SidedProxy.class.getName())) {
+		for (ModuleIndex.Entry data : table.getAll(CharsetModule.SidedProxy.class.getName())) {
 			String clientSide = (String) data.getAnnotationInfo().get("clientSide");
 			String serverSide = (String) data.getAnnotationInfo().get("serverSide");
 			try {
@@ -525,7 +544,7 @@ public class ModuleLoader {
 			MinecraftForge.EVENT_BUS.register(loadedModules.get(s));
 		}
 
-		for (ASMDataTable.ASMData data : table.getAll(CharsetCompatAnnotation.class.getName())) {
+		for (ModuleIndex.Entry data : table.getAll(CharsetCompatAnnotation.class.getName())) {
 			String id = (String) data.getAnnotationInfo().get("value");
 			try {
 				addClassNames(table, Class.forName(data.getClassName()), id);
@@ -548,43 +567,130 @@ public class ModuleLoader {
 		}
 	}
 
-	public void passEventWithProgress(FMLEvent o) {
-		Class<? extends FMLEvent> c = o.getClass();
-		List<Pair<String, MethodHandle>> list = loaderHandles.get(c);
-		if (list != null) {
-			//ProgressManager.ProgressBar bar = ProgressManager.push("Charset", list.size());
-
-			for (Pair<String, MethodHandle> pair : list) {
-				try {
-					//bar.step(pair.getKey());
-					pair.getValue().invoke(loadedModules.get(pair.getKey()), o);
-				} catch (Throwable t) {
-					t.printStackTrace();
-					throw new RuntimeException(t);
+	private void invokeHandler(String phase, Pair<String, MethodHandle> pair, FMLEvent o) {
+		long start = System.nanoTime();
+		try {
+			pair.getValue().invoke(loadedModules.get(pair.getKey()), o);
+		} catch (Throwable t) {
+			t.printStackTrace();
+			throw new RuntimeException(t);
+		}
+		startupReport.record(phase, pair.getKey(), System.nanoTime() - start);
+	}
+
+	private void passEventParallel(String phase, List<Pair<String, MethodHandle>> list, FMLEvent o) {
+		Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+
+		for (Pair<String, MethodHandle> pair : list) {
+			String module = pair.getKey();
+			List<CompletableFuture<Void>> waitFor = new ArrayList<>();
+			if (futures.containsKey(module)) {
+				waitFor.add(futures.get(module));
+			}
+			// wait on the whole dependency closure - a dependency without a handler
+			// in this phase must not let its own dependencies be skipped
+			for (String dep : getDependencyClosure(module)) {
+				if (futures.containsKey(dep)) {
+					waitFor.add(futures.get(dep));
 				}
 			}
 
-			//ProgressManager.pop(bar);
+			CompletableFuture<Void> dependenciesDone = CompletableFuture.allOf(waitFor.toArray(new CompletableFuture[0]));
+			CompletableFuture<Void> future;
+
+			if (threadSafeHandles.contains(pair.getValue())) {
+				future = dependenciesDone.thenRunAsync(() -> invokeHandler(phase, pair, o));
+			} else {
+				joinHandlers(dependenciesDone);
+				invokeHandler(phase, pair, o);
+				future = CompletableFuture.completedFuture(null);
+			}
+
+			futures.put(module, future);
 		}
+
+		joinHandlers(CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])));
+	}
+
+	private Set<String> getDependencyClosure(String module) {
+		Set<String> closure = new HashSet<>();
+		Deque<String> queue = new ArrayDeque<>();
+		queue.add(module);
+		while (!queue.isEmpty()) {
+			for (String dep : dependencies.get(queue.poll())) {
+				if (dep.startsWith("optional:")) {
+					dep = dep.substring("optional:".length());
+				}
+				if (closure.add(dep)) {
+					queue.add(dep);
+				}
+			}
+		}
+		return closure;
+	}
+
+	private void joinHandlers(CompletableFuture<Void> future) {
+		try {
+			future.join();
+		} catch (CompletionException e) {
+			Throwable t = e.getCause();
+			throw t instanceof RuntimeException ? (RuntimeException) t : new RuntimeException(t);
+		}
+	}
+
+	public void passEventWithProgress(FMLEvent o) {
+		passEvent(o);
 	}
 
 	public void passEvent(FMLEvent o) {
 		Class<? extends FMLEvent> c = o.getClass();
 		List<Pair<String, MethodHandle>> list = loaderHandles.get(c);
 		if (list != null) {
-			for (Pair<String, MethodHandle> pair : list) {
-				try {
-					pair.getValue().invoke(loadedModules.get(pair.getKey()), o);
-				} catch (Throwable t) {
-					t.printStackTrace();
-					throw new RuntimeException(t);
+			String phase = c.getSimpleName();
+			long start = System.nanoTime();
+
+			boolean parallel = false;
+			if (parallelLoading) {
+				for (Pair<String, MethodHandle> pair : list) {
+					if (threadSafeHandles.contains(pair.getValue())) {
+						parallel = true;
+						break;
+					}
 				}
 			}
+
+			if (parallel) {
+				passEventParallel(phase, list, o);
+			} else {
+				for (Pair<String, MethodHandle> pair : list) {
+					invokeHandler(phase, pair, o);
+				}
+			}
+
+			startupReport.recordPhase(phase, System.nanoTime() - start);
+		}
+	}
+
+	public ModuleStartupReport getStartupReport() {
+		return startupReport;
+	}
+
+	public void writeStartupReport() {
+		startupReport.log(ModCharset.logger, 5);
+		File file = new File(new File(Loader.instance().getConfigDir().getParentFile(), "charset"), "startup.txt");
+		try {
+			startupReport.write(file);
+		} catch (IOException e) {
+			ModCharset.logger.warn("Could not write module startup report to " + file + "!", e);
 		}
 	}
 
 	public void preInit(ASMDataTable table) {
-		readDataTable(table);
+		long start = System.nanoTime();
+		ModuleIndex index = ModuleIndex.fromTable(table);
+		startupReport.record("ModuleIndex", "(loader)", System.nanoTime() - start);
+
+		readDataTable(index);
 	}
 
 	public void init() {
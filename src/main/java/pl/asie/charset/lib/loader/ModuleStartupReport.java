@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.loader;
+
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Collects how long each module spent handling each loader event.
+ */
+public class ModuleStartupReport {
+	private final Map<String, Map<String, Long>> moduleTimes = new LinkedHashMap<>();
+	private final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+
+	public synchronized void record(String phase, String module, long nanos) {
+		moduleTimes.computeIfAbsent(phase, (k) -> new HashMap<>()).merge(module, nanos, Long::sum);
+	}
+
+	public synchronized void recordPhase(String phase, long nanos) {
+		phaseTimes.merge(phase, nanos, Long::sum);
+	}
+
+	private static String format(long nanos) {
+		return String.format(Locale.ROOT, "%9.2f ms", nanos / 1000000.0);
+	}
+
+	private static List<Map.Entry<String, Long>> sorted(Map<String, Long> map) {
+		List<Map.Entry<String, Long>> list = new ArrayList<>(map.entrySet());
+		list.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+		return list;
+	}
+
+	public synchronized Map<String, Long> getModuleTotals() {
+		Map<String, Long> totals = new HashMap<>();
+		for (Map<String, Long> map : moduleTimes.values()) {
+			for (Map.Entry<String, Long> entry : map.entrySet()) {
+				totals.merge(entry.getKey(), entry.getValue(), Long::sum);
+			}
+		}
+		return totals;
+	}
+
+	public synchronized void log(Logger logger, int count) {
+		List<Map.Entry<String, Long>> totals = sorted(getModuleTotals());
+		StringBuilder builder = new StringBuilder("Slowest modules:");
+		for (int i = 0; i < Math.min(count, totals.size()); i++) {
+			builder.append(' ').append(totals.get(i).getKey())
+					.append(String.format(Locale.ROOT, " (%.1f ms)", totals.get(i).getValue() / 1000000.0));
+			if (i < Math.min(count, totals.size()) - 1) {
+				builder.append(',');
+			}
+		}
+		logger.info(builder.toString());
+	}
+
+	public synchronized void write(File file) throws IOException {
+		File parent = file.getParentFile();
+		if (parent != null && !parent.exists() && !parent.mkdirs()) {
+			throw new IOException("Could not create " + parent);
+		}
+
+		try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+			for (Map.Entry<String, Map<String, Long>> phase : moduleTimes.entrySet()) {
+				long sum = 0;
+				for (long l : phase.getValue().values()) {
+					sum += l;
+				}
+
+				writer.println("== " + phase.getKey() + " (wall" + format(phaseTimes.getOrDefault(phase.getKey(), sum)) + ", sum" + format(sum) + ") ==");
+				for (Map.Entry<String, Long> entry : sorted(phase.getValue())) {
+					writer.println(format(entry.getValue()) + "  " + entry.getKey());
+				}
+				writer.println();
+			}
+
+			writer.println("== Total ==");
+			for (Map.Entry<String, Long> entry : sorted(getModuleTotals())) {
+				writer.println(format(entry.getValue()) + "  " + entry.getKey());
+			}
+		}
+	}
+}
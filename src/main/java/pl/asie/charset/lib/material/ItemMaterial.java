@@ -30,6 +30,8 @@ public final class ItemMaterial {
 	private final transient String id;
 	private final transient String idForTexture;
 	private final transient Set<String> types;
+	// type IDs interned by ItemMaterialRegistry, kept in sync with types
+	private final transient BitSet typeMask;
 	private final transient Map<String, ItemMaterial> relations;
 
 	protected ItemMaterial(ItemStack stack) {
@@ -37,6 +39,7 @@ public final class ItemMaterial {
 		this.id = ItemMaterialRegistry.createId(stack);
 		this.idForTexture = this.id.replaceAll("[^0-9a-zA-Z]+", "_");
 		this.types = new HashSet<>();
+		this.typeMask = new BitSet();
 		this.relations = new HashMap<>();
 	}
 
@@ -44,6 +47,10 @@ public final class ItemMaterial {
 		return types;
 	}
 
+	BitSet getTypeMask() {
+		return typeMask;
+	}
+
 	public Map<String, ItemMaterial> getRelations() {
 		return relations;
 	}
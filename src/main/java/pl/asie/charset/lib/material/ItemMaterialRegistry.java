@@ -20,6 +20,8 @@
 package pl.asie.charset.lib.material;
 
 import com.google.common.collect.*;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTBase;
@@ -36,9 +38,23 @@ public class ItemMaterialRegistry {
 	public static final ItemMaterialRegistry INSTANCE = new ItemMaterialRegistry();
 	private final Map<String, ItemMaterial> materialsById = new HashMap<>();
 	private final ListMultimap<String, ItemMaterial> materialsByType = MultimapBuilder.hashKeys().arrayListValues().build();
+	private final Object2IntMap<String> typeIds = new Object2IntOpenHashMap<>();
 
 	protected ItemMaterialRegistry() {
+		typeIds.defaultReturnValue(-1);
+	}
+
+	private int getTypeId(String type) {
+		return typeIds.getInt(type);
+	}
 
+	private int getOrCreateTypeId(String type) {
+		int id = typeIds.getInt(type);
+		if (id < 0) {
+			id = typeIds.size();
+			typeIds.put(type, id);
+		}
+		return id;
 	}
 
 	public Optional<String> getLocalizedNameFor(ItemMaterial material) {
@@ -154,12 +170,26 @@ public class ItemMaterialRegistry {
 		return materialsByType.get(type);
 	}
 
-	// TODO: slow - optimize
 	public Collection<ItemMaterial> getMaterialsByTypes(String... types) {
 		Collection<ItemMaterial> startingPoint = materialsById.values();
+		int[] required = new int[types.length];
+		int requiredCount = 0;
+		BitSet excluded = new BitSet();
 
 		for (String type : types) {
-			if (type.charAt(0) != '!') {
+			if (type.charAt(0) == '!') {
+				int id = getTypeId(type.substring(1));
+				if (id >= 0) {
+					excluded.set(id);
+				}
+			} else {
+				int id = getTypeId(type);
+				if (id < 0) {
+					// no material has this type
+					return ImmutableSet.of();
+				}
+				required[requiredCount++] = id;
+
 				Collection<ItemMaterial> collection = materialsByType.get(type);
 				if (collection.size() < startingPoint.size()) {
 					startingPoint = collection;
@@ -169,20 +199,10 @@ public class ItemMaterialRegistry {
 
 		ImmutableSet.Builder<ItemMaterial> set = new ImmutableSet.Builder<>();
 		for (ItemMaterial material : startingPoint) {
-			Collection<String> srcTypes = material.getTypes();
-			boolean valid = true;
-			for (String type : types) {
-				if (type.charAt(0) == '!') {
-					if (srcTypes.contains(type.substring(1))) {
-						valid = false;
-						break;
-					}
-				} else {
-					if (!srcTypes.contains(type)) {
-						valid = false;
-						break;
-					}
-				}
+			BitSet mask = material.getTypeMask();
+			boolean valid = !mask.intersects(excluded);
+			for (int i = 0; valid && i < requiredCount; i++) {
+				valid = mask.get(required[i]);
 			}
 			if (valid) {
 				set.add(material);
@@ -219,6 +239,7 @@ public class ItemMaterialRegistry {
 	public boolean registerType(ItemMaterial material, String type) {
 		if (type.length() > 0 && !material.getTypes().contains(type)) {
 			material.getTypes().add(type);
+			material.getTypeMask().set(getOrCreateTypeId(type));
 			materialsByType.put(type, material);
 			onRegistryChange();
 			return true;
@@ -254,14 +275,18 @@ public class ItemMaterialRegistry {
 	}
 
 	public boolean matches(ItemMaterial mat, String... mats) {
+		BitSet mask = mat.getTypeMask();
 		for (String matStr : mats) {
 			if (matStr.length() > 0 && matStr.charAt(0) == '!') {
-				matStr = matStr.substring(1);
-				if (mat.getTypes().contains(matStr)) {
+				int id = getTypeId(matStr.substring(1));
+				if (id >= 0 && mask.get(id)) {
+					return false;
+				}
+			} else {
+				int id = getTypeId(matStr);
+				if (id < 0 || !mask.get(id)) {
 					return false;
 				}
-			} else if (!mat.getTypes().contains(matStr)) {
-				return false;
 			}
 		}
 
@@ -64,6 +64,40 @@ public class MultipartUtilsMultipart extends MultipartUtils {
         }
     }
 
+    @Override
+    public int getIntersectionMask(AxisAlignedBB[] boxes1, IBlockAccess world, BlockPos pos, Predicate<IBlockState> checkPredicate) {
+        Optional<IMultipartContainer> ctr = MultipartHelper.getContainer(world instanceof IMultipartBlockAccess ? ((IMultipartBlockAccess) world).getActualWorld() : world, pos);
+
+        if (ctr.isPresent()) {
+            IPartInfo info = null;
+            if (world instanceof IMultipartBlockAccess) {
+                info = ((IMultipartBlockAccess) world).getPartInfo();
+            }
+
+            int fullMask = 0;
+            for (int i = 0; i < boxes1.length; i++) {
+                if (boxes1[i] != null) {
+                    fullMask |= 1 << i;
+                }
+            }
+
+            int mask = 0;
+            for (IPartInfo info2 : ctr.get().getParts().values()) {
+                if (mask == fullMask) {
+                    break;
+                }
+
+                if (info2 != info && checkPredicate.test(info2.getState())) {
+                    mask = getIntersectionMask(boxes1, info2.getPart().getOcclusionBoxes(info2), mask);
+                }
+            }
+
+            return mask;
+        } else {
+            return super.getIntersectionMask(boxes1, world, pos, checkPredicate);
+        }
+    }
+
     @Override
     public boolean intersects(Collection<AxisAlignedBB> boxes1, IBlockAccess world, BlockPos pos, Predicate<IBlockState> checkPredicate) {
         Optional<IMultipartContainer> ctr = MultipartHelper.getContainer(world instanceof IMultipartBlockAccess ? ((IMultipartBlockAccess) world).getActualWorld() : world, pos);
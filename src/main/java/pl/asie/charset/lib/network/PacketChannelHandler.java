@@ -19,6 +19,7 @@
 
 package pl.asie.charset.lib.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
@@ -39,13 +40,19 @@ public class PacketChannelHandler extends MessageToMessageCodec<FMLProxyPacket,
 		this.registry = registry;
 	}
 
+	void write(Packet msg, ByteBuf buf) {
+		PacketBuffer buffer = new PacketBuffer(buf);
+		buffer.writeByte(registry.getPacketId(msg.getClass()));
+		msg.writeData(buffer);
+	}
+
 	@Override
 	protected void encode(ChannelHandlerContext ctx, Packet msg,
 						  List<Object> out) throws Exception {
-		PacketBuffer buffer = new PacketBuffer(Unpooled.buffer());
-		buffer.writeByte(registry.getPacketId(msg.getClass()));
-		msg.writeData(buffer);
-		FMLProxyPacket proxy = new FMLProxyPacket(buffer, ctx.channel().attr(NetworkRegistry.FML_CHANNEL).get());
+		ByteBuf buffer = Unpooled.buffer();
+		write(msg, buffer);
+		registry.getStatistics().recordSent(buffer.getUnsignedByte(0), buffer.readableBytes(), 1);
+		FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(buffer), ctx.channel().attr(NetworkRegistry.FML_CHANNEL).get());
 		out.add(proxy);
 	}
 
@@ -53,9 +60,26 @@ public class PacketChannelHandler extends MessageToMessageCodec<FMLProxyPacket,
 	protected void decode(ChannelHandlerContext ctx, FMLProxyPacket msg,
 						  List<Object> out) throws Exception {
 		INetHandler iNetHandler = ctx.channel().attr(NetworkRegistry.NET_HANDLER).get();
-		Packet newMsg = registry.instantiatePacket(msg.payload().readUnsignedByte());
+		ByteBuf payload = msg.payload();
+		int id = payload.readUnsignedByte();
+
+		if (id == PacketRegistry.BUNDLE_ID) {
+			PacketBuffer bundle = new PacketBuffer(payload);
+			while (bundle.isReadable()) {
+				int length = bundle.readVarInt();
+				ByteBuf frame = bundle.readSlice(length);
+				handle(iNetHandler, frame.readUnsignedByte(), frame);
+			}
+		} else {
+			handle(iNetHandler, id, payload);
+		}
+	}
+
+	private void handle(INetHandler iNetHandler, int id, ByteBuf payload) {
+		registry.getStatistics().recordReceived(id, payload.readableBytes() + 1);
+		Packet newMsg = registry.instantiatePacket(id);
 		if (newMsg != null) {
-			newMsg.readData(iNetHandler, new PacketBuffer(msg.payload()));
+			newMsg.readData(iNetHandler, new PacketBuffer(payload));
 			if (newMsg.isAsynchronous()) {
 				newMsg.apply(iNetHandler);
 			} else {
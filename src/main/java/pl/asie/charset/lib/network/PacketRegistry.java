@@ -19,29 +19,58 @@
 
 package pl.asie.charset.lib.network;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
-import net.minecraft.server.management.PlayerChunkMap;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerChunkMapEntry;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.network.FMLEmbeddedChannel;
 import net.minecraftforge.fml.common.network.FMLOutboundHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
+import net.minecraftforge.fml.common.network.internal.FMLProxyPacket;
 import net.minecraftforge.fml.relauncher.Side;
 import pl.asie.charset.ModCharset;
 
-import java.util.EnumMap;
-import java.util.HashSet;
+import javax.annotation.Nullable;
+import java.util.*;
 
 public class PacketRegistry {
+	/**
+	 * Reserved packet ID used for frames carrying several length-prefixed
+	 * packets at once.
+	 */
+	static final int BUNDLE_ID = 0xFF;
+	/**
+	 * Packets up to this size (in bytes), sent from the server thread, are
+	 * held back and sent to each player as part of a single bundle at the
+	 * end of the server tick. This means they arrive after any vanilla
+	 * packets sent during the same tick; use {@link #flush(EntityPlayerMP)}
+	 * before a vanilla send if the client relies on the ordering.
+	 */
+	private static final int BUNDLE_PACKET_MAX_SIZE = 256;
+	private static final int BUNDLE_MAX_SIZE = 16384;
+
 	private static final HashSet<String> usedChannelNames = new HashSet<>();
+	private static final List<PacketRegistry> registries = new ArrayList<>();
 
+	private final String channelName;
+	private final PacketChannelHandler handler;
+	// only ever accessed from the server thread
+	private final Map<EntityPlayerMP, ByteBuf> bundles = new IdentityHashMap<>();
+	private final PacketStatistics statistics = new PacketStatistics();
 	private EnumMap<Side, FMLEmbeddedChannel> channels;
 	@SuppressWarnings("unchecked")
 	private Class<? extends Packet>[] idPacketMap = (Class<? extends Packet>[]) new Class[256];
@@ -57,11 +86,17 @@ public class PacketRegistry {
 			throw new RuntimeException("Channel name already used: " + channelName);
 		}
 
-		channels = NetworkRegistry.INSTANCE.newChannel(channelName, new PacketChannelHandler(this));
+		this.channelName = channelName;
+		this.handler = new PacketChannelHandler(this);
+		channels = NetworkRegistry.INSTANCE.newChannel(channelName, handler);
 		usedChannelNames.add(channelName);
+		registries.add(this);
 	}
 
 	public void registerPacket(int id, Class<? extends Packet> packet) {
+		if (id == BUNDLE_ID) {
+			throw new RuntimeException("Packet ID " + id + " is reserved! This is a Charset bug!");
+		}
 		try {
 			packet.getConstructor();
 		} catch (NoSuchMethodException e) {
@@ -75,9 +110,165 @@ public class PacketRegistry {
 		return channels.get(Side.SERVER).generatePacketFrom(message);
 	}
 
+	private static MinecraftServer getServer() {
+		return FMLCommonHandler.instance().getMinecraftServerInstance();
+	}
+
+	private ByteBuf serialize(Packet message) {
+		ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+		try {
+			handler.write(message, buf);
+		} catch (RuntimeException e) {
+			buf.release();
+			throw e;
+		}
+		return buf;
+	}
+
+	/**
+	 * Sends a serialized packet to every given player, sharing the same
+	 * buffer between all recipients.
+	 */
+	public void sendToPlayers(Packet message, Iterable<? extends EntityPlayer> players, Entity except) {
+		ByteBuf data = null;
+		int recipients = 0;
+		try {
+			for (EntityPlayer player : players) {
+				if (player != except && isConnected(player)) {
+					if (data == null) {
+						data = serialize(message);
+					}
+					send((EntityPlayerMP) player, data);
+					recipients++;
+				}
+			}
+		} finally {
+			if (data != null) {
+				statistics.recordSent(data.getUnsignedByte(data.readerIndex()), data.readableBytes(), recipients);
+				data.release();
+			}
+		}
+	}
+
+	private static boolean isConnected(EntityPlayer player) {
+		return player instanceof EntityPlayerMP && ((EntityPlayerMP) player).connection != null;
+	}
+
+	private void send(EntityPlayerMP player, ByteBuf data) {
+		MinecraftServer server = getServer();
+		if (server == null || !server.isCallingFromMinecraftThread()) {
+			// bundles are server thread-only; other threads send directly
+			sendRaw(player, data.retainedDuplicate());
+		} else if (data.readableBytes() <= BUNDLE_PACKET_MAX_SIZE) {
+			ByteBuf bundle = bundles.get(player);
+			if (bundle != null && bundle.readableBytes() + data.readableBytes() + 5 > BUNDLE_MAX_SIZE) {
+				sendRaw(player, bundles.remove(player));
+				bundle = null;
+			}
+			if (bundle == null) {
+				bundle = PooledByteBufAllocator.DEFAULT.buffer();
+				bundle.writeByte(BUNDLE_ID);
+				bundles.put(player, bundle);
+			}
+			new PacketBuffer(bundle).writeVarInt(data.readableBytes());
+			bundle.writeBytes(data, data.readerIndex(), data.readableBytes());
+		} else {
+			// keep ordering intact with respect to already bundled packets
+			flushBundle(player);
+			sendRaw(player, data.retainedDuplicate());
+		}
+	}
+
+	/**
+	 * Sends a buffer to a player, taking over its reference.
+	 */
+	private void sendRaw(EntityPlayerMP player, ByteBuf buf) {
+		NetworkManager manager = player.connection.getNetworkManager();
+		if (manager.isLocalChannel()) {
+			// Local channels hand the packet object over as-is, so the
+			// client may read it after the write has completed.
+			FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(Unpooled.copiedBuffer(buf)), channelName);
+			buf.release();
+			manager.sendPacket(proxy);
+		} else {
+			FMLProxyPacket proxy = new FMLProxyPacket(new PacketBuffer(buf), channelName);
+			manager.sendPacket(proxy, future -> buf.release());
+		}
+	}
+
+	private void flushBundles() {
+		if (!bundles.isEmpty()) {
+			for (Map.Entry<EntityPlayerMP, ByteBuf> entry : bundles.entrySet()) {
+				if (isConnected(entry.getKey())) {
+					sendRaw(entry.getKey(), entry.getValue());
+				} else {
+					entry.getValue().release();
+				}
+			}
+			bundles.clear();
+		}
+	}
+
+	private void flushBundle(EntityPlayerMP player) {
+		ByteBuf bundle = bundles.remove(player);
+		if (bundle != null) {
+			sendRaw(player, bundle);
+		}
+	}
+
+	/**
+	 * Immediately sends any packets bundled for the given player so far.
+	 * Must be called from the server thread.
+	 */
+	public static void flush(EntityPlayerMP player) {
+		for (PacketRegistry registry : registries) {
+			registry.flushBundle(player);
+		}
+	}
+
+	private void dropBundle(EntityPlayer player) {
+		ByteBuf bundle = bundles.remove(player);
+		if (bundle != null) {
+			bundle.release();
+		}
+	}
+
+	static void onServerTickEnd() {
+		long time = System.nanoTime();
+		for (PacketRegistry registry : registries) {
+			registry.flushBundles();
+			registry.statistics.update(time);
+		}
+	}
+
+	public static Collection<PacketRegistry> getRegistries() {
+		return Collections.unmodifiableList(registries);
+	}
+
+	public String getChannelName() {
+		return channelName;
+	}
+
+	public PacketStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Nullable
+	public Class<? extends Packet> getPacketClass(int id) {
+		return idPacketMap[id];
+	}
+
+	static void dropAllBundles(EntityPlayer player) {
+		for (PacketRegistry registry : registries) {
+			registry.dropBundle(player);
+		}
+	}
+
 	public void sendToAll(Packet message) {
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALL);
-		channels.get(Side.SERVER).writeOutbound(message);
+		MinecraftServer server = getServer();
+		if (server != null) {
+			sendToPlayers(message, server.getPlayerList().getPlayers(), null);
+		}
 	}
 
 	public void sendToWatching(Packet message, World world, BlockPos pos, Entity except) {
@@ -85,15 +276,9 @@ public class PacketRegistry {
 			throw new RuntimeException("Attempted to send S->C packet " + message.getClass().getName() + " without a server-side world instance (" + world.getClass().getName() + "); this is a bug!");
 		} else {
 			WorldServer worldServer = (WorldServer) world;
-			PlayerChunkMap map = worldServer.getPlayerChunkMap();
-			for (EntityPlayer player : worldServer.playerEntities) {
-				if (player != except) {
-					if (map.isPlayerWatchingChunk((EntityPlayerMP) player, pos.getX() >> 4, pos.getZ() >> 4)) {
-						channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.PLAYER);
-						channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(player);
-						channels.get(Side.SERVER).writeOutbound(message);
-					}
-				}
+			PlayerChunkMapEntry entry = worldServer.getPlayerChunkMap().getEntry(pos.getX() >> 4, pos.getZ() >> 4);
+			if (entry != null) {
+				sendToPlayers(message, entry.getWatchingPlayers(), except);
 			}
 		}
 	}
@@ -116,21 +301,34 @@ public class PacketRegistry {
 	}
 
 	public void sendTo(Packet message, EntityPlayer player) {
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.PLAYER);
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(player);
-		channels.get(Side.SERVER).writeOutbound(message);
+		sendToPlayers(message, Collections.singletonList(player), null);
 	}
 
 	public void sendToAllAround(Packet message, NetworkRegistry.TargetPoint point) {
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.ALLAROUNDPOINT);
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(point);
-		channels.get(Side.SERVER).writeOutbound(message);
+		MinecraftServer server = getServer();
+		if (server != null) {
+			List<EntityPlayerMP> players = new ArrayList<>();
+			double rangeSq = point.range * point.range;
+			for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+				if (player.dimension == point.dimension && player.getDistanceSq(point.x, point.y, point.z) < rangeSq) {
+					players.add(player);
+				}
+			}
+			sendToPlayers(message, players, null);
+		}
 	}
 
 	public void sendToDimension(Packet message, int dimensionId) {
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGET).set(FMLOutboundHandler.OutboundTarget.DIMENSION);
-		channels.get(Side.SERVER).attr(FMLOutboundHandler.FML_MESSAGETARGETARGS).set(dimensionId);
-		channels.get(Side.SERVER).writeOutbound(message);
+		MinecraftServer server = getServer();
+		if (server != null) {
+			List<EntityPlayerMP> players = new ArrayList<>();
+			for (EntityPlayerMP player : server.getPlayerList().getPlayers()) {
+				if (player.dimension == dimensionId) {
+					players.add(player);
+				}
+			}
+			sendToPlayers(message, players, null);
+		}
 	}
 
 	public void sendToServer(Packet message) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.network;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-packet-ID traffic counters for a single {@link PacketRegistry}.
+ *
+ * Totals are kept since the last reset; in addition, the counts of the
+ * last completed window are kept around to provide rates.
+ *
+ * Packets are recorded from netty IO threads as well as the sending
+ * threads (both sides, on an integrated server), so the totals are atomic.
+ */
+public class PacketStatistics {
+	public static final long WINDOW_NANOS = 5_000_000_000L;
+
+	public enum Type {
+		SENT_PACKETS,
+		SENT_BYTES,
+		RECIPIENTS,
+		RECEIVED_PACKETS,
+		RECEIVED_BYTES
+	}
+
+	private static final int TYPES = Type.values().length;
+
+	// [type * 256 + id]
+	private final AtomicLongArray totals = new AtomicLongArray(TYPES * 256);
+	private final long[] windowStart = new long[TYPES * 256];
+	private final long[] lastWindow = new long[TYPES * 256];
+	private long windowStartTime = System.nanoTime();
+	private long lastWindowLength = 0;
+
+	void recordSent(int id, int bytes, int recipients) {
+		totals.incrementAndGet(Type.SENT_PACKETS.ordinal() * 256 + id);
+		totals.addAndGet(Type.SENT_BYTES.ordinal() * 256 + id, (long) bytes * recipients);
+		totals.addAndGet(Type.RECIPIENTS.ordinal() * 256 + id, recipients);
+	}
+
+	void recordReceived(int id, int bytes) {
+		totals.incrementAndGet(Type.RECEIVED_PACKETS.ordinal() * 256 + id);
+		totals.addAndGet(Type.RECEIVED_BYTES.ordinal() * 256 + id, bytes);
+	}
+
+	void update(long time) {
+		if (time - windowStartTime >= WINDOW_NANOS) {
+			for (int i = 0; i < totals.length(); i++) {
+				long v = totals.get(i);
+				lastWindow[i] = v - windowStart[i];
+				windowStart[i] = v;
+			}
+			lastWindowLength = time - windowStartTime;
+			windowStartTime = time;
+		}
+	}
+
+	public void reset() {
+		for (int i = 0; i < totals.length(); i++) {
+			totals.set(i, 0);
+			windowStart[i] = 0;
+			lastWindow[i] = 0;
+		}
+		windowStartTime = System.nanoTime();
+		lastWindowLength = 0;
+	}
+
+	public long getTotal(Type type, int id) {
+		return totals.get(type.ordinal() * 256 + id);
+	}
+
+	/**
+	 * @return The rate per second over the last completed window.
+	 */
+	public double getRate(Type type, int id) {
+		if (lastWindowLength <= 0) {
+			return 0;
+		}
+		return lastWindow[type.ordinal() * 256 + id] * 1_000_000_000.0 / lastWindowLength;
+	}
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.render.model;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import net.minecraft.client.renderer.vertex.VertexFormat;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+import pl.asie.charset.ModCharset;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Persists baked quads of dynamic models across client restarts.
+ *
+ * The cache is an append-only file: a header carrying a fingerprint of the
+ * loaded mod and resource pack files, followed by length-prefixed entries.
+ * The existing part of the file is memory-mapped and only indexed on first
+ * use; entries are decoded when requested. Every sprite referenced by an
+ * entry records its atlas UVs, so entries baked against a different atlas
+ * layout are rejected on load. Once superseded entries take up most of the
+ * file, it is compacted on open.
+ */
+public final class ModelDiskCache {
+	public static final ModelDiskCache INSTANCE = new ModelDiskCache();
+
+	private static final int MAGIC = 0x43484d43;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final long MAX_FILE_SIZE = 1 << 28;
+	private static final long MIN_COMPACT_GARBAGE = 1 << 16;
+	private static final VertexFormat[] FORMATS = new VertexFormat[] {
+			DefaultVertexFormats.BLOCK, DefaultVertexFormats.ITEM
+	};
+
+	public static boolean enabled = true;
+
+	private final Map<String, Integer> index = new HashMap<>();
+	private final Set<String> stored = new HashSet<>();
+	private MappedByteBuffer mapped;
+	private FileChannel channel;
+	private boolean opened, failed;
+
+	private ModelDiskCache() {
+
+	}
+
+	private static File getFile() {
+		return new File(new File(Loader.instance().getConfigDir().getParentFile(), "charset"), "modelcache.bin");
+	}
+
+	/**
+	 * @return A fingerprint of the loaded mod and resource pack files, or null
+	 * if one of them cannot be fingerprinted reliably (such as a directory),
+	 * in which case nothing should be cached.
+	 */
+	@Nullable
+	private static Long getFingerprint() {
+		StringBuilder builder = new StringBuilder();
+		for (ModContainer container : Loader.instance().getActiveModList()) {
+			File source = container.getSource();
+			builder.append(container.getModId()).append('@').append(container.getVersion());
+			if (source != null) {
+				if (source.isDirectory()) {
+					return null;
+				}
+				builder.append('@').append(source.getName()).append(':').append(source.length()).append(':').append(source.lastModified());
+			}
+			builder.append(';');
+		}
+		builder.append('|');
+		File packDir = Minecraft.getMinecraft().getResourcePackRepository().getDirResourcepacks();
+		for (String pack : Minecraft.getMinecraft().gameSettings.resourcePacks) {
+			File packFile = new File(packDir, pack);
+			if (packFile.isDirectory()) {
+				return null;
+			}
+			builder.append(pack).append(':').append(packFile.length()).append(':').append(packFile.lastModified()).append(';');
+		}
+		builder.append('|').append(Minecraft.getMinecraft().gameSettings.mipmapLevels);
+
+		long hash = 1125899906842597L;
+		String s = builder.toString();
+		for (int i = 0; i < s.length(); i++) {
+			hash = 31 * hash + s.charAt(i);
+		}
+		return hash;
+	}
+
+	/**
+	 * Releases a mapping eagerly, rather than whenever it is garbage collected;
+	 * on Windows, a file cannot be truncated or replaced while it is mapped.
+	 */
+	private static void unmap(@Nullable MappedByteBuffer buffer) {
+		if (buffer == null) {
+			return;
+		}
+
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass().getMethod("clean").invoke(cleaner);
+			}
+		} catch (Exception e) {
+			// pass - released on GC instead
+		}
+	}
+
+	private void close() {
+		index.clear();
+		unmap(mapped);
+		mapped = null;
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// pass
+			}
+			channel = null;
+		}
+	}
+
+	/**
+	 * Closes the cache; it will be reopened (and its fingerprint checked
+	 * again) on next use. Called on every resource reload.
+	 */
+	public synchronized void reset() {
+		close();
+		stored.clear();
+		opened = false;
+		failed = false;
+	}
+
+	private void open() {
+		opened = true;
+		File file = getFile();
+		Long fingerprint = getFingerprint();
+		if (fingerprint == null) {
+			failed = true;
+			return;
+		}
+
+		try {
+			if (!openFile(file, fingerprint)) {
+				// compacted; pick up the rewritten file
+				close();
+				openFile(file, fingerprint);
+			}
+		} catch (IOException | RuntimeException e) {
+			ModCharset.logger.warn("Could not open model cache " + file + ", disabling for this session.", e);
+			failed = true;
+			close();
+		}
+	}
+
+	/**
+	 * @return False if the file was compacted and has to be opened again.
+	 */
+	private boolean openFile(File file, long fingerprint) throws IOException {
+		file.getParentFile().mkdirs();
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long size = channel.size();
+		boolean valid = false;
+
+		if (size >= HEADER_SIZE && size <= MAX_FILE_SIZE) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+				// pass
+			}
+			header.flip();
+			valid = header.remaining() == HEADER_SIZE && header.getInt() == MAGIC && header.getInt() == VERSION && header.getLong() == fingerprint;
+		}
+
+		if (valid) {
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int pos = HEADER_SIZE;
+			long garbage = 0;
+			while (pos + 4 <= size) {
+				int length = mapped.getInt(pos);
+				if (length <= 0 || pos + 4L + length > size) {
+					break;
+				}
+				mapped.position(pos + 4);
+				Integer previous = index.put(readString(mapped), pos + 4);
+				if (previous != null) {
+					// rejected entries are re-appended once rebaked
+					garbage += 4 + mapped.getInt(previous - 4);
+				}
+				pos += 4 + length;
+			}
+
+			if (pos < size) {
+				// drop a partially written tail, so that a shorter entry written over it
+				// cannot leave stray bytes behind; the mapping has to go first on Windows
+				unmap(mapped);
+				mapped = null;
+				channel.truncate(pos);
+				mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, pos);
+			}
+
+			if (garbage >= MIN_COMPACT_GARBAGE && garbage * 2 >= pos) {
+				compact(file, fingerprint);
+				return false;
+			}
+
+			channel.position(pos);
+		} else {
+			channel.truncate(0);
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putLong(fingerprint);
+			header.flip();
+			channel.write(header, 0);
+			channel.position(HEADER_SIZE);
+		}
+
+		return true;
+	}
+
+	private void compact(File file, long fingerprint) throws IOException {
+		File tmpFile = new File(file.getPath() + ".tmp");
+		List<Integer> offsets = new ArrayList<>(index.values());
+		Collections.sort(offsets);
+
+		try (FileChannel out = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(MAGIC).putInt(VERSION).putLong(fingerprint);
+			header.flip();
+			while (header.hasRemaining()) {
+				out.write(header);
+			}
+
+			for (int offset : offsets) {
+				ByteBuffer entry = mapped.duplicate();
+				entry.limit(offset + mapped.getInt(offset - 4));
+				entry.position(offset - 4);
+				while (entry.hasRemaining()) {
+					out.write(entry);
+				}
+			}
+		}
+
+		close();
+		Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private boolean ensureOpen() {
+		if (!enabled) {
+			return false;
+		}
+		if (!opened) {
+			open();
+		}
+		return !failed;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] data = new byte[buffer.getShort() & 0xFFFF];
+		buffer.get(data);
+		return new String(data, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream stream, String s) throws IOException {
+		byte[] data = s.getBytes(StandardCharsets.UTF_8);
+		stream.writeShort(data.length);
+		stream.write(data);
+	}
+
+	@Nullable
+	public synchronized SimpleBakedModel load(String key) {
+		if (!ensureOpen()) {
+			return null;
+		}
+
+		Integer offset = index.get(key);
+		if (offset == null || mapped == null) {
+			return null;
+		}
+
+		try {
+			ByteBuffer buffer = mapped.duplicate();
+			buffer.position(offset);
+			readString(buffer);
+
+			TextureMap map = Minecraft.getMinecraft().getTextureMapBlocks();
+			TextureAtlasSprite[] sprites = new TextureAtlasSprite[buffer.getShort() & 0xFFFF];
+			for (int i = 0; i < sprites.length; i++) {
+				String name = readString(buffer);
+				TextureAtlasSprite sprite = map.getAtlasSprite(name);
+				if (!sprite.getIconName().equals(name)
+						|| sprite.getMinU() != buffer.getFloat() || sprite.getMinV() != buffer.getFloat()
+						|| sprite.getMaxU() != buffer.getFloat() || sprite.getMaxV() != buffer.getFloat()) {
+					index.remove(key);
+					return null;
+				}
+				sprites[i] = sprite;
+			}
+
+			SimpleBakedModel model = new SimpleBakedModel();
+			model.setParticle(sprites[buffer.getShort() & 0xFFFF]);
+			for (int f = 0; f < 7; f++) {
+				EnumFacing side = f == 6 ? null : EnumFacing.byIndex(f);
+				int quadCount = buffer.getInt();
+				for (int q = 0; q < quadCount; q++) {
+					VertexFormat format = FORMATS[buffer.get()];
+					int tintIndex = buffer.getInt();
+					EnumFacing face = EnumFacing.byIndex(buffer.get());
+					boolean diffuse = buffer.get() != 0;
+					TextureAtlasSprite sprite = sprites[buffer.getShort() & 0xFFFF];
+					int[] data = new int[buffer.getInt()];
+					buffer.asIntBuffer().get(data);
+					buffer.position(buffer.position() + data.length * 4);
+					model.addQuad(side, new BakedQuad(data, tintIndex, face, sprite, diffuse, format));
+				}
+			}
+			return model;
+		} catch (RuntimeException e) {
+			ModCharset.logger.warn("Corrupt model cache entry " + key + ", ignoring.", e);
+			index.remove(key);
+			return null;
+		}
+	}
+
+	private static int getFormatId(VertexFormat format) {
+		for (int i = 0; i < FORMATS.length; i++) {
+			if (FORMATS[i].equals(format)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Stores a freshly baked model. Models which cannot be represented
+	 * faithfully (no ambient occlusion, unusual vertex formats) are skipped.
+	 */
+	public synchronized void store(String key, IBakedModel model) {
+		if (!ensureOpen() || index.containsKey(key) || !stored.add(key) || !model.isAmbientOcclusion() || !model.isGui3d()) {
+			return;
+		}
+
+		try {
+			List<TextureAtlasSprite> sprites = new ArrayList<>();
+			Map<TextureAtlasSprite, Integer> spriteIds = new IdentityHashMap<>();
+			ByteArrayOutputStream quadBytes = new ByteArrayOutputStream();
+			DataOutputStream quadStream = new DataOutputStream(quadBytes);
+
+			TextureAtlasSprite particle = model.getParticleTexture();
+			spriteIds.put(particle, 0);
+			sprites.add(particle);
+			quadStream.writeShort(0);
+
+			for (int f = 0; f < 7; f++) {
+				List<BakedQuad> quads = model.getQuads(null, f == 6 ? null : EnumFacing.byIndex(f), 0);
+				quadStream.writeInt(quads.size());
+				for (BakedQuad quad : quads) {
+					int formatId = getFormatId(quad.getFormat());
+					if (formatId < 0 || quad.getFace() == null) {
+						return;
+					}
+
+					Integer spriteId = spriteIds.get(quad.getSprite());
+					if (spriteId == null) {
+						spriteId = sprites.size();
+						spriteIds.put(quad.getSprite(), spriteId);
+						sprites.add(quad.getSprite());
+					}
+
+					int[] data = quad.getVertexData();
+					quadStream.writeByte(formatId);
+					quadStream.writeInt(quad.getTintIndex());
+					quadStream.writeByte(quad.getFace().getIndex());
+					quadStream.writeBoolean(quad.shouldApplyDiffuseLighting());
+					quadStream.writeShort(spriteId);
+					quadStream.writeInt(data.length);
+					for (int i : data) {
+						quadStream.writeInt(i);
+					}
+				}
+			}
+
+			ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+			DataOutputStream entryStream = new DataOutputStream(entryBytes);
+			writeString(entryStream, key);
+			entryStream.writeShort(sprites.size());
+			for (TextureAtlasSprite sprite : sprites) {
+				writeString(entryStream, sprite.getIconName());
+				entryStream.writeFloat(sprite.getMinU());
+				entryStream.writeFloat(sprite.getMinV());
+				entryStream.writeFloat(sprite.getMaxU());
+				entryStream.writeFloat(sprite.getMaxV());
+			}
+			quadStream.flush();
+			quadBytes.writeTo(entryStream);
+			entryStream.flush();
+
+			ByteBuffer out = ByteBuffer.allocate(4 + entryBytes.size());
+			out.putInt(entryBytes.size());
+			out.put(entryBytes.toByteArray());
+			out.flip();
+			while (out.hasRemaining()) {
+				channel.write(out);
+			}
+			// only entries present in the mapped region can be loaded;
+			// this one will be picked up on the next start
+		} catch (IOException e) {
+			ModCharset.logger.warn("Could not write model cache entry " + key + ", disabling for this session.", e);
+			failed = true;
+		}
+	}
+}
@@ -21,7 +21,11 @@ package pl.asie.charset.lib.render.model;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
@@ -43,14 +47,18 @@ import pl.asie.charset.lib.utils.RenderUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 public abstract class ModelFactory<T extends IRenderComparable<T>> extends BaseBakedModel implements IStateParticleBakedModel {
     public static final boolean DISABLE_CACHE = ModCharset.INDEV;
     private static final Set<ModelFactory> FACTORIES = new HashSet<>();
+    /**
+     * The maximum amount of quads held by a single factory's cache.
+     */
+    public static long cacheMaxQuads = 262144;
+    public static boolean prewarmCaches = false;
+    private static boolean prewarmRequested;
 
     private static class MFItemOverride extends ItemOverrideList {
         public static final MFItemOverride INSTANCE = new MFItemOverride();
@@ -75,7 +83,7 @@ public abstract class ModelFactory<T extends IRenderComparable<T>> extends BaseB
         }
     }
 
-    private final Cache<ModelKey<T>, IBakedModel> cache;
+    private volatile Cache<ModelKey<T>, IBakedModel> cache;
     private final IUnlistedProperty<T> property;
     private final ResourceLocation particle;
 
@@ -84,18 +92,98 @@ public abstract class ModelFactory<T extends IRenderComparable<T>> extends BaseB
         FACTORIES.add(this);
 
         this.particle = particle;
-        this.cache = CacheBuilder.newBuilder().softValues().expireAfterAccess(1, TimeUnit.MINUTES).build();
+        this.cache = createCache();
         this.property = property;
     }
 
+    private static int getQuadCount(IBakedModel model) {
+        int count = 0;
+        try {
+            count += model.getQuads(null, null, 0).size();
+            for (EnumFacing facing : EnumFacing.VALUES) {
+                count += model.getQuads(null, facing, 0).size();
+            }
+        } catch (RuntimeException e) {
+            // some models require a block state to provide quads
+        }
+        return Math.max(1, count);
+    }
+
+    private Cache<ModelKey<T>, IBakedModel> createCache() {
+        return CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxQuads)
+                .weigher((ModelKey<T> key, IBakedModel model) -> getQuadCount(model))
+                .recordStats()
+                .build();
+    }
+
     public void invalidate() {
-        cache.invalidateAll();
+        // recreated to pick up configuration changes and reset statistics
+        cache = createCache();
     }
 
     public static void clearCaches() {
         for (ModelFactory factory : FACTORIES) {
             factory.invalidate();
         }
+        ModelDiskCache.INSTANCE.reset();
+        prewarmRequested = prewarmCaches;
+    }
+
+    public static Collection<ModelFactory> getFactories() {
+        return Collections.unmodifiableSet(FACTORIES);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    public long getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Provides the objects whose item models should be baked ahead of time,
+     * typically one per material variant known to the material registry.
+     */
+    protected Collection<T> getPrewarmObjects() {
+        return Collections.emptyList();
+    }
+
+    protected Collection<T> fromItemStacks(Collection<ItemStack> stacks) {
+        List<T> objects = new ArrayList<>(stacks.size());
+        for (ItemStack stack : stacks) {
+            objects.add(fromItemStack(stack));
+        }
+        return objects;
+    }
+
+    public void prewarm() {
+        if (DISABLE_CACHE) {
+            return;
+        }
+
+        for (T object : getPrewarmObjects()) {
+            if (object != null && shouldCache(object, null)) {
+                getModel(object, null);
+            }
+        }
+    }
+
+    /**
+     * Runs a pending cache prewarm pass, if one was requested by the last
+     * resource reload. Baking does not touch OpenGL state, so this only
+     * needs the texture atlas to have been stitched.
+     */
+    public static void prewarmIfRequested() {
+        if (prewarmRequested) {
+            prewarmRequested = false;
+            long time = System.currentTimeMillis();
+            for (ModelFactory factory : FACTORIES) {
+                factory.prewarm();
+            }
+            ModCharset.logger.info("Model cache prewarm time: " + (System.currentTimeMillis() - time) + "ms");
+        }
     }
 
     public IUnlistedProperty<T> getProperty() {
@@ -109,6 +197,41 @@ public abstract class ModelFactory<T extends IRenderComparable<T>> extends BaseB
         return true;
     }
 
+    /**
+     * Returns a key identifying the model for the given object across
+     * client restarts, or null if its baked quads should not be persisted.
+     * Must only depend on stable data, such as sprite names.
+     */
+    @Nullable
+    protected String getPersistentKey(T object, @Nullable BlockRenderLayer layer) {
+        return null;
+    }
+
+    /**
+     * Applies the item transformations to a model restored from the
+     * persistent cache.
+     */
+    protected IBakedModel restoreTransforms(BaseBakedModel model) {
+        return model.addDefaultBlockTransforms();
+    }
+
+    private IBakedModel bakeOrRestore(T object, BlockRenderLayer layer) {
+        String persistentKey = getPersistentKey(object, layer);
+        if (persistentKey != null) {
+            persistentKey = getClass().getName() + "/" + persistentKey + "/" + (layer != null ? layer.name() : "item");
+            SimpleBakedModel model = ModelDiskCache.INSTANCE.load(persistentKey);
+            if (model != null) {
+                return restoreTransforms(model);
+            }
+        }
+
+        IBakedModel model = bake(object, layer == null, layer);
+        if (persistentKey != null && model != null) {
+            ModelDiskCache.INSTANCE.store(persistentKey, model);
+        }
+        return model;
+    }
+
     private IBakedModel getModel(T object, BlockRenderLayer layer) {
         if (object == null) {
             return null;
@@ -121,10 +244,13 @@ public abstract class ModelFactory<T extends IRenderComparable<T>> extends BaseB
             IBakedModel model = cache.getIfPresent(key);
             if (model != null) {
                 return model;
-            } else {
-                model = bake(object, layer == null, layer);
-                cache.put(key, model);
-                return model;
+            }
+
+            try {
+                return cache.get(key, () -> bakeOrRestore(object, layer));
+            } catch (ExecutionException | UncheckedExecutionException | ExecutionError | CacheLoader.InvalidCacheLoadException e) {
+                ModCharset.logger.warn("Could not bake model for " + object, e);
+                return null;
             }
         }
     }
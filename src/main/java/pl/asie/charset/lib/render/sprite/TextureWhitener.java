@@ -48,6 +48,7 @@ public class TextureWhitener {
 		float luma = 0.0f;
 		int alpha = 0;
 
+		float[] vals = new float[3];
 		for (int y = 0; y < image.getHeight(); y++) {
 			for (int x = 0; x < image.getWidth(); x++) {
 				if (usePixel != null && !usePixel.test(x / (float) image.getWidth(), y / (float) image.getHeight()))
@@ -59,7 +60,7 @@ public class TextureWhitener {
 						alpha = a;
 					}
 
-					float[] vals = Colorspaces.convertFromRGB(image.getRGB(x, y), Colorspace.YUV);
+					Colorspaces.convertFromRGB(image.getRGB(x, y), Colorspace.YUV, vals);
 					if (luma < vals[0]) {
 						luma = vals[0];
 					}
@@ -92,12 +93,13 @@ public class TextureWhitener {
 		float luma = lumaMap.get(colorTexture);
 		int a = alphaMap.get(colorTexture);
 		int height = pixels.length / width;
+		float[] vals = new float[3];
 
 		PixelOperationSprite.forEach((x, y, value) -> {
 			if (usePixel != null && !usePixel.test(x / (float) width, y / (float) height))
 				return value;
 
-			float[] vals = Colorspaces.convertFromRGB(value, Colorspace.YUV);
+			Colorspaces.convertFromRGB(value, Colorspace.YUV, vals);
 			vals[0] *= (1.0f / luma) * lumaMultiplier;
 			if (!preserveColor) {
 				vals[1] = 0.0f;
@@ -109,7 +111,7 @@ public class TextureWhitener {
 //			} else {
 //				alpha = (int) ((float) alpha * 255.0f / (float) a);
 			}
-			return (alpha << 24) | (Colorspaces.convertToRGB(vals, Colorspace.YUV) & 0xFFFFFF);
+			return (alpha << 24) | (Colorspaces.convertToRGB(vals, Colorspace.YUV, vals) & 0xFFFFFF);
 		}).apply(pixels, width, getter);
 	}
 
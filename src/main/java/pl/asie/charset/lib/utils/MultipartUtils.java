@@ -31,6 +31,7 @@ import net.minecraft.world.World;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -81,6 +82,62 @@ public class MultipartUtils {
         return boxes1.stream().anyMatch(box2::intersects);
     }
 
+    protected int getIntersectionMask(AxisAlignedBB[] boxes1, Collection<AxisAlignedBB> boxes2, int mask) {
+        for (int i = 0; i < boxes1.length; i++) {
+            if (boxes1[i] != null && (mask & (1 << i)) == 0) {
+                for (AxisAlignedBB box2 : boxes2) {
+                    if (boxes1[i].intersects(box2)) {
+                        mask |= 1 << i;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Tests every box in boxes1 against the collision boxes at a given position, in one pass.
+     *
+     * @return A bitmask with bit i set if boxes1[i] intersects. Null entries never intersect.
+     */
+    public int getIntersectionMask(AxisAlignedBB[] boxes1, IBlockAccess world, BlockPos pos, Predicate<IBlockState> checkPredicate) {
+        AxisAlignedBB collisionBox = null;
+        for (AxisAlignedBB box : boxes1) {
+            if (box != null) {
+                collisionBox = collisionBox == null ? box : collisionBox.union(box);
+            }
+        }
+
+        if (collisionBox == null) {
+            return 0;
+        }
+
+        IBlockState state = world.getBlockState(pos);
+        if (!checkPredicate.test(state)) {
+            return 0;
+        }
+
+        if (world instanceof World) {
+            List<AxisAlignedBB> boxes2 = new ArrayList<>();
+            state.addCollisionBoxToList((World) world, pos, collisionBox.offset(pos), boxes2, null, false);
+
+            if (boxes2.size() > 0) {
+                BlockPos negPos = new BlockPos(-pos.getX(), -pos.getY(), -pos.getZ());
+                for (int i = 0; i < boxes2.size(); i++) {
+                    boxes2.set(i, boxes2.get(i).offset(negPos));
+                }
+
+                return getIntersectionMask(boxes1, boxes2, 0);
+            } else {
+                return 0;
+            }
+        } else {
+            return getIntersectionMask(boxes1, Collections.singletonList(state.getBoundingBox(world, pos)), 0);
+        }
+    }
+
     public boolean intersects(Collection<AxisAlignedBB> boxes1, IBlockAccess world, BlockPos pos, Predicate<IBlockState> checkPredicate) {
         if (boxes1.isEmpty()) {
             return false;
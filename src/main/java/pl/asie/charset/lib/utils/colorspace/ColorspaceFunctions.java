@@ -26,7 +26,13 @@ final class ColorspaceFunctions {
 	private static final float KE = K*E;
 	private static final float E_CBRT = 0.2068930344f;
 
+	// The (v, out) variants write into out and return it; out may be the same array as v.
+
 	public static float[] XYZtoLAB(float[] v) {
+		return XYZtoLAB(v, new float[3]);
+	}
+
+	public static float[] XYZtoLAB(float[] v, float[] out) {
 		float xr = v[0] / D65_WHITE[0];
 		float yr = v[1] / D65_WHITE[1];
 		float zr = v[2] / D65_WHITE[2];
@@ -35,14 +41,17 @@ final class ColorspaceFunctions {
 		float fy = (yr > E) ? (float) Math.cbrt(yr) : (K*yr + 16)/116.0f;
 		float fz = (zr > E) ? (float) Math.cbrt(zr) : (K*zr + 16)/116.0f;
 
-		return new float[] {
-				116*fy - 16,
-				500*(fx - fy),
-				200*(fy - fz)
-		};
+		out[0] = 116*fy - 16;
+		out[1] = 500*(fx - fy);
+		out[2] = 200*(fy - fz);
+		return out;
 	}
 
 	public static float[] LABtoXYZ(float[] v) {
+		return LABtoXYZ(v, new float[3]);
+	}
+
+	public static float[] LABtoXYZ(float[] v, float[] out) {
 		float fy = (v[0] + 16)/116.0f;
 		float fx = v[1]/500.0f + fy;
 		float fz = fy - v[2]/200.0f;
@@ -57,51 +66,70 @@ final class ColorspaceFunctions {
 			yr = v[0]/K;
 		}
 
-		return new float[] {
-				xr * D65_WHITE[0],
-				yr * D65_WHITE[1],
-				zr * D65_WHITE[2]
-		};
+		out[0] = xr * D65_WHITE[0];
+		out[1] = yr * D65_WHITE[1];
+		out[2] = zr * D65_WHITE[2];
+		return out;
 	}
 
 	public static float[] sRGBtoXYZ(float[] v) {
-		return new float[] {
-				(float) (0.4124564*v[0] + 0.3575761*v[1] + 0.1804375*v[2]),
-				(float) (0.2126729*v[0] + 0.7151522*v[1] + 0.0721750*v[2]),
-				(float) (0.0193339*v[0] + 0.1191920*v[1] + 0.9503041*v[2])
-		};
+		return sRGBtoXYZ(v, new float[3]);
+	}
+
+	public static float[] sRGBtoXYZ(float[] v, float[] out) {
+		float r = v[0], g = v[1], b = v[2];
+		out[0] = (float) (0.4124564*r + 0.3575761*g + 0.1804375*b);
+		out[1] = (float) (0.2126729*r + 0.7151522*g + 0.0721750*b);
+		out[2] = (float) (0.0193339*r + 0.1191920*g + 0.9503041*b);
+		return out;
 	}
 
 	public static float[] XYZtosRGB(float[] v) {
-		return new float[] {
-				(float) (3.2404542*v[0] + -1.5371385*v[1] + -0.4985314*v[2]),
-				(float) (-0.9692660*v[0] + 1.8760108*v[1] + 0.0415560*v[2]),
-				(float) (0.0556434*v[0] + -0.2040259*v[1] + 1.0572252*v[2])
-		};
+		return XYZtosRGB(v, new float[3]);
+	}
+
+	public static float[] XYZtosRGB(float[] v, float[] out) {
+		float x = v[0], y = v[1], z = v[2];
+		out[0] = (float) (3.2404542*x + -1.5371385*y + -0.4985314*z);
+		out[1] = (float) (-0.9692660*x + 1.8760108*y + 0.0415560*z);
+		out[2] = (float) (0.0556434*x + -0.2040259*y + 1.0572252*z);
+		return out;
 	}
 
 	public static float[] sRGBtoYUV(float[] v) {
-		return new float[] {
-			0.299f * v[0] + 0.587f * v[1] + 0.114f * v[2],
-			-0.147f * v[0] - 0.289f * v[1] + 0.436f * v[2],
-			0.615f * v[0] - 0.515f * v[1] - 0.100f * v[2]
-		};
+		return sRGBtoYUV(v, new float[3]);
+	}
+
+	public static float[] sRGBtoYUV(float[] v, float[] out) {
+		float r = v[0], g = v[1], b = v[2];
+		out[0] = 0.299f * r + 0.587f * g + 0.114f * b;
+		out[1] = -0.147f * r - 0.289f * g + 0.436f * b;
+		out[2] = 0.615f * r - 0.515f * g - 0.100f * b;
+		return out;
 	}
 
 	public static float[] YUVtosRGB(float[] v) {
-		return new float[] {
-				v[0] + 1.140f * v[2],
-				v[0] - 0.395f * v[1] - 0.581f * v[2],
-				v[0] + 2.032f * v[1]
-		};
+		return YUVtosRGB(v, new float[3]);
+	}
+
+	public static float[] YUVtosRGB(float[] v, float[] out) {
+		float y = v[0], u = v[1], w = v[2];
+		out[0] = y + 1.140f * w;
+		out[1] = y - 0.395f * u - 0.581f * w;
+		out[2] = y + 2.032f * u;
+		return out;
 	}
 
 	public static float[] sRGBtoYIQ(float[] v) {
-		return new float[] {
-			0.299f * v[0] + 0.587f * v[1] + 0.114f * v[2],
-			0.596f * v[0] - 0.274f * v[1] - 0.322f * v[2],
-			0.211f * v[0] - 0.523f * v[1] + 0.312f * v[2]
-		};
+		return sRGBtoYIQ(v, new float[3]);
+	}
+
+	public static float[] sRGBtoYIQ(float[] v, float[] out) {
+		float r = v[0], g = v[1], b = v[2];
+		out[0] = 0.299f * r + 0.587f * g + 0.114f * b;
+		out[1] = 0.596f * r - 0.274f * g - 0.322f * b;
+		out[2] = 0.211f * r - 0.523f * g + 0.312f * b;
+		return out;
 	}
 
 	public static float[] sRGBtoWeightedRGB(float[] v) {
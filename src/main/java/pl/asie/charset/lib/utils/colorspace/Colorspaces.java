@@ -26,13 +26,41 @@ import com.google.common.graph.ValueGraph;
 import com.google.common.graph.ValueGraphBuilder;
 
 import java.util.*;
-import java.util.function.Function;
 
 public class Colorspaces {
+	@FunctionalInterface
+	interface Converter {
+		/**
+		 * Converts v, writing the result into out (which may be the same array as v).
+		 * @return out
+		 */
+		float[] convert(float[] v, float[] out);
+
+		default Converter andThen(Converter next) {
+			return (v, out) -> next.convert(convert(v, out), out);
+		}
+	}
+
+	private static final class LABCacheEntry {
+		private final int rgb;
+		private final float l, a, b;
+
+		private LABCacheEntry(int rgb, float[] lab) {
+			this.rgb = rgb;
+			this.l = lab[0];
+			this.a = lab[1];
+			this.b = lab[2];
+		}
+	}
+
+	// Direct-mapped; entries are immutable, so racing writers only cost a recomputation.
+	private static final int LAB_CACHE_BITS = 12;
+	private static final LABCacheEntry[] labCache = new LABCacheEntry[1 << LAB_CACHE_BITS];
+
 	private static boolean initialized = false;
-	private static Table<Colorspace, Colorspace, Function<float[], float[]>> conversionTable;
+	private static Table<Colorspace, Colorspace, Converter> conversionTable;
 
-	private static void buildConversionTable(ValueGraph<Colorspace, Function<float[], float[]>> conversionGraph) {
+	private static void buildConversionTable(ValueGraph<Colorspace, Converter> conversionGraph) {
 		for (Colorspace from : Colorspace.values()) {
 			int[] distances = new int[Colorspace.values().length];
 			Colorspace[] predecessors = new Colorspace[distances.length];
@@ -71,13 +99,13 @@ public class Colorspaces {
 					current = predecessors[current.ordinal()];
 				}
 
-				Function<float[], float[]> function = null;
+				Converter function = null;
 
 				for (int i = 0; i < path.length - 1; i++) {
 					if (function == null) {
 						function = conversionGraph.edgeValue(path[i], path[i + 1]);
 					} else {
-						function = conversionGraph.edgeValue(path[i], path[i + 1]).compose(function);
+						function = function.andThen(conversionGraph.edgeValue(path[i], path[i + 1]));
 					}
 				}
 
@@ -94,31 +122,89 @@ public class Colorspaces {
 		else return (Math.round(f * 255.0f) & 0xFF);
 	}
 
+	private static Converter getConverter(Colorspace from, Colorspace to) {
+		Converter converter = conversionTable.get(from, to);
+		if (converter != null) {
+			return converter;
+		} else {
+			throw new RuntimeException("Could not convert from colorspace " + from + " to " + to + "!");
+		}
+	}
+
 	public static float[] convert(float[] data, Colorspace from, Colorspace to) {
 		if (from == to) {
 			return data;
 		} else {
-			Function<float[], float[]> converter = conversionTable.get(from, to);
-			if (converter != null) {
-				return converter.apply(data);
-			} else {
-				throw new RuntimeException("Could not convert from colorspace " + from + " to " + to + "!");
+			return getConverter(from, to).convert(data, new float[3]);
+		}
+	}
+
+	/**
+	 * Allocation-free variant of {@link #convert(float[], Colorspace, Colorspace)}.
+	 * @param out The array to write the result into; may be the same array as data.
+	 * @return out
+	 */
+	public static float[] convert(float[] data, Colorspace from, Colorspace to, float[] out) {
+		if (from == to) {
+			if (out != data) {
+				System.arraycopy(data, 0, out, 0, 3);
 			}
+			return out;
+		} else {
+			return getConverter(from, to).convert(data, out);
 		}
 	}
 
 	public static int convertToRGB(float[] data, Colorspace from) {
-		float[] v = convert(data, from, Colorspace.sRGB);
+		return convertToRGB(data, from, new float[3]);
+	}
+
+	/**
+	 * Allocation-free variant of {@link #convertToRGB(float[], Colorspace)}.
+	 * @param tmp A scratch array of length 3; may be the same array as data.
+	 */
+	public static int convertToRGB(float[] data, Colorspace from, float[] tmp) {
+		float[] v = convert(data, from, Colorspace.sRGB, tmp);
 		return (asFF(v[0]) << 16) | (asFF(v[1]) << 8) | asFF(v[2]);
 	}
 
 	public static float[] convertFromRGB(int v, Colorspace to) {
-		float[] data = new float[] {
-				((v >> 16) & 0xFF) / 255.0f,
-				((v >> 8) & 0xFF) / 255.0f,
-				(v & 0xFF) / 255.0f
-		};
-		return convert(data, Colorspace.sRGB, to);
+		return convertFromRGB(v, to, new float[3]);
+	}
+
+	/**
+	 * Allocation-free variant of {@link #convertFromRGB(int, Colorspace)}.
+	 * @return out
+	 */
+	public static float[] convertFromRGB(int v, Colorspace to, float[] out) {
+		if (to == Colorspace.LAB) {
+			LABCacheEntry entry = getLAB(v);
+			out[0] = entry.l;
+			out[1] = entry.a;
+			out[2] = entry.b;
+			return out;
+		}
+
+		out[0] = ((v >> 16) & 0xFF) / 255.0f;
+		out[1] = ((v >> 8) & 0xFF) / 255.0f;
+		out[2] = (v & 0xFF) / 255.0f;
+		return convert(out, Colorspace.sRGB, to, out);
+	}
+
+	private static LABCacheEntry getLAB(int v) {
+		v &= 0xFFFFFF;
+		int index = ((v * 0x9E3779B1) >>> (32 - LAB_CACHE_BITS));
+		LABCacheEntry entry = labCache[index];
+		if (entry == null || entry.rgb != v) {
+			float[] data = new float[] {
+					((v >> 16) & 0xFF) / 255.0f,
+					((v >> 8) & 0xFF) / 255.0f,
+					(v & 0xFF) / 255.0f
+			};
+			entry = new LABCacheEntry(v, convert(data, Colorspace.sRGB, Colorspace.LAB, data));
+			labCache[index] = entry;
+		}
+		return entry;
 	}
 
 	public static double getColorDistance(float[] c1, float[] c2) {
@@ -136,6 +222,15 @@ public class Colorspaces {
 	}
 
 	public static double getColorDistanceSq(int c1, int c2, Colorspace space) {
+		if (space == Colorspace.LAB) {
+			LABCacheEntry f1 = getLAB(c1);
+			LABCacheEntry f2 = getLAB(c2);
+
+			return (f1.l - f2.l) * (f1.l - f2.l) +
+					(f1.a - f2.a) * (f1.a - f2.a) +
+					(f1.b - f2.b) * (f1.b - f2.b);
+		}
+
 		float[] f1 = convertFromRGB(c1, space);
 		float[] f2 = convertFromRGB(c2, space);
 
@@ -147,7 +242,7 @@ public class Colorspaces {
 	public static void init() {
 		if (!initialized) {
 			initialized = true;
-			MutableValueGraph<Colorspace, Function<float[], float[]>> conversionGraph = ValueGraphBuilder.directed().allowsSelfLoops(false).build();
+			MutableValueGraph<Colorspace, Converter> conversionGraph = ValueGraphBuilder.directed().allowsSelfLoops(false).build();
 			for (Colorspace c : Colorspace.values()) {
 				conversionGraph.addNode(c);
 			}
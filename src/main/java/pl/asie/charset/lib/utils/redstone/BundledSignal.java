@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.utils.redstone;
+
+import javax.annotation.Nullable;
+
+/**
+ * Packed bundled signals: all 16 channels of a bundled signal as 4-bit
+ * levels in one long, channel i occupying bits (4*i) to (4*i + 3).
+ * The per-channel on/off state is available as a 16-bit mask.
+ */
+public final class BundledSignal {
+	public static final long EMPTY = 0L;
+	public static final long FULL = -1L;
+
+	private static final long NIBBLE_LOW_BITS = 0x1111111111111111L;
+	private static final long BYTE_LOW_NIBBLES = 0x0F0F0F0F0F0F0F0FL;
+	private static final long BYTE_FIFTH_BITS = 0x1010101010101010L;
+	private static final long BYTE_LOW_BITS = 0x0101010101010101L;
+
+	private BundledSignal() {
+
+	}
+
+	public static long pack(@Nullable byte[] values) {
+		long packed = 0;
+		if (values != null) {
+			int len = Math.min(values.length, 16);
+			for (int i = 0; i < len; i++) {
+				int v = values[i];
+				// out-of-range values are treated as fully on, as the wires always have
+				packed |= (long) (v < 0 || v > 15 ? 15 : v) << (i << 2);
+			}
+		}
+		return packed;
+	}
+
+	public static byte[] unpack(long packed) {
+		return unpack(packed, new byte[16]);
+	}
+
+	public static byte[] unpack(long packed, byte[] data) {
+		for (int i = 0; i < 16; i++) {
+			data[i] = (byte) ((packed >>> (i << 2)) & 15);
+		}
+		return data;
+	}
+
+	public static int get(long packed, int channel) {
+		return (int) (packed >>> (channel << 2)) & 15;
+	}
+
+	public static long set(long packed, int channel, int value) {
+		int shift = channel << 2;
+		return (packed & ~(15L << shift)) | ((long) (value & 15) << shift);
+	}
+
+	/**
+	 * @return 15 minus each channel's level.
+	 */
+	public static long invert(long packed) {
+		return ~packed;
+	}
+
+	/**
+	 * @return The per-channel maximum of both signals.
+	 */
+	public static long max(long a, long b) {
+		return maxLanes(a & BYTE_LOW_NIBBLES, b & BYTE_LOW_NIBBLES)
+				| (maxLanes((a >>> 4) & BYTE_LOW_NIBBLES, (b >>> 4) & BYTE_LOW_NIBBLES) << 4);
+	}
+
+	// a, b: eight 4-bit values, each in the low nibble of its byte
+	private static long maxLanes(long a, long b) {
+		// bit 4 of each byte is set where a >= b; no borrow can cross bytes
+		long ge = (((a | BYTE_FIFTH_BITS) - b) >>> 4) & BYTE_LOW_BITS;
+		long mask = ge * 15;
+		return (a & mask) | (b & ~mask & BYTE_LOW_NIBBLES);
+	}
+
+	/**
+	 * @return A mask with bit i set if channel i is on.
+	 */
+	public static int mask(long packed) {
+		long x = (packed | (packed >>> 1) | (packed >>> 2) | (packed >>> 3)) & NIBBLE_LOW_BITS;
+		x = (x | (x >>> 3)) & 0x0303030303030303L;
+		x = (x | (x >>> 6)) & 0x000F000F000F000FL;
+		x = (x | (x >>> 12)) & 0x000000FF000000FFL;
+		x = (x | (x >>> 24)) & 0xFFFFL;
+		return (int) x;
+	}
+
+	/**
+	 * @return A signal with every channel in the mask set to the given level.
+	 */
+	public static long fromMask(int mask, int level) {
+		long x = mask & 0xFFFFL;
+		x = (x | (x << 24)) & 0x000000FF000000FFL;
+		x = (x | (x << 12)) & 0x000F000F000F000FL;
+		x = (x | (x << 6)) & 0x0303030303030303L;
+		x = (x | (x << 3)) & NIBBLE_LOW_BITS;
+		return x * (level & 15);
+	}
+
+	/**
+	 * @return Every channel set to 15 if it is on, 0 otherwise.
+	 */
+	public static long digital(long packed) {
+		return fromMask(mask(packed), 15);
+	}
+}
@@ -89,6 +89,7 @@ public class CharsetLibWires {
 				.create();
 
 		ModCharset.dataFixes.registerFix(FixTypes.ITEM_INSTANCE, new FixCharsetWireItemSeparation());
+		MinecraftForge.EVENT_BUS.register(WireUpdateQueue.INSTANCE);
 	}
 
 	public static Stream<WireProvider> getOrderedWireProviders() {
@@ -20,11 +20,11 @@
 package pl.asie.charset.lib.wires;
 
 import mcmultipart.api.multipart.MultipartHelper;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
-import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
@@ -35,16 +35,17 @@ import net.minecraftforge.event.AttachCapabilitiesEvent;
 import org.apache.commons.lang3.tuple.Pair;
 import pl.asie.charset.api.wires.WireFace;
 import pl.asie.charset.lib.render.model.IRenderComparable;
-import pl.asie.charset.lib.scheduler.Scheduler;
 import pl.asie.charset.lib.utils.MultipartUtils;
 import pl.asie.charset.lib.utils.UnlistedPropertyGeneric;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.function.Predicate;
 
 public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wire> {
     public static final IUnlistedProperty<Wire> PROPERTY = new UnlistedPropertyGeneric<>("wire", Wire.class);
+    static final Predicate<IBlockState> OCCLUDING_STATE = (state -> !(state.getBlock() instanceof BlockWire));
 
     private final @Nonnull IWireContainer container;
     private final @Nonnull WireProvider factory;
@@ -53,6 +54,8 @@ public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wir
 
     private WireNeighborWHCache neighborWHCache;
     private byte internalConnections, externalConnections, cornerConnections, occludedSides, cornerOccludedSides;
+    // occlusion only changes when parts in our own block do, see onChanged
+    private boolean occlusionValid;
 
     protected Wire(@Nonnull IWireContainer container, @Nonnull WireProvider factory, @Nonnull WireFace location) {
         this.container = container;
@@ -65,7 +68,7 @@ public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wir
     }
 
     protected final void scheduleConnectionUpdate() {
-        Scheduler.INSTANCE.in(MultipartHelper.unwrapWorld(getContainer().world()), 0, this::updateConnections);
+        WireUpdateQueue.INSTANCE.markDirty(MultipartHelper.unwrapWorld(getContainer().world()), this);
     }
 
     private ICapabilityProvider getCapabilityProviderRemoteBlock(BlockPos pos) {
@@ -288,6 +291,10 @@ public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wir
     public void onChanged(boolean external) {
         boolean remote = getContainer().world().isRemote;
 
+        if (!external) {
+            occlusionValid = false;
+        }
+
         if (external && !remote) {
             if (!factory.canPlace(getContainer().world(), getContainer().pos(), location)) {
                 getContainer().dropWire();
@@ -374,44 +381,18 @@ public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wir
         }
 
         int oldConnectionCache = getConnectionMask();
-        internalConnections = externalConnections = cornerConnections = occludedSides = cornerOccludedSides = 0;
+        internalConnections = externalConnections = cornerConnections = cornerOccludedSides = 0;
 
         // Occlusion test
 
-        EnumFacing[] connFaces = WireUtils.getConnectionsForRender(location);
-        for (int i = 0; i < connFaces.length; i++) {
-            WireFace face = WireFace.get(connFaces[i]);
-            if (validSides.contains(face)) {
-                boolean found = false;
-                AxisAlignedBB mask = factory.getBox(location, i + 1);
-                if (mask != null) {
-                    if (MultipartUtils.INSTANCE.intersects(Collections.singletonList(mask), container.world(), container.pos(), (state -> !(state.getBlock() instanceof BlockWire)))) {
-                        occludedSides |= 1 << connFaces[i].ordinal();
-                        validSides.remove(face);
-                        found = true;
-                    }
-                }
-/*
-                if (!found && location != WireFace.CENTER) {
-                    BlockPos cPos = container.pos().offset(connFaces[i]);
-                    AxisAlignedBB cornerMask = factory.getCornerBox(location, i ^ 1);
-                    if (cornerMask != null) {
-                        if (MultipartUtils.PRIMARY.intersects(Collections.singletonList(cornerMask), container.world(), cPos)) {
-                            cornerOccludedSides |= 1 << connFaces[i].ordinal();
-                            invalidCornerSides.add(face);
-                        }
-                    }
-                } */
-            }
+        if (!occlusionValid) {
+            occludedSides = (byte) getOccludedSides();
+            occlusionValid = true;
         }
 
-        if (validSides.contains(WireFace.CENTER)) {
-            AxisAlignedBB mask = factory.getBox(WireFace.CENTER, 1 + location.ordinal());
-            if (mask != null) {
-                if (MultipartUtils.INSTANCE.intersects(Collections.singletonList(mask), container.world(), container.pos(), (state -> !(state.getBlock() instanceof BlockWire)))) {
-                    occludedSides |= 1 << 6;
-                    validSides.remove(WireFace.CENTER);
-                }
+        for (WireFace face : WireFace.VALUES) {
+            if ((occludedSides & (1 << face.ordinal())) != 0) {
+                validSides.remove(face);
             }
         }
 
@@ -438,6 +419,24 @@ public abstract class Wire implements ICapabilityProvider, IRenderComparable<Wir
         neighborWHCache = null;
     }
 
+    private int getOccludedSides() {
+        EnumFacing[] connFaces = WireUtils.getConnectionsForRender(location);
+        int mask = MultipartUtils.INSTANCE.getIntersectionMask(factory.getOcclusionBoxes(location), container.world(), container.pos(), OCCLUDING_STATE);
+        int sides = 0;
+
+        for (int i = 0; i < connFaces.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                sides |= 1 << connFaces[i].ordinal();
+            }
+        }
+
+        if ((mask & (1 << connFaces.length)) != 0) {
+            sides |= 1 << WireFace.CENTER.ordinal();
+        }
+
+        return sides;
+    }
+
     protected int getWeakPower(EnumFacing side) {
         return 0;
     }
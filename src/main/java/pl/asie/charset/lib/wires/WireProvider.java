@@ -31,6 +31,7 @@ import pl.asie.charset.lib.utils.RotationUtils;
 public abstract class WireProvider implements IForgeRegistryEntry<WireProvider> {
     private final AxisAlignedBB[] boxes = new AxisAlignedBB[37];
     private final AxisAlignedBB[] cornerBoxes = new AxisAlignedBB[24];
+    private final AxisAlignedBB[][] occlusionBoxes = new AxisAlignedBB[7][];
     private ResourceLocation name;
     private ItemWire iw;
 
@@ -85,6 +86,18 @@ public abstract class WireProvider implements IForgeRegistryEntry<WireProvider>
             boxes[31 + j] = RotationUtils.rotateFace(new AxisAlignedBB(xMin, 0, xMin, xMax, xMin, xMax), f);
         }
         boxes[30] = new AxisAlignedBB(xMin, xMin, xMin, xMax, xMax, xMax);
+
+        for (WireFace location : WireFace.VALUES) {
+            EnumFacing[] faces = WireUtils.getConnectionsForRender(location);
+            AxisAlignedBB[] locBoxes = new AxisAlignedBB[faces.length + 1];
+            for (int i = 0; i < faces.length; i++) {
+                locBoxes[i] = getBox(location, i + 1);
+            }
+            if (location != WireFace.CENTER) {
+                locBoxes[faces.length] = getBox(WireFace.CENTER, 1 + location.ordinal());
+            }
+            occlusionBoxes[location.ordinal()] = locBoxes;
+        }
     }
 
     public abstract Wire create(IWireContainer container, WireFace location);
@@ -109,6 +122,15 @@ public abstract class WireProvider implements IForgeRegistryEntry<WireProvider>
         return boxes[location.ordinal() * 5 + i];
     }
 
+    /**
+     * @return The boxes tested for occlusion by a wire at the given location: one per
+     * connection direction (in {@link WireUtils#getConnectionsForRender(WireFace)} order),
+     * followed by the box towards the center (null for freestanding wires).
+     */
+    public AxisAlignedBB[] getOcclusionBoxes(WireFace location) {
+        return occlusionBoxes[location.ordinal()];
+    }
+
     public AxisAlignedBB getSelectionBox(WireFace location, int i) {
         return getBox(location, i);
     }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.wires;
+
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.*;
+
+/**
+ * Collects wires which need their connections recomputed and processes
+ * them once per world tick, so that repeated neighbour or multipart
+ * changes within a tick only cause a single update per wire.
+ */
+public final class WireUpdateQueue {
+    public interface BatchListener {
+        /**
+         * Called after all wires in a batch have had their connections updated.
+         */
+        void onBatchUpdated(World world, Collection<Wire> wires);
+    }
+
+    public static final WireUpdateQueue INSTANCE = new WireUpdateQueue();
+    private final Map<World, Set<Wire>> dirtyWires = new WeakHashMap<>();
+    private final List<BatchListener> listeners = new ArrayList<>();
+
+    private WireUpdateQueue() {
+
+    }
+
+    public void addBatchListener(BatchListener listener) {
+        listeners.add(listener);
+    }
+
+    public void markDirty(World world, Wire wire) {
+        dirtyWires.computeIfAbsent(world, k -> new LinkedHashSet<>()).add(wire);
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        dirtyWires.remove(event.getWorld());
+    }
+
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END) {
+            // Wires marked while the batch is processed are handled on the next tick.
+            Set<Wire> wires = dirtyWires.remove(event.world);
+            if (wires != null && !wires.isEmpty()) {
+                event.world.profiler.startSection("charsetWireConnections");
+                for (Wire wire : wires) {
+                    if (wire.getContainer().world() != null) {
+                        wire.updateConnections();
+                    }
+                }
+
+                for (BatchListener listener : listeners) {
+                    listener.onBatchUpdated(event.world, wires);
+                }
+                event.world.profiler.endSection();
+            }
+        }
+    }
+}
@@ -158,7 +158,7 @@ public final class WireUtils {
         }
 
         AxisAlignedBB mask = wire.getProvider().getCornerCollisionBox(wire.getLocation(), direction.getOpposite());
-        if (MultipartUtils.INSTANCE.intersects(Collections.singletonList(mask), wire.getContainer().world(), middlePos, (state -> !(state.getBlock() instanceof BlockWire)))) {
+        if (MultipartUtils.INSTANCE.intersects(Collections.singletonList(mask), wire.getContainer().world(), middlePos, Wire.OCCLUDING_STATE)) {
             return false;
         }
 
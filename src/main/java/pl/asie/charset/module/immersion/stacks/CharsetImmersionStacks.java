@@ -74,6 +74,7 @@ public class CharsetImmersionStacks {
 	public static boolean insertToPlayerInventory;
 
 	@Mod.EventHandler
+	@CharsetModule.ThreadSafe
 	public void reloadReentrantConfig(CharsetLoadConfigEvent event) {
 		insertToPlayerInventory = ConfigUtils.getBoolean(config, "general", "insertToPlayerInventory", true, "Should left-clicked items be inserted to the player inventory automatically, if possible?", false);
 	}
@@ -96,6 +97,7 @@ public class CharsetImmersionStacks {
 	@SubscribeEvent
 	@SideOnly(Side.CLIENT)
 	public void onModelBake(ModelBakeEvent event) {
+		RenderTileEntityStacks.clearCaches();
 		event.getModelRegistry().putObject(new ModelResourceLocation("charset:stacks_decorative", "normal"), new RenderTileEntityStacks());
 	}
 
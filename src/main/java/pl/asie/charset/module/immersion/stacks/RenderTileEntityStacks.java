@@ -19,7 +19,7 @@
 
 package pl.asie.charset.module.immersion.stacks;
 
-import akka.japi.Function;
+import com.google.common.collect.ImmutableList;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.block.model.BakedQuad;
@@ -47,8 +47,12 @@ import pl.asie.charset.lib.utils.RenderUtils;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class RenderTileEntityStacks implements IBakedModel, IStateParticleBakedModel {
 	private static final int[][][] QUAD_ORDERS;
@@ -106,13 +110,7 @@ public class RenderTileEntityStacks implements IBakedModel, IStateParticleBakedM
 		int c = Minecraft.getMinecraft().getItemColors().colorMultiplier(stack, 0);
 		AxisAlignedBB box = StackShapes.getIngotBox(i, stack);
 		StackShapes.FlatRenderMode renderMode = StackShapes.getRenderMode(stack);
-
-		float[] color = new float[]{
-				MathHelper.clamp(((c >> 16) & 0xFF) / 255.0f, 0, 1),
-				MathHelper.clamp(((c >> 8) & 0xFF) / 255.0f, 0, 1),
-				MathHelper.clamp(((c) & 0xFF) / 255.0f, 0, 1),
-				1.0f
-		};
+		float[] color = toColor(c);
 
 		rand += i * 17237;
 
@@ -170,6 +168,203 @@ public class RenderTileEntityStacks implements IBakedModel, IStateParticleBakedM
 		};
 	}
 
+	private static final class IngotKey {
+		private final int slot;
+		private final Object source;
+		private final int meta;
+		private final int hash;
+
+		IngotKey(int slot, Object source, int meta) {
+			this.slot = slot;
+			this.source = source;
+			this.meta = meta;
+			this.hash = (slot * 31 + System.identityHashCode(source)) * 31 + meta;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof IngotKey)) {
+				return false;
+			}
+
+			IngotKey other = (IngotKey) o;
+			return other.slot == slot && other.source == source && other.meta == meta;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class LayoutKey {
+		private final Object[] keys;
+		private final int hash;
+
+		LayoutKey(Object[] keys) {
+			this.keys = keys;
+			this.hash = Arrays.hashCode(keys);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof LayoutKey && ((LayoutKey) o).hash == hash && Arrays.equals(((LayoutKey) o).keys, keys);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	private static final class TileRenderCache {
+		private final int generation;
+		private final Object[] keys = new Object[64];
+		private final List<BakedQuad>[] quads = new List[64];
+		private long flatSlots;
+		private long rand;
+		private List<BakedQuad> combined;
+
+		TileRenderCache(int generation) {
+			this.generation = generation;
+		}
+	}
+
+	private static final int LAYOUT_CACHE_MAX_SIZE = 4096;
+	private static final Map<IngotKey, List<BakedQuad>> INGOT_QUADS = new ConcurrentHashMap<>();
+	private static final Map<LayoutKey, List<BakedQuad>> LAYOUT_QUADS = new ConcurrentHashMap<>();
+	private static volatile int cacheGeneration;
+
+	public static void clearCaches() {
+		cacheGeneration++;
+		INGOT_QUADS.clear();
+		LAYOUT_QUADS.clear();
+	}
+
+	private static float[] toColor(int c) {
+		return new float[]{
+				MathHelper.clamp(((c >> 16) & 0xFF) / 255.0f, 0, 1),
+				MathHelper.clamp(((c >> 8) & 0xFF) / 255.0f, 0, 1),
+				MathHelper.clamp(((c) & 0xFF) / 255.0f, 0, 1),
+				1.0f
+		};
+	}
+
+	private static List<BakedQuad> buildIngotQuads(int i, ItemStack stack) {
+		ItemMaterial material = ItemMaterialRegistry.INSTANCE.getMaterialIfPresent(stack);
+		ItemMaterial blockMaterial = material != null ? material.getRelated("block") : null;
+		Function<EnumFacing, TextureAtlasSprite> getter;
+		int c;
+
+		if (blockMaterial == null) {
+			getter = (f) -> RenderUtils.getItemSprite(new ItemStack(Blocks.IRON_BLOCK), f);
+			c = ColorLookupHandler.INSTANCE.getColor(stack, RenderUtils.AveragingMode.FULL) | 0xFF000000;
+		} else {
+			getter = (f) -> RenderUtils.getItemSprite(blockMaterial.getStack(), f);
+			c = Minecraft.getMinecraft().getItemColors().colorMultiplier(blockMaterial.getStack(), 0);
+		}
+
+		return buildIngotQuads(i, getter, toColor(c), true);
+	}
+
+	/**
+	 * Builds the six quads of an ingot placed in slot i. Does not touch any
+	 * global client state, so it can be called outside of a running game.
+	 */
+	public static List<BakedQuad> buildIngotQuads(int i, Function<EnumFacing, TextureAtlasSprite> getter, float[] color, boolean applyDiffuseLighting) {
+		ImmutableList.Builder<BakedQuad> list = ImmutableList.builder();
+		Vec3d[] vecs = StackShapes.INGOT_POSITIONS[i];
+		int j = 0;
+		int yOff = (i >> 3) & 1;
+
+		for (int[] vecOrder : QUAD_ORDERS[yOff]) {
+			UnpackedBakedQuad.Builder builder = new UnpackedBakedQuad.Builder(DefaultVertexFormats.ITEM);
+			EnumFacing face = QUAD_FACES[yOff][j];
+			TextureAtlasSprite sprite;
+
+			try {
+				sprite = getter.apply(face);
+			} catch (Exception e) {
+				sprite = getter.apply(null);
+			}
+
+			builder.setTexture(sprite);
+			builder.setApplyDiffuseLighting(applyDiffuseLighting);
+			builder.setContractUVs(false);
+			builder.setQuadOrientation(face);
+
+			int uv_offset = j < 4 ? 1 : 0;
+			if (yOff == 1) uv_offset = 1 - uv_offset;
+
+			for (int k = 0; k < vecOrder.length; k++) {
+				Vec3d vec = vecs[vecOrder[k]];
+				int[] uv = QUAD_UVS[(k + uv_offset) & 3];
+				for (int e = 0; e < builder.getVertexFormat().getElementCount(); e++) {
+					VertexFormatElement el = builder.getVertexFormat().getElement(e);
+					switch (el.getUsage()) {
+						case POSITION:
+							builder.put(e, (float) vec.x / 16f, (float) vec.y / 16f, (float) vec.z / 16f, 1);
+							break;
+						case COLOR:
+							builder.put(e, color);
+							break;
+						case NORMAL:
+							builder.put(e, face.getXOffset(), face.getYOffset(), face.getZOffset(), 0);
+							break;
+						case UV:
+							float u = sprite.getInterpolatedU(uv[0]);
+							float v = sprite.getInterpolatedV(uv[1]);
+							builder.put(e, u, v, 0, 1);
+							break;
+						default:
+							builder.put(e);
+					}
+				}
+			}
+
+			list.add(builder.build());
+			j++;
+		}
+
+		return list.build();
+	}
+
+	private List<BakedQuad> buildFlatQuads(TileEntityStacks stacks, IBlockState state, int i, ItemStack stack, long rand) {
+		List<BakedQuad> list = new ArrayList<>();
+		IBakedModel model = RenderUtils.getItemModel(stack, stacks.getWorld(), Minecraft.getMinecraft().player);
+		ModelTransformer.IVertexTransformer transformer = createTransformer(i, stack, rand);
+		try {
+			for (BakedQuad quad : model.getQuads(state, null, 0)) {
+				list.add(ModelTransformer.transform(quad, transformer));
+			}
+			for (EnumFacing facing : EnumFacing.VALUES) {
+				for (BakedQuad quad : model.getQuads(state, facing, 0)) {
+					list.add(ModelTransformer.transform(quad, transformer));
+				}
+			}
+		} catch (ModelTransformer.TransformationFailedException e) {
+			throw new RuntimeException(e);
+		}
+		return list;
+	}
+
+	private static List<BakedQuad> combine(TileRenderCache cache) {
+		int size = 0;
+		for (List<BakedQuad> l : cache.quads) {
+			if (l != null) {
+				size += l.size();
+			}
+		}
+
+		List<BakedQuad> list = new ArrayList<>(size);
+		for (List<BakedQuad> l : cache.quads) {
+			if (l != null) {
+				list.addAll(l);
+			}
+		}
+		return Collections.unmodifiableList(list);
+	}
+
 	@Override
 	public List<BakedQuad> getQuads(@Nullable IBlockState state, @Nullable EnumFacing side, long rand) {
 		if (side != null || !(state instanceof IExtendedBlockState)) {
@@ -181,112 +376,72 @@ public class RenderTileEntityStacks implements IBakedModel, IStateParticleBakedM
 			return Collections.emptyList();
 		}
 
-		List<BakedQuad> list = new ArrayList<>();
+		synchronized (stacks) {
+			int generation = cacheGeneration;
+			long dirty = stacks.pollRenderDirtySlots();
+			TileRenderCache cache = stacks.renderCache instanceof TileRenderCache ? (TileRenderCache) stacks.renderCache : null;
 
-		for (int i = 0; i < 64; i++) {
-			ItemStack stack = stacks.stacks[i];
-			if (stack == null) {
-				continue;
+			if (cache == null || cache.generation != generation) {
+				cache = new TileRenderCache(generation);
+				stacks.renderCache = cache;
+				dirty = -1L;
 			}
 
-			if (StackShapes.isIngot(stack)) {
-				Vec3d[] vecs = StackShapes.INGOT_POSITIONS[i];
+			if (cache.rand != rand) {
+				// flat-placed items are offset based on the block's position random
+				dirty |= cache.flatSlots;
+				cache.rand = rand;
+			}
 
-				ItemMaterial material = ItemMaterialRegistry.INSTANCE.getMaterialIfPresent(stack);
-				ItemMaterial blockMaterial = material != null ? material.getRelated("block") : null;
-				Function<EnumFacing, TextureAtlasSprite> getter;
-				int c;
+			if (dirty == 0 && cache.combined != null) {
+				return cache.combined;
+			}
 
-				if (blockMaterial == null) {
-					getter = (f) -> RenderUtils.getItemSprite(new ItemStack(Blocks.IRON_BLOCK), f);
-					c = ColorLookupHandler.INSTANCE.getColor(stack, RenderUtils.AveragingMode.FULL) | 0xFF000000;
-				} else {
-					getter = (f) -> RenderUtils.getItemSprite(blockMaterial.getStack(), f);
-					c = Minecraft.getMinecraft().getItemColors().colorMultiplier(blockMaterial.getStack(), 0);
+			for (int i = 0; i < 64; i++) {
+				if ((dirty & (1L << i)) == 0) {
+					continue;
 				}
 
-				float[] color = new float[]{
-						MathHelper.clamp(((c >> 16) & 0xFF) / 255.0f, 0, 1),
-						MathHelper.clamp(((c >> 8) & 0xFF) / 255.0f, 0, 1),
-						MathHelper.clamp(((c) & 0xFF) / 255.0f, 0, 1),
-						1.0f
-				};
-
-				int j = 0;
-				int yOff = (i >> 3) & 1;
-
-				for (int[] vecOrder : QUAD_ORDERS[yOff]) {
-					UnpackedBakedQuad.Builder builder = new UnpackedBakedQuad.Builder(DefaultVertexFormats.ITEM);
-					EnumFacing face = QUAD_FACES[yOff][j];
-					TextureAtlasSprite sprite;
-
-					try {
-						sprite = getter.apply(face);
-					} catch (Exception e) {
-						try {
-							sprite = getter.apply(null);
-						} catch (Exception ee) {
-							throw new RuntimeException(ee);
-						}
-					}
+				ItemStack stack = stacks.stacks[i];
+				cache.keys[i] = null;
+				cache.quads[i] = null;
+				cache.flatSlots &= ~(1L << i);
 
-					builder.setTexture(sprite);
-					builder.setApplyDiffuseLighting(isAmbientOcclusion());
-					builder.setContractUVs(false);
-					builder.setQuadOrientation(face);
-
-					int uv_offset = j < 4 ? 1 : 0;
-					if (yOff == 1) uv_offset = 1 - uv_offset;
-
-					for (int k = 0; k < vecOrder.length; k++) {
-						Vec3d vec = vecs[vecOrder[k]];
-						int[] uv = QUAD_UVS[(k + uv_offset) & 3];
-						for (int e = 0; e < builder.getVertexFormat().getElementCount(); e++) {
-							VertexFormatElement el = builder.getVertexFormat().getElement(e);
-							switch (el.getUsage()) {
-								case POSITION:
-									builder.put(e, (float) vec.x / 16f, (float) vec.y / 16f, (float) vec.z / 16f, 1);
-									break;
-								case COLOR:
-									builder.put(e, color);
-									break;
-								case NORMAL:
-									builder.put(e, face.getXOffset(), face.getYOffset(), face.getZOffset(), 0);
-									break;
-								case UV:
-									float u = sprite.getInterpolatedU(uv[0]);
-									float v = sprite.getInterpolatedV(uv[1]);
-									builder.put(e, u, v, 0, 1);
-									break;
-								default:
-									builder.put(e);
-							}
-						}
-					}
+				if (stack == null) {
+					continue;
+				}
 
-					list.add(builder.build());
-					j++;
+				if (StackShapes.isIngot(stack)) {
+					ItemMaterial material = ItemMaterialRegistry.INSTANCE.getMaterialIfPresent(stack);
+					IngotKey key = material != null
+							? new IngotKey(i, material, 0)
+							: new IngotKey(i, stack.getItem(), stack.getMetadata());
+					final int slot = i;
+					cache.keys[i] = key;
+					cache.quads[i] = INGOT_QUADS.computeIfAbsent(key, (k) -> buildIngotQuads(slot, stack));
+				} else if (StackShapes.isFlatPlaced(stack)) {
+					cache.quads[i] = buildFlatQuads(stacks, state, i, stack, rand);
+					cache.flatSlots |= 1L << i;
 				}
-			} else if (StackShapes.isFlatPlaced(stack)) {
-				// renderer the second
-				IBakedModel model = RenderUtils.getItemModel(stack, stacks.getWorld(), Minecraft.getMinecraft().player);
-				ModelTransformer.IVertexTransformer transformer = createTransformer(i, stack, rand);
-				try {
-					for (BakedQuad quad : model.getQuads(state, null, 0)) {
-						list.add(ModelTransformer.transform(quad, transformer));
-					}
-					for (EnumFacing facing : EnumFacing.VALUES) {
-						for (BakedQuad quad : model.getQuads(state, facing, 0)) {
-							list.add(ModelTransformer.transform(quad, transformer));
-						}
+			}
+
+			if (cache.flatSlots == 0) {
+				// ingot-only piles are shared between all tiles with the same layout
+				LayoutKey layoutKey = new LayoutKey(cache.keys.clone());
+				List<BakedQuad> list = LAYOUT_QUADS.get(layoutKey);
+				if (list == null) {
+					list = combine(cache);
+					if (LAYOUT_QUADS.size() < LAYOUT_CACHE_MAX_SIZE) {
+						LAYOUT_QUADS.put(layoutKey, list);
 					}
-				} catch (ModelTransformer.TransformationFailedException e) {
-					throw new RuntimeException(e);
 				}
+				cache.combined = list;
+			} else {
+				cache.combined = combine(cache);
 			}
-		}
 
-		return list;
+			return cache.combined;
+		}
 	}
 
 	@Override
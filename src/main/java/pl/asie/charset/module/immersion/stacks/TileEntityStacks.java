@@ -38,6 +38,9 @@ import javax.annotation.Nullable;
 
 public class TileEntityStacks extends TileBase {
 	protected final ItemStack[] stacks = new ItemStack[64];
+	// Client-side: slots whose geometry has to be rebuilt by RenderTileEntityStacks.
+	protected long renderDirtySlots = -1L;
+	protected Object renderCache;
 
 	public TileEntityStacks() {
 
@@ -140,7 +143,7 @@ public class TileEntityStacks extends TileBase {
 
 		if (!simulate) {
 			sort(freePositions, hitPos, stack);
-			stacks[freePositions.getInt(0)] = stack;
+			setStack(freePositions.getInt(0), stack);
 			markChunkDirty();
 			markBlockForUpdate();
 		}
@@ -164,40 +167,74 @@ public class TileEntityStacks extends TileBase {
 			return stacks[remPositions.getInt(0)];
 		} else {
 			ItemStack stack = stacks[remPositions.getInt(0)];
-			stacks[remPositions.getInt(0)] = null;
+			setStack(remPositions.getInt(0), null);
 			markChunkDirty();
 			markBlockForUpdate();
 			return stack;
 		}
 	}
 
+	private static boolean areStacksEqual(@Nullable ItemStack a, @Nullable ItemStack b) {
+		if (a == null || b == null) {
+			return a == b;
+		} else {
+			return ItemStack.areItemStacksEqual(a, b);
+		}
+	}
+
+	protected void setStack(int i, @Nullable ItemStack stack) {
+		stacks[i] = stack;
+		markRenderDirty(1L << i);
+	}
+
+	protected synchronized void markRenderDirty(long slots) {
+		renderDirtySlots |= slots;
+	}
+
+	/**
+	 * Returns the slots marked dirty since the last call, clearing them.
+	 */
+	protected synchronized long pollRenderDirtySlots() {
+		long slots = renderDirtySlots;
+		renderDirtySlots = 0;
+		return slots;
+	}
+
 	@Override
 	public void readNBTData(NBTTagCompound compound, boolean isClient) {
 		super.readNBTData(compound, isClient);
 
-		int offset = 0;
+		long changed = 0;
 		for (int i = 0; i < 32; i++) {
-			stacks[i * 2] = null;
-			stacks[i * 2 + 1] = null;
+			ItemStack a = null, b = null;
 			if (compound.hasKey("s" + i, Constants.NBT.TAG_COMPOUND)) {
 				NBTTagCompound cpd = compound.getCompoundTag("s" + i);
 				if (cpd.hasKey("a", Constants.NBT.TAG_COMPOUND)) {
-					stacks[offset] = new ItemStack(cpd.getCompoundTag("a"));
-					if (stacks[offset].isEmpty()) {
-						stacks[offset] = null;
+					a = new ItemStack(cpd.getCompoundTag("a"));
+					if (a.isEmpty()) {
+						a = null;
 					}
 				}
-				offset++;
 				if (cpd.hasKey("b", Constants.NBT.TAG_COMPOUND)) {
-					stacks[offset] = new ItemStack(cpd.getCompoundTag("b"));
-					if (stacks[offset].isEmpty()) {
-						stacks[offset] = null;
+					b = new ItemStack(cpd.getCompoundTag("b"));
+					if (b.isEmpty()) {
+						b = null;
 					}
 				}
-				offset++;
-			} else {
-				offset+=2;
 			}
+
+			if (!areStacksEqual(stacks[i * 2], a)) {
+				changed |= 1L << (i * 2);
+			}
+			if (!areStacksEqual(stacks[i * 2 + 1], b)) {
+				changed |= 1L << (i * 2 + 1);
+			}
+			stacks[i * 2] = a;
+			stacks[i * 2 + 1] = b;
+		}
+
+		if (changed != 0) {
+			markRenderDirty(changed);
 		}
 
 		if (isClient) {
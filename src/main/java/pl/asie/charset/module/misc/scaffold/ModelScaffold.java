@@ -31,6 +31,9 @@ import net.minecraftforge.common.model.TRSRTransformation;
 import pl.asie.charset.lib.render.model.ModelFactory;
 import pl.asie.charset.lib.render.model.WrappedBakedModel;
 import pl.asie.charset.lib.utils.RenderUtils;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
 
 public class ModelScaffold extends ModelFactory<ScaffoldCacheInfo> {
 	public static final ModelScaffold INSTANCE = new ModelScaffold();
@@ -51,4 +54,17 @@ public class ModelScaffold extends ModelFactory<ScaffoldCacheInfo> {
 	public ScaffoldCacheInfo fromItemStack(ItemStack stack) {
 		return ScaffoldCacheInfo.from(stack);
 	}
+
+	@Override
+	protected Collection<ScaffoldCacheInfo> getPrewarmObjects() {
+		if (CharsetMiscScaffold.scaffoldBlock == null) {
+			return Collections.emptyList();
+		}
+		return fromItemStacks(CharsetMiscScaffold.scaffoldBlock.getSubItemProvider().getItems());
+	}
+
+	@Override
+	protected String getPersistentKey(ScaffoldCacheInfo info, @Nullable BlockRenderLayer layer) {
+		return info.plank.getIconName();
+	}
 }
@@ -36,6 +36,9 @@ import pl.asie.charset.lib.render.model.WrappedBakedModel;
 import pl.asie.charset.lib.utils.RenderUtils;
 
 import javax.vecmath.Vector3f;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
 
 public class ModelShelf extends ModelFactory<ShelfCacheInfo> {
 	public static final ModelShelf INSTANCE = new ModelShelf();
@@ -65,4 +68,17 @@ public class ModelShelf extends ModelFactory<ShelfCacheInfo> {
 	public ShelfCacheInfo fromItemStack(ItemStack stack) {
 		return ShelfCacheInfo.from(stack);
 	}
+
+	@Override
+	protected Collection<ShelfCacheInfo> getPrewarmObjects() {
+		if (CharsetMiscShelf.shelfBlock == null) {
+			return Collections.emptyList();
+		}
+		return fromItemStacks(CharsetMiscShelf.shelfBlock.getSubItemProvider().getItems());
+	}
+
+	@Override
+	protected String getPersistentKey(ShelfCacheInfo info, @Nullable BlockRenderLayer layer) {
+		return info.plank.getIconName() + "," + info.facing.getName() + "," + info.back;
+	}
 }
@@ -42,6 +42,7 @@ import javax.annotation.Nonnull;
 // IDEA: Add lastTileEntity to avoid double world.getTileEntity call with onAdd.
 public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 	public static final int MAX_DISTANCE = 64;
+	private static final int MAX_SECTIONS = (MAX_DISTANCE + 15) / 16 + 1;
 	private static long ID_COUNTER = 1;
 
 	private final long id;
@@ -57,6 +58,13 @@ public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 
 	private boolean isValidated;
 
+	// Chunk sections crossed by the beam: the first step inside each, and
+	// its modification counter as of the last time that segment was walked.
+	private final LaserWorldStorage storage;
+	private final int[] sectionSteps = new int[MAX_SECTIONS];
+	private final int[] sectionVersions = new int[MAX_SECTIONS];
+	private int sectionCount;
+
 	@SideOnly(Side.CLIENT)
 	protected Vec3d vcstart, vcend;
 	@SideOnly(Side.CLIENT)
@@ -69,7 +77,9 @@ public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 		this.start = start;
 		this.direction = facing;
 		this.color = color;
+		this.storage = CharsetLaser.laserStorage.getStorage(world);
 		this.end = calculateEnd();
+		recordSections();
 
 		validate();
 	}
@@ -85,7 +95,9 @@ public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 		endedAtAir = (flags & 0x40) != 0;
 
 		source = new DummyLaserSource(world.getTileEntity(start));
+		storage = CharsetLaser.laserStorage.getStorage(world);
 		end = start.offset(direction, length);
+		recordSections();
 
 		validate();
 	}
@@ -270,6 +282,65 @@ public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 		return endPos;
 	}
 
+	private int getSectionVersion(int step) {
+		if (storage == null) {
+			return -1;
+		}
+
+		int x = start.getX() + direction.getXOffset() * step;
+		int y = start.getY() + direction.getYOffset() * step;
+		int z = start.getZ() + direction.getZOffset() * step;
+		return storage.getSectionVersion(x >> 4, y >> 4, z >> 4);
+	}
+
+	private void recordSections() {
+		sectionCount = 0;
+
+		int step = 1;
+		while (step <= length && sectionCount < MAX_SECTIONS) {
+			sectionSteps[sectionCount] = step;
+			sectionVersions[sectionCount] = getSectionVersion(step);
+			sectionCount++;
+
+			// Move to the first step past this section's boundary.
+			int coord;
+			switch (direction.getAxis()) {
+				case X:
+					coord = start.getX() + direction.getXOffset() * step;
+					break;
+				case Y:
+					coord = start.getY() + direction.getYOffset() * step;
+					break;
+				default:
+					coord = start.getZ() + direction.getZOffset() * step;
+					break;
+			}
+			coord &= 15;
+			step += direction.getAxisDirection() == EnumFacing.AxisDirection.POSITIVE ? 16 - coord : coord + 1;
+		}
+	}
+
+	private boolean isSegmentValid(int from, int to) {
+		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(start.offset(direction, from));
+		// A segment never leaves its chunk section.
+		Chunk chunk = world.getChunk(pos);
+
+		for (int i = from; i <= to; i++) {
+			if (i == length) {
+				if (endedAtAir == isBlocker(chunk, pos)) {
+					return false;
+				}
+			} else if (isBlocker(chunk, pos)) {
+				// System.out.println("INVALID - B " + pos + ": " + this);
+				return false;
+			}
+
+			pos.move(direction);
+		}
+
+		return true;
+	}
+
 	public boolean isValid() {
 		if (!isValidated || !source.isCacheValid()) {
 			/* if (!isValidated) {
@@ -280,44 +351,20 @@ public final class LaserBeam implements ILaserBeam, ILaserEndpoint {
 			return false;
 		}
 
-		Chunk chunk = world.getChunk(start);
-		Chunk endChunk = chunk;
-		if (direction.getAxis() != EnumFacing.Axis.Y && (((start.getX() >> 4) != (end.getX() >> 4)) || ((start.getZ() >> 4) != (end.getZ() >> 4)))) {
-			endChunk = world.getChunk(end);
-		}
-
-		if (endedAtAir == isBlocker(endChunk, end)) {
-			return false;
+		if (length <= 0) {
+			return endedAtAir != isBlocker(world.getChunk(end), end);
 		}
 
-		BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos(start);
-		for (int i = 0; i < length - 1; i++) {
-			pos.move(direction);
-			switch (direction) {
-				case UP:
-				case DOWN:
-					break;
-				case NORTH:
-					if ((pos.getZ() & 15) == 15)
-						chunk = world.getChunk(pos);
-					break;
-				case SOUTH:
-					if ((pos.getZ() & 15) == 0)
-						chunk = world.getChunk(pos);
-					break;
-				case WEST:
-					if ((pos.getX() & 15) == 15)
-						chunk = world.getChunk(pos);
-					break;
-				case EAST:
-					if ((pos.getX() & 15) == 0)
-						chunk = world.getChunk(pos);
-					break;
-			}
-
-			if (isBlocker(chunk, pos)) {
-				// System.out.println("INVALID - B " + pos + ": " + this);
-				return false;
+		// Only re-walk the parts of the beam whose sections have seen
+		// relevant block changes since they were last checked.
+		for (int i = 0; i < sectionCount; i++) {
+			int version = getSectionVersion(sectionSteps[i]);
+			if (version == -1 || version != sectionVersions[i]) {
+				int to = i + 1 < sectionCount ? sectionSteps[i + 1] - 1 : length;
+				if (!isSegmentValid(sectionSteps[i], to)) {
+					return false;
+				}
+				sectionVersions[i] = version;
 			}
 		}
 
@@ -32,6 +32,7 @@ import net.minecraftforge.fml.common.eventhandler.EventPriority;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
+import javax.annotation.Nullable;
 import java.util.*;
 
 public class LaserStorage {
@@ -61,6 +62,11 @@ public class LaserStorage {
 
 	// Updates
 
+	@Nullable
+	LaserWorldStorage getStorage(World world) {
+		return storageMap.get(world);
+	}
+
 	private LaserWorldStorage getOrCreateStorage(World world) {
 		if (storageMap.containsKey(world)) {
 			return storageMap.get(world);
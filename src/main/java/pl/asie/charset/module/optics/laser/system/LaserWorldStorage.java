@@ -187,6 +187,9 @@ public class LaserWorldStorage implements IWorldEventListener {
 	private final Long2ObjectOpenHashMap<Set<ILaserEndpoint>> endpoints = new Long2ObjectOpenHashMap<>();
 	private final LongSet validatedLasers = new LongOpenHashSet();
 	private final LongSet chunksToRescan = new LongOpenHashSet();
+	// Per-chunk modification counters of each 16x16x16 section, see LaserBeam.isValid
+	private final Long2ObjectOpenHashMap<int[]> sectionVersions = new Long2ObjectOpenHashMap<>();
+	private int sectionVersionCounter;
 	private final Queue<BlockPos> newLasersQueue = new ArrayDeque<>();
 	protected final World world;
 	private final boolean updates;
@@ -359,8 +362,42 @@ public class LaserWorldStorage implements IWorldEventListener {
 		}
 	}
 
+	/**
+	 * @return The current modification counter of a chunk section, or -1 if
+	 * the chunk is not loaded and so cannot be compared against.
+	 */
+	protected int getSectionVersion(int cx, int sy, int cz) {
+		if (sy < 0 || sy >= 16) {
+			return 0;
+		}
+
+		long l = ChunkPos.asLong(cx, cz);
+		int[] versions = sectionVersions.get(l);
+		if (versions == null) {
+			if (world.getChunkProvider().getLoadedChunk(cx, cz) == null) {
+				return -1;
+			}
+
+			versions = new int[16];
+			Arrays.fill(versions, ++sectionVersionCounter);
+			sectionVersions.put(l, versions);
+		}
+
+		return versions[sy];
+	}
+
+	private void markSectionChanged(BlockPos pos) {
+		int[] versions = sectionVersions.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+		int sy = pos.getY() >> 4;
+		if (versions != null && sy >= 0 && sy < 16) {
+			versions[sy] = ++sectionVersionCounter;
+		}
+	}
+
 	public void removeAll(Chunk chunk) {
 		long l = ChunkPos.asLong(chunk.getPos().x, chunk.getPos().z);
+		// The chunk may come back with different contents.
+		sectionVersions.remove(l);
 
 		Collection<LaserBeam> removedBeams = laserBeams.get(l);
 		if (removedBeams != null) {
@@ -446,6 +483,7 @@ public class LaserWorldStorage implements IWorldEventListener {
 	}
 
 	public void rescan(World worldIn, BlockPos pos) {
+		markSectionChanged(pos);
 		// TODO: This is horrendous.
 		rescanAllAffectedChunks(new ChunkPos(pos));
 	}
@@ -453,8 +491,11 @@ public class LaserWorldStorage implements IWorldEventListener {
 	@Override
 	public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
 		//if (oldState != newState) {
+		if (oldState != newState || newState.getBlock().hasTileEntity(newState)) {
+			markSectionChanged(pos);
+		}
 		validatedLasers.clear();
-		rescan(worldIn, pos);
+		rescanAllAffectedChunks(new ChunkPos(pos));
 		//}
 	}
 
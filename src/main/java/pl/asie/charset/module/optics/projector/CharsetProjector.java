@@ -118,6 +118,7 @@ public class CharsetProjector {
 		ArrowHighlightHandler.register(itemProjector);
 
 		MinecraftForge.EVENT_BUS.register(new ProjectorRenderer());
+		MinecraftForge.EVENT_BUS.register(ProjectorRegistry.INSTANCE);
 	}
 
 	@SubscribeEvent
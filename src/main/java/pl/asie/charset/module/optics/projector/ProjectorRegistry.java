@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.optics.projector;
+
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the projectors loaded in each client world, so that the
+ * renderer does not have to search the tile entity list every frame.
+ */
+public final class ProjectorRegistry {
+	public static final ProjectorRegistry INSTANCE = new ProjectorRegistry();
+
+	// not weak - every projector references its world, so worlds are dropped on unload instead
+	private final Map<World, Set<TileProjector>> projectors = new IdentityHashMap<>();
+
+	private ProjectorRegistry() {
+
+	}
+
+	public void add(TileProjector projector) {
+		projectors.computeIfAbsent(projector.getWorld(), (w) -> Collections.newSetFromMap(new IdentityHashMap<>())).add(projector);
+	}
+
+	public void remove(TileProjector projector) {
+		Set<TileProjector> set = projectors.get(projector.getWorld());
+		if (set != null) {
+			set.remove(projector);
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		projectors.remove(event.getWorld());
+	}
+
+	public Collection<TileProjector> getProjectors(World world) {
+		Set<TileProjector> set = projectors.get(world);
+		return set != null ? set : Collections.emptySet();
+	}
+}
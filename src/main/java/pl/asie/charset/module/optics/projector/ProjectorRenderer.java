@@ -28,13 +28,17 @@ import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.culling.ICamera;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.EnumDyeColor;
 import net.minecraft.item.ItemStack;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.*;
+import net.minecraft.world.IWorldEventListener;
 import net.minecraft.world.World;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL14;
@@ -42,6 +46,12 @@ import pl.asie.charset.api.laser.LaserColor;
 import pl.asie.charset.lib.utils.*;
 import pl.asie.charset.lib.utils.Orientation;
 
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 public class ProjectorRenderer {
 	public static class Surface implements IProjectorSurface {
 		public World world;
@@ -117,93 +127,122 @@ public class ProjectorRenderer {
 		}
 	}
 
-	public Surface getSurface(World world, BlockPos pos, Orientation orientation, float sizeFactor, float aspectRatio) {
+	private static class CachedSurface {
+		private final World world;
+		private final BlockPos pos;
+		private final Orientation orientation;
+		private final float aspectRatio;
+		private final ProjectorSurfaceSolver.Solution solution;
+
+		CachedSurface(World world, BlockPos pos, Orientation orientation, float aspectRatio, ProjectorSurfaceSolver.Solution solution) {
+			this.world = world;
+			this.pos = pos;
+			this.orientation = orientation;
+			this.aspectRatio = aspectRatio;
+			this.solution = solution;
+		}
+
+		boolean matches(World world, BlockPos pos, Orientation orientation, float aspectRatio) {
+			return this.world == world && this.pos.equals(pos) && this.orientation == orientation && this.aspectRatio == aspectRatio;
+		}
+	}
+
+	// cached surfaces reference their world, which keeps the projector keys reachable - purged on world unload
+	private final Map<TileProjector, CachedSurface> surfaceCache = new WeakHashMap<>();
+	private final Map<World, Listener> listeners = new IdentityHashMap<>();
+
+	private static ProjectorSurfaceSolver.BlockAccess createBlockAccess(World world) {
+		return new ProjectorSurfaceSolver.BlockAccess() {
+			@Override
+			public boolean isOpaque(BlockPos pos) {
+				return world.getBlockState(pos).getMaterial().isOpaque();
+			}
+
+			@Override
+			public boolean isSideSolid(BlockPos pos, EnumFacing side) {
+				return world.getBlockState(pos).isSideSolid(world, pos, side);
+			}
+		};
+	}
+
+	@Nullable
+	private Surface createSurface(World world, BlockPos pos, Orientation orientation, ProjectorSurfaceSolver.Solution solution) {
+		if (!solution.hasSurface()) {
+			return null;
+		}
+
 		Surface surface = new Surface();
 		EnumFacing projectorDirection = orientation.facing;
-		int maxDistance = 16;
-
-		float sizeFactorW = 1f;
-		float sizeFactorH = 1f / aspectRatio;
-		float sfDiv = (float) Math.sqrt(sizeFactorW * sizeFactorW + sizeFactorH * sizeFactorH);
-		sizeFactorW *= sizeFactor / sfDiv;
-		sizeFactorH *= sizeFactor / sfDiv;
-
-		Vec3d bottomRightOffset = new Vec3d(
-				projectorDirection.getAxis() == EnumFacing.Axis.X ? 0 : 1,
-				projectorDirection.getAxis() == EnumFacing.Axis.Y ? 0 : 1,
-				projectorDirection.getAxis() == EnumFacing.Axis.Z ? 0 : 1
+		float v = projectorDirection.getAxisDirection() == EnumFacing.AxisDirection.NEGATIVE ? 1f : 0f;
+		v += ProjectorHelper.OFFSET + (pos.hashCode() & 31) / 16384f;
+		surface.world = world;
+		surface.cornerStart = solution.topLeft.subtract(
+				projectorDirection.getXOffset() * v,
+				projectorDirection.getYOffset() * v,
+				projectorDirection.getZOffset() * v
 		);
+		surface.cornerEnd = solution.bottomRight.subtract(
+				projectorDirection.getXOffset() * v,
+				projectorDirection.getYOffset() * v,
+				projectorDirection.getZOffset() * v
+		);
+		surface.orientation = orientation;
+		surface.width = solution.width;
+		surface.height = solution.height;
+		return surface;
+	}
 
-		for (int i = 1; i <= maxDistance; i++) {
-			BlockPos centerPos = pos.offset(projectorDirection, i);
-			Vec3d center = new Vec3d(centerPos).add(
-					projectorDirection.getXOffset() * 0.5f + 0.5f,
-					projectorDirection.getYOffset() * 0.5f + 0.5f,
-					projectorDirection.getZOffset() * 0.5f + 0.5f
-			);
-			Vec3d topLeft = center;
-			Vec3d bottomRight = center;
-
-			// TODO: This sucks. All of it.
-			for (EnumFacing.Axis axis : EnumFacing.Axis.values()) {
-				if (axis != projectorDirection.getAxis()) {
-					Vec3d axisVec = new Vec3d(EnumFacing.getFacingFromAxis(EnumFacing.AxisDirection.POSITIVE, axis).getDirectionVec())
-							.scale((axis == orientation.top.getAxis() ? sizeFactorH : sizeFactorW) * i);
-					topLeft = topLeft.subtract(axisVec);
-					bottomRight = bottomRight.add(axisVec);
-				}
-			}
+	@Nullable
+	public Surface getSurface(World world, BlockPos pos, Orientation orientation, float sizeFactor, float aspectRatio) {
+		return createSurface(world, pos, orientation, ProjectorSurfaceSolver.solve(createBlockAccess(world), pos, orientation, sizeFactor, aspectRatio));
+	}
 
-			BlockPos topLeftPos = new BlockPos(Math.floor(topLeft.x), Math.floor(topLeft.y), Math.floor(topLeft.z));
-			BlockPos bottomRightPos = new BlockPos(
-					Math.ceil(bottomRight.x - bottomRightOffset.x),
-					Math.ceil(bottomRight.y - bottomRightOffset.y),
-					Math.ceil(bottomRight.z - bottomRightOffset.z));
-			int solidCount = 0;
-			int totalCount = 0;
-			boolean isSurface = true;
-			boolean hasBlocks = false;
-
-			for (BlockPos checkPos : BlockPos.getAllInBox(topLeftPos, bottomRightPos)) {
-				totalCount++;
-				IBlockState state = world.getBlockState(checkPos);
-				if (!state.getMaterial().isOpaque()) {
-					isSurface = false;
-				} else {
-					hasBlocks = true;
-					if (state.isSideSolid(world, pos, projectorDirection.getOpposite())) {
-						solidCount++;
-					}
-				}
-			}
+	@Nullable
+	private Surface getSurface(TileProjector projector, Orientation orientation, float aspectRatio) {
+		World world = projector.getWorld();
+		BlockPos pos = projector.getPos();
+		CachedSurface cached = surfaceCache.get(projector);
+		if (cached == null || !cached.matches(world, pos, orientation, aspectRatio)) {
+			cached = new CachedSurface(world, pos, orientation, aspectRatio,
+					ProjectorSurfaceSolver.solve(createBlockAccess(world), pos, orientation, 0.5f, aspectRatio));
+			surfaceCache.put(projector, cached);
+		}
 
-			if (!isSurface && solidCount > 0) {
-				return null;
-			} else if (isSurface && solidCount == totalCount) {
-				float v = projectorDirection.getAxisDirection() == EnumFacing.AxisDirection.NEGATIVE ? 1f : 0f;
-				v += ProjectorHelper.OFFSET + (pos.hashCode() & 31) / 16384f;
-				surface.world = world;
-				surface.cornerStart = topLeft.subtract(
-						projectorDirection.getXOffset() * v,
-						projectorDirection.getYOffset() * v,
-						projectorDirection.getZOffset() * v
-				);
-				surface.cornerEnd = bottomRight.subtract(
-						projectorDirection.getXOffset() * v,
-						projectorDirection.getYOffset() * v,
-						projectorDirection.getZOffset() * v
-				);
-				surface.orientation = orientation;
-				surface.width = sizeFactorW * i;
-				surface.height = sizeFactorH * i;
-
-				return surface;
-			} else if (solidCount != totalCount && hasBlocks) {
-				return null;
+		return createSurface(world, pos, orientation, cached.solution);
+	}
+
+	private void invalidate(World world, int x1, int y1, int z1, int x2, int y2, int z2) {
+		if (surfaceCache.isEmpty()) {
+			return;
+		}
+
+		Iterator<CachedSurface> it = surfaceCache.values().iterator();
+		while (it.hasNext()) {
+			CachedSurface cached = it.next();
+			if (cached.world == world && cached.solution.intersects(x1, y1, z1, x2, y2, z2)) {
+				it.remove();
 			}
 		}
+	}
 
-		return null;
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load event) {
+		if (event.getWorld().isRemote) {
+			Listener listener = new Listener(event.getWorld());
+			listeners.put(event.getWorld(), listener);
+			event.getWorld().addEventListener(listener);
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		World world = event.getWorld();
+		Listener listener = listeners.remove(world);
+		if (listener != null) {
+			world.removeEventListener(listener);
+		}
+
+		surfaceCache.values().removeIf((cached) -> cached.world == world);
 	}
 
 	@SubscribeEvent
@@ -229,71 +268,69 @@ public class ProjectorRenderer {
 		GlStateManager.pushMatrix();
 		GlStateManager.translate(-cameraPos.x, -cameraPos.y, -cameraPos.z);
 
-		for (TileEntity tileEntity : Minecraft.getMinecraft().world.loadedTileEntityList) {
-			if (tileEntity instanceof TileProjector) {
-				LaserColor color = LaserColor.NONE;
-				Orientation orientation = ((TileProjector) tileEntity).getOrientation();
-
-				if (CharsetProjector.useLasers) {
-					for (int d = 0; d < 6; d++) {
-						LaserColor color2 = ((TileProjector) tileEntity).colors[d];
-						if (color2 != null && color2 != LaserColor.NONE) {
-							if (d == orientation.facing.getOpposite().ordinal()) {
-								// not rendering anything - laser in the way
-								color = LaserColor.NONE;
-								break;
-							} else {
-								color = color.union(color2);
-							}
+		for (TileProjector projector : ProjectorRegistry.INSTANCE.getProjectors(Minecraft.getMinecraft().world)) {
+			LaserColor color = LaserColor.NONE;
+			Orientation orientation = projector.getOrientation();
+
+			if (CharsetProjector.useLasers) {
+				for (int d = 0; d < 6; d++) {
+					LaserColor color2 = projector.colors[d];
+					if (color2 != null && color2 != LaserColor.NONE) {
+						if (d == orientation.facing.getOpposite().ordinal()) {
+							// not rendering anything - laser in the way
+							color = LaserColor.NONE;
+							break;
+						} else {
+							color = color.union(color2);
 						}
 					}
-				} else {
-					color = ((TileProjector) tileEntity).redstoneLevel > 0 ? LaserColor.WHITE : LaserColor.NONE;
 				}
+			} else {
+				color = projector.redstoneLevel > 0 ? LaserColor.WHITE : LaserColor.NONE;
+			}
 
-				if (color != LaserColor.NONE) {
-					ItemStack stack = ((TileProjector) tileEntity).getStack();
-					IProjectorHandler<ItemStack> handler = CharsetProjector.getHandler(stack);
-					if (handler == null) {
-						continue;
-					}
-
-					Surface surface = getSurface(tileEntity.getWorld(), tileEntity.getPos(), orientation, 0.5f, handler.getAspectRatio(stack));
-					if (surface == null) {
-						continue;
-					}
+			if (color != LaserColor.NONE) {
+				ItemStack stack = projector.getStack();
+				IProjectorHandler<ItemStack> handler = CharsetProjector.getHandler(stack);
+				if (handler == null) {
+					continue;
+				}
 
-					if (!camera.isBoundingBoxInFrustum(SpaceUtils.from(surface.cornerStart, surface.cornerEnd))) {
-						continue;
-					}
+				Surface surface = getSurface(projector, orientation, handler.getAspectRatio(stack));
+				if (surface == null) {
+					continue;
+				}
 
-					surface.r = color.red ? 1.0f : 0.0f;
-					surface.g = color.green ? 1.0f : 0.0f;
-					surface.b = color.blue ? 1.0f : 0.0f;
-					surface.a = 0.5f;
+				if (!camera.isBoundingBoxInFrustum(SpaceUtils.from(surface.cornerStart, surface.cornerEnd))) {
+					continue;
+				}
 
-					if (!CharsetProjector.useLasers) {
-						surface.a *= ((TileProjector) tileEntity).redstoneLevel / 15.0f;
-					}
+				surface.r = color.red ? 1.0f : 0.0f;
+				surface.g = color.green ? 1.0f : 0.0f;
+				surface.b = color.blue ? 1.0f : 0.0f;
+				surface.a = 0.5f;
 
-					EnumDyeColor dyeColor = null;
+				if (!CharsetProjector.useLasers) {
+					surface.a *= projector.redstoneLevel / 15.0f;
+				}
 
-					BlockPos inFrontPos = tileEntity.getPos().offset(((TileProjector) tileEntity).getOrientation().facing);
-					IBlockState state = tileEntity.getWorld().getBlockState(inFrontPos);
-					if (state.getBlock() instanceof BlockStainedGlass) {
-						dyeColor = state.getValue(BlockStainedGlass.COLOR);
-					}
+				EnumDyeColor dyeColor = null;
 
-					if (dyeColor != null) {
-						float[] v = dyeColor.getColorComponentValues();
-						surface.r *= v[0];
-						surface.g *= v[1];
-						surface.b *= v[2];
-					}
+				BlockPos inFrontPos = projector.getPos().offset(projector.getOrientation().facing);
+				IBlockState state = projector.getWorld().getBlockState(inFrontPos);
+				if (state.getBlock() instanceof BlockStainedGlass) {
+					dyeColor = state.getValue(BlockStainedGlass.COLOR);
+				}
 
-					surface.restoreGLColor();
-					handler.render(stack, (IProjector) tileEntity, surface);
+				if (dyeColor != null) {
+					float[] v = dyeColor.getColorComponentValues();
+					surface.r *= v[0];
+					surface.g *= v[1];
+					surface.b *= v[2];
 				}
+
+				surface.restoreGLColor();
+				handler.render(stack, projector, surface);
 			}
 		}
 
@@ -305,4 +342,75 @@ public class ProjectorRenderer {
 
 		Minecraft.getMinecraft().profiler.endSection();
 	}
+
+	private class Listener implements IWorldEventListener {
+		private final World world;
+
+		Listener(World world) {
+			this.world = world;
+		}
+
+		@Override
+		public void notifyBlockUpdate(World worldIn, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) {
+			if (oldState != newState) {
+				invalidate(world, pos.getX(), pos.getY(), pos.getZ(), pos.getX(), pos.getY(), pos.getZ());
+			}
+		}
+
+		@Override
+		public void notifyLightSet(BlockPos pos) {
+
+		}
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) {
+			// fired when chunk data arrives from the server
+			invalidate(world, x1, y1, z1, x2, y2, z2);
+		}
+
+		@Override
+		public void playSoundToAllNearExcept(@Nullable EntityPlayer player, SoundEvent soundIn, SoundCategory category, double x, double y, double z, float volume, float pitch) {
+
+		}
+
+		@Override
+		public void playRecord(SoundEvent soundIn, BlockPos pos) {
+
+		}
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double xCoord, double yCoord, double zCoord, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+
+		}
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean p_190570_3_, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) {
+
+		}
+
+		@Override
+		public void onEntityAdded(Entity entityIn) {
+
+		}
+
+		@Override
+		public void onEntityRemoved(Entity entityIn) {
+
+		}
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) {
+
+		}
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos blockPosIn, int data) {
+
+		}
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) {
+
+		}
+	}
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.optics.projector;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import pl.asie.charset.lib.utils.Orientation;
+
+import javax.annotation.Nullable;
+
+/**
+ * Finds the surface a projector's image lands on. Only talks to the world
+ * through {@link BlockAccess}, so it can be exercised without a client.
+ */
+public final class ProjectorSurfaceSolver {
+	public interface BlockAccess {
+		boolean isOpaque(BlockPos pos);
+		boolean isSideSolid(BlockPos pos, EnumFacing side);
+	}
+
+	public static final class Solution {
+		/**
+		 * The block volume which was inspected. Changes to blocks outside
+		 * of it cannot affect the result.
+		 */
+		public final BlockPos scanMin, scanMax;
+		@Nullable
+		public final Vec3d topLeft, bottomRight;
+		public final float width, height;
+
+		private Solution(BlockPos scanMin, BlockPos scanMax, @Nullable Vec3d topLeft, @Nullable Vec3d bottomRight, float width, float height) {
+			this.scanMin = scanMin;
+			this.scanMax = scanMax;
+			this.topLeft = topLeft;
+			this.bottomRight = bottomRight;
+			this.width = width;
+			this.height = height;
+		}
+
+		public boolean hasSurface() {
+			return topLeft != null;
+		}
+
+		public boolean contains(int x, int y, int z) {
+			return x >= scanMin.getX() && y >= scanMin.getY() && z >= scanMin.getZ()
+					&& x <= scanMax.getX() && y <= scanMax.getY() && z <= scanMax.getZ();
+		}
+
+		public boolean intersects(int x1, int y1, int z1, int x2, int y2, int z2) {
+			return x2 >= scanMin.getX() && y2 >= scanMin.getY() && z2 >= scanMin.getZ()
+					&& x1 <= scanMax.getX() && y1 <= scanMax.getY() && z1 <= scanMax.getZ();
+		}
+	}
+
+	public static final int MAX_DISTANCE = 16;
+
+	private ProjectorSurfaceSolver() {
+
+	}
+
+	public static Solution solve(BlockAccess access, BlockPos pos, Orientation orientation, float sizeFactor, float aspectRatio) {
+		EnumFacing projectorDirection = orientation.facing;
+
+		float sizeFactorW = 1f;
+		float sizeFactorH = 1f / aspectRatio;
+		float sfDiv = (float) Math.sqrt(sizeFactorW * sizeFactorW + sizeFactorH * sizeFactorH);
+		sizeFactorW *= sizeFactor / sfDiv;
+		sizeFactorH *= sizeFactor / sfDiv;
+
+		Vec3d bottomRightOffset = new Vec3d(
+				projectorDirection.getAxis() == EnumFacing.Axis.X ? 0 : 1,
+				projectorDirection.getAxis() == EnumFacing.Axis.Y ? 0 : 1,
+				projectorDirection.getAxis() == EnumFacing.Axis.Z ? 0 : 1
+		);
+
+		int minX = pos.getX(), minY = pos.getY(), minZ = pos.getZ();
+		int maxX = minX, maxY = minY, maxZ = minZ;
+
+		for (int i = 1; i <= MAX_DISTANCE; i++) {
+			BlockPos centerPos = pos.offset(projectorDirection, i);
+			Vec3d center = new Vec3d(centerPos).add(
+					projectorDirection.getXOffset() * 0.5f + 0.5f,
+					projectorDirection.getYOffset() * 0.5f + 0.5f,
+					projectorDirection.getZOffset() * 0.5f + 0.5f
+			);
+			Vec3d topLeft = center;
+			Vec3d bottomRight = center;
+
+			// TODO: This sucks. All of it.
+			for (EnumFacing.Axis axis : EnumFacing.Axis.values()) {
+				if (axis != projectorDirection.getAxis()) {
+					Vec3d axisVec = new Vec3d(EnumFacing.getFacingFromAxis(EnumFacing.AxisDirection.POSITIVE, axis).getDirectionVec())
+							.scale((axis == orientation.top.getAxis() ? sizeFactorH : sizeFactorW) * i);
+					topLeft = topLeft.subtract(axisVec);
+					bottomRight = bottomRight.add(axisVec);
+				}
+			}
+
+			BlockPos topLeftPos = new BlockPos(Math.floor(topLeft.x), Math.floor(topLeft.y), Math.floor(topLeft.z));
+			BlockPos bottomRightPos = new BlockPos(
+					Math.ceil(bottomRight.x - bottomRightOffset.x),
+					Math.ceil(bottomRight.y - bottomRightOffset.y),
+					Math.ceil(bottomRight.z - bottomRightOffset.z));
+			int solidCount = 0;
+			int totalCount = 0;
+			boolean isSurface = true;
+			boolean hasBlocks = false;
+
+			minX = Math.min(minX, Math.min(topLeftPos.getX(), bottomRightPos.getX()));
+			minY = Math.min(minY, Math.min(topLeftPos.getY(), bottomRightPos.getY()));
+			minZ = Math.min(minZ, Math.min(topLeftPos.getZ(), bottomRightPos.getZ()));
+			maxX = Math.max(maxX, Math.max(topLeftPos.getX(), bottomRightPos.getX()));
+			maxY = Math.max(maxY, Math.max(topLeftPos.getY(), bottomRightPos.getY()));
+			maxZ = Math.max(maxZ, Math.max(topLeftPos.getZ(), bottomRightPos.getZ()));
+
+			for (BlockPos checkPos : BlockPos.getAllInBoxMutable(topLeftPos, bottomRightPos)) {
+				totalCount++;
+				if (!access.isOpaque(checkPos)) {
+					isSurface = false;
+				} else {
+					hasBlocks = true;
+					if (access.isSideSolid(checkPos, projectorDirection.getOpposite())) {
+						solidCount++;
+					}
+				}
+			}
+
+			BlockPos scanMin = new BlockPos(minX, minY, minZ);
+			BlockPos scanMax = new BlockPos(maxX, maxY, maxZ);
+
+			if (!isSurface && solidCount > 0) {
+				return new Solution(scanMin, scanMax, null, null, 0, 0);
+			} else if (isSurface && solidCount == totalCount) {
+				return new Solution(scanMin, scanMax, topLeft, bottomRight, sizeFactorW * i, sizeFactorH * i);
+			} else if (solidCount != totalCount && hasBlocks) {
+				return new Solution(scanMin, scanMax, null, null, 0, 0);
+			}
+		}
+
+		return new Solution(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ), null, null, 0, 0);
+	}
+}
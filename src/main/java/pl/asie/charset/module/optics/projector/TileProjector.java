@@ -122,6 +122,9 @@ public class TileProjector extends TileBase implements IAxisRotatable, IProjecto
 	@Override
 	public void onLoad() {
 		super.onLoad();
+		if (world.isRemote) {
+			ProjectorRegistry.INSTANCE.add(this);
+		}
 
 		for (int i = 0; i < 6; i++) {
 			final int _i = i;
@@ -135,6 +138,14 @@ public class TileProjector extends TileBase implements IAxisRotatable, IProjecto
 		}
 	}
 
+	@Override
+	public void invalidate(InvalidationType type) {
+		super.invalidate(type);
+		if (world != null && world.isRemote) {
+			ProjectorRegistry.INSTANCE.remove(this);
+		}
+	}
+
 	@Override
 	public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
 		if (capability == Capabilities.AXIS_ROTATABLE) {
@@ -171,14 +171,18 @@ public class CharsetPowerSteam {
 	@SideOnly(Side.CLIENT)
 	public void onClientTick(TickEvent.ClientTickEvent event) {
 		if (event.phase == TickEvent.Phase.END && Minecraft.getMinecraft().world != null) {
-			Objects.requireNonNull(Minecraft.getMinecraft().world.getCapability(steamWorldCap, null)).getAllContainers().forEach(SteamChunkContainer::update);
+			SteamWorldContainer container = Objects.requireNonNull(Minecraft.getMinecraft().world.getCapability(steamWorldCap, null));
+			container.getAllContainers().forEach(SteamChunkContainer::update);
+			container.updateMirrors(Minecraft.getMinecraft().world);
 		}
 	}
 
 	@SubscribeEvent
 	public void onWorldTick(TickEvent.WorldTickEvent event) {
 		if (event.phase == TickEvent.Phase.END && event.side == Side.SERVER) {
-			Objects.requireNonNull(event.world.getCapability(steamWorldCap, null)).getAllContainers().forEach(SteamChunkContainer::update);
+			SteamWorldContainer container = Objects.requireNonNull(event.world.getCapability(steamWorldCap, null));
+			container.getAllContainers().forEach(SteamChunkContainer::update);
+			container.updateMirrors(event.world);
 		}
 	}
 
@@ -226,7 +230,7 @@ public class CharsetPowerSteam {
 	public void onAttachCapabilitiesChunk(AttachCapabilitiesEvent<Chunk> event) {
 		if (event.getObject().getWorld() != null) {
 			if (steamCapFactory == null) {
-				steamCapFactory = new CapabilityProviderFactory<>(steamContainerCap);
+				steamCapFactory = new CapabilityProviderFactory<>(steamContainerCap, steamContainerCap.getStorage());
 				mirrorCapFactory = new CapabilityProviderFactory<>(mirrorContainerCap);
 			}
 
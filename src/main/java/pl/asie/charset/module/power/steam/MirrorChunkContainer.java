@@ -21,12 +21,12 @@ package pl.asie.charset.module.power.steam;
 
 import gnu.trove.map.TIntObjectMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import pl.asie.charset.module.power.steam.api.IMirror;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -35,7 +35,11 @@ import java.util.function.Consumer;
 public class MirrorChunkContainer {
 	private final Chunk c;
 	private final TIntObjectMap<Collection<IMirror>> mirrorsByHeight = new TIntObjectHashMap<>();
-	private final TIntObjectMap<IMirror> highestMirror = new TIntObjectHashMap<>();
+	// indexed by getHmPos, then keyed by Y
+	@SuppressWarnings("unchecked")
+	private final TIntObjectMap<IMirror>[] mirrorsByColumn = new TIntObjectMap[256];
+	private final IMirror[] highestMirror = new IMirror[256];
+	private int mirrorCount;
 
 	public MirrorChunkContainer(Chunk c) {
 		this.c = c;
@@ -46,8 +50,12 @@ public class MirrorChunkContainer {
 		this(new Chunk(null, 0, 0));
 	}
 
-	private int getHmPos(BlockPos pos) {
-		return ((pos.getX() & 15) << 4) | (pos.getZ() & 15);
+	private static int getHmPos(BlockPos pos) {
+		return getHmPos(pos.getX(), pos.getZ());
+	}
+
+	private static int getHmPos(int x, int z) {
+		return ((x & 15) << 4) | (z & 15);
 	}
 
 	public Collection<IMirror> getMirrors(BlockPos pos) {
@@ -56,57 +64,110 @@ public class MirrorChunkContainer {
 	}
 
 	public IMirror getHighestMirror(BlockPos pos) {
-		return highestMirror.get(getHmPos(pos));
+		return highestMirror[getHmPos(pos)];
 	}
 
 	private void updateHmPos(IMirror mirror) {
 		if (mirror.isMirrorValid()) {
 			int hmPos = getHmPos(mirror.getMirrorPos());
-			IMirror other = highestMirror.get(hmPos);
+			IMirror other = highestMirror[hmPos];
 			if (other == null || other.getMirrorPos().getY() < mirror.getMirrorPos().getY()) {
-				highestMirror.put(hmPos, mirror);
+				highestMirror[hmPos] = mirror;
+				if (other != null) {
+					other.requestMirrorTargetRefresh();
+				}
 			}
 		}
 	}
 
 	public void registerMirror(IMirror mirror) {
-		Collection<IMirror> collection = mirrorsByHeight.get(mirror.getMirrorPos().getY());
+		BlockPos pos = mirror.getMirrorPos();
+		Collection<IMirror> collection = mirrorsByHeight.get(pos.getY());
 		if (collection == null) {
 			collection = new HashSet<>();
-			mirrorsByHeight.put(mirror.getMirrorPos().getY(), collection);
+			mirrorsByHeight.put(pos.getY(), collection);
 		}
 		collection.add(mirror);
+
+		int hmPos = getHmPos(pos);
+		if (mirrorsByColumn[hmPos] == null) {
+			mirrorsByColumn[hmPos] = new TIntObjectHashMap<>();
+		}
+		if (mirrorsByColumn[hmPos].put(pos.getY(), mirror) == null) {
+			mirrorCount++;
+		}
+
 		updateHmPos(mirror);
 	}
 
 	public void unregisterMirror(IMirror mirror) {
-		Collection<IMirror> collection = mirrorsByHeight.get(mirror.getMirrorPos().getY());
+		BlockPos pos = mirror.getMirrorPos();
+		Collection<IMirror> collection = mirrorsByHeight.get(pos.getY());
 		if (collection != null) {
 			collection.remove(mirror);
+			if (collection.isEmpty()) {
+				mirrorsByHeight.remove(pos.getY());
+			}
 		}
 
-		int hmPos = getHmPos(mirror.getMirrorPos());
-		IMirror other = highestMirror.get(hmPos);
+		int hmPos = getHmPos(pos);
+		TIntObjectMap<IMirror> column = mirrorsByColumn[hmPos];
+		if (column != null && column.get(pos.getY()) == mirror) {
+			column.remove(pos.getY());
+			mirrorCount--;
+			if (column.isEmpty()) {
+				mirrorsByColumn[hmPos] = null;
+			}
+		}
+
+		IMirror other = highestMirror[hmPos];
 		if (other == mirror || (other != null && !other.isMirrorValid())) {
-			highestMirror.remove(hmPos);
-
-			// TODO: make this faster
-			for (TileEntity tile : c.getTileEntityMap().values()) {
-				if (tile instanceof IMirror) {
-					int hmPos2 = getHmPos(((IMirror) tile).getMirrorPos());
-					if (hmPos2 == hmPos) {
-						updateHmPos((IMirror) tile);
-					}
+			highestMirror[hmPos] = null;
+
+			column = mirrorsByColumn[hmPos];
+			if (column != null) {
+				for (IMirror columnMirror : column.valueCollection()) {
+					updateHmPos(columnMirror);
 				}
 			}
 
-			other = highestMirror.get(hmPos);
+			other = highestMirror[hmPos];
 			if (other != null) {
 				other.requestMirrorTargetRefresh();
 			}
 		}
 	}
 
+	private void forEachInRange(int minX, int minZ, int maxX, int maxZ, Consumer<IMirror> consumer) {
+		int baseX = c.x << 4;
+		int baseZ = c.z << 4;
+		int x0 = Math.max(minX - baseX, 0), x1 = Math.min(maxX - baseX, 15);
+		int z0 = Math.max(minZ - baseZ, 0), z1 = Math.min(maxZ - baseZ, 15);
+
+		for (int x = x0; x <= x1; x++) {
+			for (int z = z0; z <= z1; z++) {
+				TIntObjectMap<IMirror> column = mirrorsByColumn[getHmPos(x, z)];
+				if (column != null) {
+					column.forEachValue((mirror) -> {
+						consumer.accept(mirror);
+						return true;
+					});
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private static MirrorChunkContainer getLoaded(World world, int chunkX, int chunkZ) {
+		Chunk c = world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+		if (c != null && c.hasCapability(CharsetPowerSteam.mirrorContainerCap, null)) {
+			MirrorChunkContainer box = c.getCapability(CharsetPowerSteam.mirrorContainerCap, null);
+			return box != null && box.mirrorCount > 0 ? box : null;
+		}
+
+		return null;
+	}
+
 	public static IMirror getHighestMirror(World world, BlockPos pos) {
 		Chunk c = world.getChunk(pos);
 		if (c != null && c.hasCapability(CharsetPowerSteam.mirrorContainerCap, null)) {
@@ -136,31 +197,39 @@ public class MirrorChunkContainer {
 		}
 	}
 
+	/**
+	 * Visits every mirror whose search area could contain the given position.
+	 */
 	public static void forEach(World world, BlockPos pos, Consumer<IMirror> consumer) {
-		int chunkX = pos.getX() >> 4;
-		int chunkZ = pos.getZ() >> 4;
-		for (int ix = chunkX - 1; ix <= chunkX + 1; ix++) {
-			for (int iz = chunkZ - 1; iz <= chunkZ + 1; iz++) {
-				Chunk c = world.getChunk(ix, iz);
-				if (c != null && c.hasCapability(CharsetPowerSteam.mirrorContainerCap, null)) {
-					MirrorChunkContainer box = c.getCapability(CharsetPowerSteam.mirrorContainerCap, null);
-					for (Collection<IMirror> collection : box.mirrorsByHeight.valueCollection()) {
-						collection.forEach(consumer);
-					}
+		int minX = pos.getX() - TileMirror.SEARCH_DISTANCE, maxX = pos.getX() + TileMirror.SEARCH_DISTANCE;
+		int minZ = pos.getZ() - TileMirror.SEARCH_DISTANCE, maxZ = pos.getZ() + TileMirror.SEARCH_DISTANCE;
+		for (int ix = minX >> 4; ix <= maxX >> 4; ix++) {
+			for (int iz = minZ >> 4; iz <= maxZ >> 4; iz++) {
+				MirrorChunkContainer box = getLoaded(world, ix, iz);
+				if (box != null) {
+					box.forEachInRange(minX, minZ, maxX, maxZ, consumer);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Visits every mirror whose search rays could pass through the given position.
+	 * Mirrors only search along their own height.
+	 */
 	public static void forEachListening(World world, BlockPos pos, Consumer<IMirror> consumer) {
-		int chunkX = pos.getX() >> 4;
-		int chunkZ = pos.getZ() >> 4;
-		for (int ix = chunkX - 1; ix <= chunkX + 1; ix++) {
-			for (int iz = chunkZ - 1; iz <= chunkZ + 1; iz++) {
-				Chunk c = world.getChunk(ix, iz);
-				if (c != null && c.hasCapability(CharsetPowerSteam.mirrorContainerCap, null)) {
-					MirrorChunkContainer box = c.getCapability(CharsetPowerSteam.mirrorContainerCap, null);
-					box.getMirrors(pos).forEach(consumer);
+		int minX = pos.getX() - TileMirror.SEARCH_DISTANCE, maxX = pos.getX() + TileMirror.SEARCH_DISTANCE;
+		int minZ = pos.getZ() - TileMirror.SEARCH_DISTANCE, maxZ = pos.getZ() + TileMirror.SEARCH_DISTANCE;
+		for (int ix = minX >> 4; ix <= maxX >> 4; ix++) {
+			for (int iz = minZ >> 4; iz <= maxZ >> 4; iz++) {
+				MirrorChunkContainer box = getLoaded(world, ix, iz);
+				if (box != null) {
+					for (IMirror mirror : box.getMirrors(pos)) {
+						BlockPos mirrorPos = mirror.getMirrorPos();
+						if (mirrorPos.getX() >= minX && mirrorPos.getX() <= maxX && mirrorPos.getZ() >= minZ && mirrorPos.getZ() <= maxZ) {
+							consumer.accept(mirror);
+						}
+					}
 				}
 			}
 		}
@@ -30,8 +30,12 @@ import java.util.LinkedList;
 import java.util.List;
 
 public class SteamChunkContainer implements ITickable {
+	// particles do not live this long, so there is no point in simulating more
+	private static final int MAX_CATCH_UP_TICKS = 1200;
+
 	private final Chunk c;
 	private final List<SteamParticle> particleList = new LinkedList<>();
+	private int catchUpTicks;
 
 	public SteamChunkContainer(Chunk c) {
 		this.c = c;
@@ -49,8 +53,31 @@ public class SteamChunkContainer implements ITickable {
 		}
 	}
 
+	/**
+	 * Sets the number of ticks the restored particles missed while this chunk
+	 * was unloaded; they are simulated in one batch on the next update.
+	 */
+	void setCatchUpTicks(long ticks) {
+		catchUpTicks = (int) Math.max(0, Math.min(ticks, MAX_CATCH_UP_TICKS));
+	}
+
+	private void catchUp() {
+		for (SteamParticle particle : particleList) {
+			// Stop early rather than load chunks along the particle's path.
+			for (int i = 0; i < catchUpTicks && !particle.isInvalid() && particle.isNextPositionLoaded(); i++) {
+				particle.update();
+			}
+		}
+
+		catchUpTicks = 0;
+	}
+
 	@Override
 	public void update() {
+		if (catchUpTicks > 0) {
+			catchUp();
+		}
+
 		Iterator<SteamParticle> iterator = particleList.iterator();
 		while (iterator.hasNext()) {
 			SteamParticle particle = iterator.next();
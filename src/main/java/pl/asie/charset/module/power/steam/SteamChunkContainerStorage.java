@@ -21,23 +21,51 @@ package pl.asie.charset.module.power.steam;
 
 import net.minecraft.nbt.NBTBase;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.Constants;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 public class SteamChunkContainerStorage implements Capability.IStorage<SteamChunkContainer> {
+	// x, y, z (relative to the chunk), motion x, y, z, lifetime, value
+	private static final int INTS_PER_PARTICLE = 8;
+
 	@Nullable
 	@Override
 	public NBTBase writeNBT(Capability<SteamChunkContainer> capability, SteamChunkContainer instance, EnumFacing side) {
 		NBTTagCompound cpd = new NBTTagCompound();
-		NBTTagList list = new NBTTagList();
+		Chunk chunk = instance.getChunk();
+		double xOffset = chunk.x << 4;
+		double zOffset = chunk.z << 4;
+
+		int count = 0;
+		int[] data = new int[instance.getParticles().size() * INTS_PER_PARTICLE];
 		for (SteamParticle particle : instance.getParticles()) {
-			list.appendTag(particle.serializeNBT());
+			if (particle.isInvalid()) {
+				continue;
+			}
+
+			int i = count++ * INTS_PER_PARTICLE;
+			data[i] = Float.floatToRawIntBits((float) (particle.x - xOffset));
+			data[i + 1] = Float.floatToRawIntBits((float) particle.y);
+			data[i + 2] = Float.floatToRawIntBits((float) (particle.z - zOffset));
+			data[i + 3] = Float.floatToRawIntBits((float) particle.xMotion);
+			data[i + 4] = Float.floatToRawIntBits((float) particle.yMotion);
+			data[i + 5] = Float.floatToRawIntBits((float) particle.zMotion);
+			data[i + 6] = particle.lifetime;
+			data[i + 7] = particle.value;
+		}
+
+		if (count > 0) {
+			cpd.setIntArray("particles", count * INTS_PER_PARTICLE == data.length ? data : Arrays.copyOf(data, count * INTS_PER_PARTICLE));
+			if (chunk.getWorld() != null) {
+				cpd.setLong("time", chunk.getWorld().getTotalWorldTime());
+			}
 		}
-		cpd.setTag("particles", list);
 		return cpd;
 	}
 
@@ -45,13 +73,31 @@ public class SteamChunkContainerStorage implements Capability.IStorage<SteamChun
 	public void readNBT(Capability<SteamChunkContainer> capability, SteamChunkContainer instance, EnumFacing side, NBTBase nbt) {
 		if (instance.getChunk() != null && instance.getChunk().getWorld() != null && nbt instanceof NBTTagCompound) {
 			NBTTagCompound cpd = (NBTTagCompound) nbt;
-			if (cpd.hasKey("particles", Constants.NBT.TAG_LIST)) {
-				NBTTagList list = cpd.getTagList("particles", Constants.NBT.TAG_COMPOUND);
-				instance.getParticles().clear();
-				for (int i = 0; i < list.tagCount(); i++) {
-					SteamParticle p = new SteamParticle(instance.getChunk().getWorld());
-					p.deserializeNBT(list.getCompoundTagAt(i));
-					instance.getParticles().add(p);
+			Chunk chunk = instance.getChunk();
+			World world = chunk.getWorld();
+			double xOffset = chunk.x << 4;
+			double zOffset = chunk.z << 4;
+
+			instance.getParticles().clear();
+			if (cpd.hasKey("particles", Constants.NBT.TAG_INT_ARRAY)) {
+				int[] data = cpd.getIntArray("particles");
+				for (int i = 0; i + INTS_PER_PARTICLE <= data.length; i += INTS_PER_PARTICLE) {
+					instance.getParticles().add(new SteamParticle(
+							world,
+							Float.intBitsToFloat(data[i]) + xOffset,
+							Float.intBitsToFloat(data[i + 1]),
+							Float.intBitsToFloat(data[i + 2]) + zOffset,
+							Float.intBitsToFloat(data[i + 3]),
+							Float.intBitsToFloat(data[i + 4]),
+							Float.intBitsToFloat(data[i + 5]),
+							data[i + 6],
+							data[i + 7]
+					));
+				}
+
+				if (cpd.hasKey("time", Constants.NBT.TAG_LONG)) {
+					long elapsed = world.getTotalWorldTime() - cpd.getLong("time");
+					instance.setCatchUpTicks(elapsed);
 				}
 			}
 		}
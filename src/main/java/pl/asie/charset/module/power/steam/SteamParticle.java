@@ -74,6 +74,10 @@ public class SteamParticle implements ISteamParticle {
 		return invalid;
 	}
 
+	boolean isNextPositionLoaded() {
+		return world.isBlockLoaded(new BlockPos(x + xMotion, y + yMotion, z + zMotion));
+	}
+
 	@Override
 	public void update() {
 		if (invalid || lifetime <= 0) {
@@ -113,6 +117,7 @@ public class SteamParticle implements ISteamParticle {
 		compound.setFloat("ym", (float) yMotion);
 		compound.setFloat("zm", (float) zMotion);
 		compound.setInteger("life", lifetime);
+		compound.setInteger("value", value);
 		return compound;
 	}
 
@@ -121,9 +126,10 @@ public class SteamParticle implements ISteamParticle {
 		x = nbt.getDouble("x");
 		y = nbt.getDouble("y");
 		z = nbt.getDouble("z");
-		xMotion = nbt.getDouble("xM");
-		yMotion = nbt.getDouble("yM");
-		zMotion = nbt.getDouble("zM");
+		xMotion = nbt.getFloat("xm");
+		yMotion = nbt.getFloat("ym");
+		zMotion = nbt.getFloat("zm");
 		lifetime = nbt.getInteger("life");
+		value = nbt.getInteger("value");
 	}
 }
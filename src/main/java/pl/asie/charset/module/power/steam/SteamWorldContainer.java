@@ -23,17 +23,53 @@ import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class SteamWorldContainer {
+	// rechecks sky access and rain for every mirror, as those are not pushed
+	private static final int MIRROR_RECHECK_INTERVAL = 20;
+
 	private TLongObjectMap<SteamChunkContainer> containers = new TLongObjectHashMap<>();
+	private final Set<TileMirror> mirrors = new LinkedHashSet<>();
+	private boolean lastSunUp, lastRaining;
 
 	public void onChunkLoaded(Chunk c) {
 		containers.put(ChunkPos.asLong(c.x, c.z), c.getCapability(CharsetPowerSteam.steamContainerCap, null));
 	}
 
+	public void addMirror(TileMirror mirror) {
+		mirrors.add(mirror);
+	}
+
+	public void removeMirror(TileMirror mirror) {
+		mirrors.remove(mirror);
+	}
+
+	/**
+	 * Re-evaluates the sun status of all loaded mirrors in one pass, when the
+	 * world's sun or weather conditions change.
+	 */
+	public void updateMirrors(World world) {
+		if (mirrors.isEmpty()) {
+			return;
+		}
+
+		boolean sunUp = TileMirror.isSunUp(world);
+		boolean raining = world.isRaining();
+		if (sunUp != lastSunUp || raining != lastRaining || (world.getTotalWorldTime() % MIRROR_RECHECK_INTERVAL) == 0) {
+			lastSunUp = sunUp;
+			lastRaining = raining;
+			for (TileMirror mirror : mirrors) {
+				mirror.updateSunStatus(sunUp);
+			}
+		}
+	}
+
 	public void onChunkUnloaded(Chunk c) {
 		containers.remove(ChunkPos.asLong(c.x, c.z));
 	}
@@ -34,6 +34,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.World;
 import net.minecraftforge.common.util.Constants;
 import pl.asie.charset.lib.block.TileBase;
 import pl.asie.charset.lib.material.ItemMaterial;
@@ -56,6 +57,7 @@ public class TileMirror extends TileBase implements IMirror {
 
 	private ItemMaterial material = ItemMaterialRegistry.INSTANCE.getOrCreateMaterial(new ItemStack(Blocks.IRON_BLOCK));
 	private BlockPos targetPos = null;
+	private boolean active;
 
 	public ItemMaterial getMaterial() {
 		return material;
@@ -79,6 +81,8 @@ public class TileMirror extends TileBase implements IMirror {
 	public void onLoad() {
 		super.onLoad();
 		MirrorChunkContainer.registerMirror(world, this);
+		Objects.requireNonNull(world.getCapability(CharsetPowerSteam.steamWorldCap, null)).addMirror(this);
+		updateSunStatus(isSunUp(world));
 		requestMirrorTargetRefresh();
 	}
 
@@ -89,11 +93,51 @@ public class TileMirror extends TileBase implements IMirror {
 			// chunk /unloading/ removes the container as well
 			MirrorChunkContainer.unregisterMirror(world, this);
 		}
+
+		Objects.requireNonNull(world.getCapability(CharsetPowerSteam.steamWorldCap, null)).removeMirror(this);
+		if (!world.isRemote) {
+			IMirrorTarget target = getTarget(targetPos);
+			if (target != null) {
+				target.unregisterMirror(this);
+			}
+		}
 	}
 
 	@Override
 	public boolean isMirrorActive() {
-		return isMirrorValid() && hasSun();
+		return active && isMirrorValid();
+	}
+
+	static boolean isSunUp(World world) {
+		return world.getSunBrightnessFactor(0) > 0.7;
+	}
+
+	/**
+	 * Recomputes whether this mirror is lit, pushing any change to its target.
+	 */
+	void updateSunStatus(boolean sunUp) {
+		boolean newActive = isMirrorValid() && hasSun(sunUp);
+		if (active != newActive) {
+			active = newActive;
+			if (!world.isRemote) {
+				IMirrorTarget target = getTarget(targetPos);
+				if (target != null) {
+					target.onMirrorChanged(this);
+				}
+			}
+		}
+	}
+
+	@Nullable
+	private IMirrorTarget getTarget(@Nullable BlockPos pos) {
+		if (pos != null && world.isBlockLoaded(pos)) {
+			TileEntity tile = world.getTileEntity(pos);
+			if (tile != null && tile.hasCapability(CharsetPowerSteam.MIRROR_TARGET, null)) {
+				return tile.getCapability(CharsetPowerSteam.MIRROR_TARGET, null);
+			}
+		}
+
+		return null;
 	}
 
 	protected boolean canSearchForTarget() {
@@ -102,10 +146,10 @@ public class TileMirror extends TileBase implements IMirror {
 		return true;
 	}
 
-	protected boolean hasSun() {
+	protected boolean hasSun(boolean sunUp) {
+		if (!sunUp) return false;
 		if (!canSearchForTarget()) return false;
-		if (world.isRainingAt(pos)) return false;
-		return world.getSunBrightnessFactor(0) > 0.7;
+		return !world.isRainingAt(pos);
 	}
 
 	protected boolean hasTargetChanged(BlockPos oldTargetPos) {
@@ -117,6 +161,8 @@ public class TileMirror extends TileBase implements IMirror {
 		double targetDistance = Double.MAX_VALUE;
 		TileEntity target = null;
 
+		updateSunStatus(isSunUp(world));
+
 		if (!isInvalid() && canSearchForTarget()) {
 			for (int direction = 0; direction < 4; direction++) {
 				for (int i = 0; i < SEARCH_DISTANCE * 2; i++) {
@@ -178,11 +224,9 @@ public class TileMirror extends TileBase implements IMirror {
 		}
 
 		if (hasTargetChanged(oldTargetPos)) {
-			if (oldTargetPos != null) {
-				TileEntity oldTarget = world.getTileEntity(oldTargetPos);
-				if (oldTarget != null && oldTarget.hasCapability(CharsetPowerSteam.MIRROR_TARGET, null)) {
-					Objects.requireNonNull(oldTarget.getCapability(CharsetPowerSteam.MIRROR_TARGET, null)).unregisterMirror(this);
-				}
+			IMirrorTarget oldTarget = getTarget(oldTargetPos);
+			if (oldTarget != null) {
+				oldTarget.unregisterMirror(this);
 			}
 
 			if (target != null) {
@@ -19,6 +19,8 @@
 
 package pl.asie.charset.module.power.steam;
 
+import it.unimi.dsi.fastutil.objects.Object2FloatMap;
+import it.unimi.dsi.fastutil.objects.Object2FloatOpenHashMap;
 import net.minecraft.util.EnumFacing;
 import net.minecraftforge.common.capabilities.Capability;
 import pl.asie.charset.lib.block.TileBase;
@@ -26,11 +28,19 @@ import pl.asie.charset.module.power.steam.api.IMirror;
 import pl.asie.charset.module.power.steam.api.IMirrorTarget;
 
 import javax.annotation.Nullable;
-import java.util.HashSet;
-import java.util.Set;
 
 public abstract class TileMirrorTargetBase extends TileBase implements IMirrorTarget {
-    protected final Set<IMirror> mirrors = new HashSet<>();
+    // each registered mirror's last known contribution, and their running sum
+    protected final Object2FloatMap<IMirror> mirrors = new Object2FloatOpenHashMap<>();
+    private float mirrorStrength;
+
+    private static float getContribution(IMirror mirror) {
+        return mirror.isMirrorActive() ? mirror.getMirrorStrength() : 0;
+    }
+
+    protected float getTotalMirrorStrength() {
+        return mirrorStrength;
+    }
 
     @Override
     public boolean hasCapability(Capability<?> capability, @Nullable EnumFacing facing) {
@@ -54,17 +64,35 @@ public abstract class TileMirrorTargetBase extends TileBase implements IMirrorTa
     public void invalidate(InvalidationType type) {
         super.invalidate(type);
         if (type == InvalidationType.REMOVAL) {
-            mirrors.forEach(IMirror::requestMirrorTargetRefresh);
+            mirrors.keySet().forEach(IMirror::requestMirrorTargetRefresh);
         }
     }
 
     @Override
     public void registerMirror(IMirror mirror) {
-        mirrors.add(mirror);
+        float contribution = getContribution(mirror);
+        if (mirrors.containsKey(mirror)) {
+            mirrorStrength -= mirrors.getFloat(mirror);
+        }
+        mirrors.put(mirror, contribution);
+        mirrorStrength += contribution;
     }
 
     @Override
     public void unregisterMirror(IMirror mirror) {
-        mirrors.remove(mirror);
+        if (mirrors.containsKey(mirror)) {
+            mirrorStrength -= mirrors.removeFloat(mirror);
+            if (mirrors.isEmpty()) {
+                // do not let rounding errors accumulate
+                mirrorStrength = 0;
+            }
+        }
+    }
+
+    @Override
+    public void onMirrorChanged(IMirror mirror) {
+        if (mirrors.containsKey(mirror)) {
+            registerMirror(mirror);
+        }
     }
 }
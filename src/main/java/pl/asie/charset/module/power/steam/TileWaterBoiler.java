@@ -37,7 +37,6 @@ import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.fluids.capability.templates.FluidHandlerConcatenate;
 import net.minecraftforge.fluids.capability.templates.FluidHandlerFluidMap;
 import pl.asie.charset.lib.block.TileBase;
-import pl.asie.charset.module.power.steam.api.IMirror;
 import pl.asie.charset.module.power.steam.api.IMirrorTarget;
 
 import javax.annotation.Nullable;
@@ -62,7 +61,7 @@ public class TileWaterBoiler extends TileMirrorTargetBase implements ITickable {
 	}
 
 	float getReflectorStrength() {
-		return mirrors.stream().filter(IMirror::isMirrorActive).map(IMirror::getMirrorStrength).reduce(0f, (a, b) -> a + b);
+		return getTotalMirrorStrength();
 	}
 
 	int getHeat() {
@@ -22,4 +22,11 @@ package pl.asie.charset.module.power.steam.api;
 public interface IMirrorTarget {
 	void registerMirror(IMirror mirror);
 	void unregisterMirror(IMirror mirror);
+
+	/**
+	 * Called by a registered mirror when its activity or strength changes.
+	 */
+	default void onMirrorChanged(IMirror mirror) {
+
+	}
 }
@@ -40,6 +40,7 @@ import pl.asie.charset.lib.utils.RenderUtils;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Field;
+import java.util.Collection;
 
 public class BarrelModel extends ModelFactory<BarrelCacheInfo> {
     public static final BarrelModel INSTANCE = new BarrelModel();
@@ -137,4 +138,22 @@ public class BarrelModel extends ModelFactory<BarrelCacheInfo> {
     public BarrelCacheInfo fromItemStack(ItemStack stack) {
         return BarrelCacheInfo.from(stack);
     }
+
+    @Override
+    protected Collection<BarrelCacheInfo> getPrewarmObjects() {
+        return fromItemStacks(CharsetStorageBarrels.BARRELS_NORMAL);
+    }
+
+    @Override
+    protected String getPersistentKey(BarrelCacheInfo info, @Nullable BlockRenderLayer layer) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(info.log.getIconName()).append(',').append(info.plank.getIconName());
+        builder.append(',').append(info.orientation.name()).append(',').append(info.isMetal);
+        for (BarrelUpgrade upgrade : BarrelUpgrade.values()) {
+            if (info.upgrades.contains(upgrade)) {
+                builder.append(',').append(upgrade.name());
+            }
+        }
+        return builder.toString();
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.storage.barrels;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Coalesces barrel count changes so that each barrel is synced to clients
+ * at most once per tick, with all changed barrels in a chunk sharing a
+ * single packet.
+ */
+public class BarrelSyncHandler {
+	public static final BarrelSyncHandler INSTANCE = new BarrelSyncHandler();
+	private final Map<World, Set<TileEntityDayBarrel>> dirtyBarrels = new WeakHashMap<>();
+
+	private BarrelSyncHandler() {
+
+	}
+
+	public void markDirty(TileEntityDayBarrel barrel) {
+		dirtyBarrels.computeIfAbsent(barrel.getWorld(), k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(barrel);
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		dirtyBarrels.remove(event.getWorld());
+	}
+
+	@SubscribeEvent
+	public void onWorldTick(TickEvent.WorldTickEvent event) {
+		if (event.phase != TickEvent.Phase.END || event.side != Side.SERVER) {
+			return;
+		}
+
+		Set<TileEntityDayBarrel> barrels = dirtyBarrels.get(event.world);
+		if (barrels == null || barrels.isEmpty()) {
+			return;
+		}
+
+		TLongObjectMap<List<TileEntityDayBarrel>> barrelsByChunk = new TLongObjectHashMap<>();
+		for (TileEntityDayBarrel barrel : barrels) {
+			if (barrel.isInvalid() || barrel.getWorld() != event.world) {
+				continue;
+			}
+
+			int result = barrel.flushCount();
+			if (result == TileEntityDayBarrel.COUNT_UPDATE_PACKET) {
+				long key = ChunkPos.asLong(barrel.getPos().getX() >> 4, barrel.getPos().getZ() >> 4);
+				List<TileEntityDayBarrel> list = barrelsByChunk.get(key);
+				if (list == null) {
+					list = new ArrayList<>();
+					barrelsByChunk.put(key, list);
+				}
+				list.add(barrel);
+			}
+		}
+		barrels.clear();
+
+		if (!barrelsByChunk.isEmpty()) {
+			int dim = event.world.provider.getDimension();
+			barrelsByChunk.forEachValue((list) -> {
+				CharsetStorageBarrels.packet.sendToWatching(new PacketBarrelCountUpdate(dim, list), list.get(0));
+				return true;
+			});
+		}
+	}
+}
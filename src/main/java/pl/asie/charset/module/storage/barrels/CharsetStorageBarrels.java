@@ -34,6 +34,7 @@ import net.minecraftforge.client.event.ColorHandlerEvent;
 import net.minecraftforge.client.event.ModelBakeEvent;
 import net.minecraftforge.client.event.ModelRegistryEvent;
 import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.config.Configuration;
 import net.minecraftforge.event.RegistryEvent;
 import net.minecraftforge.fml.client.registry.ClientRegistry;
@@ -148,6 +149,7 @@ public class CharsetStorageBarrels {
 		RegistryUtils.register(EntityMinecartDayBarrel.class, "barrelCart", 80, 3, true);
 
 		packet.registerPacket(0x01, PacketBarrelCountUpdate.class);
+		MinecraftForge.EVENT_BUS.register(BarrelSyncHandler.INSTANCE);
 		FMLInterModComms.sendMessage("charset", "addCarry", barrelBlock.getRegistryName());
 	}
 
@@ -19,40 +19,75 @@
 
 package pl.asie.charset.module.storage.barrels;
 
-import io.netty.buffer.ByteBuf;
 import net.minecraft.network.INetHandler;
 import net.minecraft.network.PacketBuffer;
-import pl.asie.charset.lib.network.PacketTile;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import pl.asie.charset.lib.network.Packet;
 
-public class PacketBarrelCountUpdate extends PacketTile {
-	protected int count;
+import java.util.Collection;
+
+/**
+ * Carries the item counts of every barrel in a single chunk which changed
+ * during the last tick.
+ */
+public class PacketBarrelCountUpdate extends Packet {
+	private int dim;
+	private long[] positions;
+	private int[] counts;
 
 	public PacketBarrelCountUpdate() {
-		super();
+
 	}
 
-	public PacketBarrelCountUpdate(TileEntityDayBarrel tile) {
-		super(tile);
-		count = tile.getItemCount();
+	public PacketBarrelCountUpdate(int dim, Collection<TileEntityDayBarrel> barrels) {
+		this.dim = dim;
+		this.positions = new long[barrels.size()];
+		this.counts = new int[barrels.size()];
+
+		int i = 0;
+		for (TileEntityDayBarrel barrel : barrels) {
+			positions[i] = barrel.getPos().toLong();
+			counts[i] = barrel.getItemCount();
+			i++;
+		}
 	}
 
 	@Override
 	public void writeData(PacketBuffer buf) {
-		super.writeData(buf);
-		buf.writeInt(count);
+		buf.writeInt(dim);
+		buf.writeVarInt(positions.length);
+		for (int i = 0; i < positions.length; i++) {
+			buf.writeLong(positions[i]);
+			buf.writeVarInt(counts[i]);
+		}
 	}
 
 	@Override
 	public void readData(INetHandler handler, PacketBuffer buf) {
-		super.readData(handler, buf);
-		count = buf.readInt();
+		dim = buf.readInt();
+		int size = buf.readVarInt();
+		positions = new long[size];
+		counts = new int[size];
+		for (int i = 0; i < size; i++) {
+			positions[i] = buf.readLong();
+			counts[i] = buf.readVarInt();
+		}
 	}
 
 	@Override
 	public void apply(INetHandler handler) {
-		super.apply(handler);
-		if (tile instanceof TileEntityDayBarrel) {
-			((TileEntityDayBarrel) tile).onCountUpdate(this);
+		World w = getWorld(handler, dim);
+		if (w == null) {
+			return;
+		}
+
+		for (int i = 0; i < positions.length; i++) {
+			TileEntity tile = w.getTileEntity(BlockPos.fromLong(positions[i]));
+			if (tile instanceof TileEntityDayBarrel) {
+				((TileEntityDayBarrel) tile).onCountUpdate(counts[i]);
+			}
 		}
 	}
 
@@ -223,6 +223,7 @@ public class TileEntityDayBarrel extends TileBase implements IBarrel, ICacheable
     private boolean updateRedstoneLevels;
     private int redstoneLevel;
     private int lastMentionedCount = -1;
+    private boolean countSyncQueued;
 
     public TileEntityDayBarrel() {
         woodLog = getLog(null);
@@ -707,13 +708,9 @@ public class TileEntityDayBarrel extends TileBase implements IBarrel, ICacheable
         return !getSilkedItem(is).isEmpty();
     }
 
-    void updateCountClients() {
-        CharsetStorageBarrels.packet.sendToWatching(new PacketBarrelCountUpdate(this), this);
-    }
-
-    protected void onCountUpdate(PacketBarrelCountUpdate packet) {
+    protected void onCountUpdate(int count) {
         ItemStack item = getItemUnsafe();
-        item.setCount(packet.count);
+        item.setCount(count);
     }
 
     //Inventory code
@@ -727,17 +724,45 @@ public class TileEntityDayBarrel extends TileBase implements IBarrel, ICacheable
         }
     }
 
+    static final int COUNT_UPDATE_NONE = 0;
+    static final int COUNT_UPDATE_BLOCK = 1;
+    static final int COUNT_UPDATE_PACKET = 2;
+
     void sync() {
+        if (world == null || world.isRemote || isEntity) {
+            return;
+        }
+
+        if (!countSyncQueued) {
+            countSyncQueued = true;
+            BarrelSyncHandler.INSTANCE.markDirty(this);
+        }
+    }
+
+    /**
+     * Called once per tick by {@link BarrelSyncHandler} for barrels which
+     * requested a sync.
+     *
+     * @return How the new count should be delivered to clients.
+     */
+    int flushCount() {
+        countSyncQueued = false;
+
         int c = getItemCount();
-        if (c != lastMentionedCount) {
-            if (lastMentionedCount * c <= 0) {
-                //One of them was 0
-                markBlockForUpdate();
-            } else {
-                updateCountClients();
-            }
-            lastMentionedCount = c;
+        if (c == lastMentionedCount) {
+            return COUNT_UPDATE_NONE;
+        }
+
+        int result;
+        if (lastMentionedCount * c <= 0) {
+            //One of them was 0
+            markBlockForUpdate();
+            result = COUNT_UPDATE_BLOCK;
+        } else {
+            result = COUNT_UPDATE_PACKET;
         }
+        lastMentionedCount = c;
+        return result;
     }
 
     @Override
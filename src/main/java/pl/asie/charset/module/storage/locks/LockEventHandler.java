@@ -137,6 +137,7 @@ public class LockEventHandler {
     }
 
     private static final ResourceLocation LOCKABLE = new ResourceLocation("charset:lockable");
+    private static final CharsetIMC.Rule LOCK_RULE = CharsetIMC.INSTANCE.getRule("lock");
 
     @SubscribeEvent
     public void onAttachCapabilities(AttachCapabilitiesEvent<TileEntity> event) {
@@ -145,7 +146,7 @@ public class LockEventHandler {
         if (location == null) // f.e. IC2 energy net internals
             return;
 
-        ThreeState state = CharsetIMC.INSTANCE.allows("lock", location);
+        ThreeState state = LOCK_RULE.allows(location);
         boolean hasCap = state == ThreeState.YES;
 
         if (state == ThreeState.MAYBE) {
@@ -64,6 +64,7 @@ public class CharsetTablet {
 	public static boolean allowRemoteLookups;
 
 	@Mod.EventHandler
+	@CharsetModule.ThreadSafe
 	public void onLoadConfig(CharsetLoadConfigEvent event) {
 		allowRemoteLookups = config.getBoolean("allowRemoteLookups", "general", true, "Should remote lookups be allowed?");;
 	}
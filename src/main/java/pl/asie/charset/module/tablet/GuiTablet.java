@@ -129,25 +129,19 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 	}
 
 	private void load(String text) {
-		typesetter = new ClientTypesetter(fontRenderer, pageWidth);
-		try {
-			typesetter.write(text);
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		typesetter = ClientTypesetter.getLayout(fontRenderer, pageWidth, text);
 
 		heightStart = 0;
 		heightPos = 0;
-		heightEnd = 10;
+		layout(pageHeight * 2);
+	}
 
-		for (int i = 0; i < typesetter.lines.size(); i++) {
-			ClientTypesetter.Line l = typesetter.lines.get(i);
-			heightEnd += l.height;
-			if (i > 0) {
-				heightEnd += l.paddingAbove;
-			}
+	private void layout(int height) {
+		if (!typesetter.isComplete()) {
+			typesetter.layoutUntil(height);
 		}
 
+		heightEnd = 10 + typesetter.getLayoutHeight();
 		heightEnd -= pageHeight;
 		heightEnd = heightEnd - (heightEnd % fontRenderer.FONT_HEIGHT+1);
 		if (heightEnd < 0) {
@@ -155,6 +149,14 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 		}
 	}
 
+	private void clampHeightPos() {
+		if (typesetter != null) {
+			// lay out at least the page being scrolled to
+			layout(heightPos + pageHeight * 2);
+		}
+		heightPos = Math.max(Math.min(heightEnd, heightPos), heightStart);
+	}
+
 	public void bindTexture(ResourceLocation texture) {
 		Minecraft.getMinecraft().renderEngine.bindTexture(texture);
 	}
@@ -172,6 +174,9 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 				currentFuture = null;
 				load("\\b{Error!} " + e.getMessage());
 			}
+		} else if (typesetter != null && !typesetter.isComplete()) {
+			// continue laying out the rest of the document in the background
+			layout(typesetter.getLayoutHeight() + pageHeight * 4);
 		}
 	}
 
@@ -220,6 +225,9 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 				heightPos = heightStart;
 				break;
 			case Keyboard.KEY_END:
+				if (typesetter != null) {
+					layout(Integer.MAX_VALUE);
+				}
 				heightPos = heightEnd;
 				break;
 			case Keyboard.KEY_PRIOR:
@@ -248,7 +256,7 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 				break;
 		}
 
-		heightPos = Math.max(Math.min(heightEnd, heightPos), heightStart);
+		clampHeightPos();
 	}
 
 	@Override
@@ -266,7 +274,7 @@ public class GuiTablet extends GuiScreen implements IPrintingContextMinecraft {
 				heightPos -= fontRenderer.FONT_HEIGHT+1;
 			}
 
-			heightPos = Math.max(Math.min(heightEnd, heightPos), heightStart);
+			clampHeightPos();
 		}
 
 		if (k == 0) {
@@ -22,6 +22,7 @@ package pl.asie.charset.module.tablet;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.inventory.GuiContainer;
+import net.minecraft.client.resources.IReloadableResourceManager;
 import net.minecraft.client.settings.KeyBinding;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityItemFrame;
@@ -42,6 +43,11 @@ import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.EntityRegistry;
 import org.lwjgl.input.Keyboard;
+import pl.asie.charset.module.tablet.format.ClientTypesetter;
+import pl.asie.charset.module.tablet.format.api.IRouter;
+import pl.asie.charset.module.tablet.format.api.IRouterSearchable;
+import pl.asie.charset.module.tablet.format.api.TabletAPI;
+import pl.asie.charset.module.tablet.format.routers.RouterSearch;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -62,6 +68,17 @@ public class ProxyClient extends ProxyCommon {
 	public void init() {
 		super.init();
 		ClientRegistry.registerKeyBinding(openInTablet = new KeyBinding("key.charset.open_in_tablet.desc", KeyConflictContext.GUI, KeyModifier.CONTROL, Keyboard.KEY_T, "key.charset.category"));
+
+		((IReloadableResourceManager) Minecraft.getMinecraft().getResourceManager()).registerReloadListener((manager) -> {
+			ClientTypesetter.clearCache();
+			for (IRouter router : TabletAPI.INSTANCE.getRouters()) {
+				if (router instanceof IRouterSearchable) {
+					((IRouterSearchable) router).invalidate();
+				} else if (router instanceof RouterSearch) {
+					((RouterSearch) router).invalidate();
+				}
+			}
+		});
 	}
 
 	public void hookHoverSupplier(Supplier<ItemStack> supplier) {
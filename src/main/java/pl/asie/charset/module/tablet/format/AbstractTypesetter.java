@@ -36,28 +36,32 @@ public abstract class AbstractTypesetter implements ITypesetter {
     public void write(String text) throws TruthError {
         if (Strings.isNullOrEmpty(text)) return;
         final Tokenizer tokenizer = new Tokenizer(text);
-        
+
         while (tokenizer.nextToken()) {
-            final String token = tokenizer.getToken();
-            if (token.isEmpty()) continue;
-            switch (tokenizer.getType()) {
-            default:
-                throw new TruthError("Unknown tokentype: " + tokenizer.getToken());
-            case WORD:
-                write(new WordText(token));
-                break;
-            case PARAMETER:
-                write(token);
-                break;
-            case COMMAND:
-                final String cmdName = token.toLowerCase(Locale.ROOT);
-                ICommand cmd = TabletAPI.INSTANCE.getCommand(cmdName);
-                if (cmd == null) {
-                    throw new TruthError("Unknown command: " + cmdName);
-                }
-                runCommand(cmd, tokenizer);
-                break;
+            writeToken(tokenizer);
+        }
+    }
+
+    protected void writeToken(ITokenCursor tokenizer) throws TruthError {
+        final String token = tokenizer.getToken();
+        if (token.isEmpty()) return;
+        switch (tokenizer.getType()) {
+        default:
+            throw new TruthError("Unknown tokentype: " + tokenizer.getToken());
+        case WORD:
+            write(new WordText(token));
+            break;
+        case PARAMETER:
+            write(token);
+            break;
+        case COMMAND:
+            final String cmdName = token.toLowerCase(Locale.ROOT);
+            ICommand cmd = TabletAPI.INSTANCE.getCommand(cmdName);
+            if (cmd == null) {
+                throw new TruthError("Unknown command: " + cmdName);
             }
+            runCommand(cmd, tokenizer);
+            break;
         }
     }
 
@@ -19,6 +19,8 @@
 
 package pl.asie.charset.module.tablet.format;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import net.minecraft.client.gui.FontRenderer;
@@ -80,10 +82,43 @@ public class ClientTypesetter extends AbstractTypesetter implements IPrintingCon
         }
     }
 
+    private static final class LayoutKey {
+        private final FontRenderer font;
+        private final int pageWidth;
+        private final String text;
+
+        LayoutKey(FontRenderer font, int pageWidth, String text) {
+            this.font = font;
+            this.pageWidth = pageWidth;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LayoutKey)) {
+                return false;
+            }
+
+            LayoutKey other = (LayoutKey) o;
+            return other.font == font && other.pageWidth == pageWidth && other.text.equals(text);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(font) * 31 + pageWidth) * 31 + text.hashCode();
+        }
+    }
+
+    private static final Cache<LayoutKey, ClientTypesetter> LAYOUTS = CacheBuilder.newBuilder()
+            .maximumSize(16)
+            .build();
+
     final FontRenderer font;
     final int pageWidth;
     final List<IStyle> styles;
     public final List<Line> lines;
+    private ITokenCursor pending;
+    private int completedHeight;
 
     public ClientTypesetter(FontRenderer font, int pageWidth) {
         super();
@@ -94,9 +129,72 @@ public class ClientTypesetter extends AbstractTypesetter implements IPrintingCon
         clear();
     }
 
+    /**
+     * Returns the (possibly only partially laid out) typesetter for a given
+     * document and page width, reusing a previous layout where possible.
+     */
+    public static ClientTypesetter getLayout(FontRenderer font, int pageWidth, String text) {
+        LayoutKey key = new LayoutKey(font, pageWidth, text);
+        ClientTypesetter typesetter = LAYOUTS.getIfPresent(key);
+        if (typesetter == null) {
+            typesetter = new ClientTypesetter(font, pageWidth);
+            typesetter.begin(TokenStream.get(text));
+            LAYOUTS.put(key, typesetter);
+        }
+        return typesetter;
+    }
+
+    public static void clearCache() {
+        LAYOUTS.invalidateAll();
+        TokenStream.clearCache();
+    }
+
     public void clear() {
         this.lines.clear();
         this.lines.add(new Line());
+        this.styles.clear();
+        this.pending = null;
+        this.completedHeight = 0;
+    }
+
+    /**
+     * Starts a lazy layout of the given document. Nothing is typeset until
+     * {@link #layoutUntil(int)} is called.
+     */
+    public void begin(TokenStream stream) {
+        clear();
+        pending = stream.cursor();
+    }
+
+    public boolean isComplete() {
+        return pending == null;
+    }
+
+    /**
+     * @return The height of all lines laid out so far, including padding.
+     */
+    public int getLayoutHeight() {
+        Line last = lines.get(lines.size() - 1);
+        return completedHeight + last.height + (lines.size() > 1 ? last.paddingAbove : 0);
+    }
+
+    /**
+     * Continues the layout until at least the given height is covered, or
+     * the document ends.
+     */
+    public void layoutUntil(int height) {
+        try {
+            while (pending != null && getLayoutHeight() < height) {
+                if (pending.nextToken()) {
+                    writeToken(pending);
+                } else {
+                    pending = null;
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            pending = null;
+        }
     }
 
     @Override
@@ -131,7 +229,9 @@ public class ClientTypesetter extends AbstractTypesetter implements IPrintingCon
 
     @Override
     public void write(Word w) {
-        if (!lines.get(lines.size() - 1).add(w, false)) {
+        Line last = lines.get(lines.size() - 1);
+        if (!last.add(w, false)) {
+            completedHeight += last.height + (lines.size() > 1 ? last.paddingAbove : 0);
             Line line = new Line();
             lines.add(line);
             line.add(w, true);
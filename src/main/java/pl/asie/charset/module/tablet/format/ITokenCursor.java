@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import pl.asie.charset.module.tablet.format.api.TruthError;
+
+/**
+ * A position in a stream of tokens which can be stepped through, one token
+ * at a time, by a typesetter.
+ */
+public interface ITokenCursor extends ITokenizer {
+    boolean nextToken();
+    void prevToken();
+    String getToken();
+    Tokenizer.TokenType getType();
+
+    @Override
+    default String getParameter(String info) throws TruthError {
+        if (!nextToken()) {
+            throw new TruthError("EOF while reading parameter: " + info);
+        }
+        if (getType() != Tokenizer.TokenType.PARAMETER) {
+            throw new TruthError("Expected parameter, not " + getType() + ": " + info);
+        }
+        return getToken();
+    }
+
+    @Override
+    default String getOptionalParameter() {
+        if (!nextToken()) return null;
+        if (getType() != Tokenizer.TokenType.PARAMETER) {
+            prevToken();
+            return null;
+        }
+        return getToken();
+    }
+}
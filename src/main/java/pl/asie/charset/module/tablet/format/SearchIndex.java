@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import gnu.trove.map.TIntFloatMap;
+import gnu.trove.map.hash.TIntFloatHashMap;
+
+import java.util.*;
+
+/**
+ * A small in-memory inverted index, mapping lowercased terms to the
+ * documents containing them. Queries are ranked by the summed weight of
+ * their terms; every query term has to match, either exactly or as a
+ * prefix of an indexed term.
+ */
+public class SearchIndex<T> {
+	private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+	public static class Builder<T> {
+		private final List<T> documents = new ArrayList<>();
+		private final Map<String, TIntFloatMap> postings = new HashMap<>();
+
+		public int addDocument(T document) {
+			documents.add(document);
+			return documents.size() - 1;
+		}
+
+		public Builder<T> addText(int document, String text, float weight) {
+			for (String term : tokenize(text)) {
+				postings.computeIfAbsent(term, (k) -> new TIntFloatHashMap()).adjustOrPutValue(document, weight, weight);
+			}
+			return this;
+		}
+
+		public SearchIndex<T> build() {
+			String[] terms = postings.keySet().toArray(new String[0]);
+			Arrays.sort(terms);
+
+			int[][] docs = new int[terms.length][];
+			float[][] weights = new float[terms.length][];
+			for (int i = 0; i < terms.length; i++) {
+				TIntFloatMap map = postings.get(terms[i]);
+				docs[i] = map.keys();
+				Arrays.sort(docs[i]);
+				weights[i] = new float[docs[i].length];
+				for (int j = 0; j < docs[i].length; j++) {
+					weights[i][j] = map.get(docs[i][j]);
+				}
+			}
+
+			return new SearchIndex<>(new ArrayList<>(documents), terms, docs, weights);
+		}
+	}
+
+	private final List<T> documents;
+	private final String[] terms;
+	private final int[][] postingDocs;
+	private final float[][] postingWeights;
+
+	private SearchIndex(List<T> documents, String[] terms, int[][] postingDocs, float[][] postingWeights) {
+		this.documents = documents;
+		this.terms = terms;
+		this.postingDocs = postingDocs;
+		this.postingWeights = postingWeights;
+	}
+
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (letter && start < 0) {
+				start = i;
+			} else if (!letter && start >= 0) {
+				tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	public int getTermCount() {
+		return terms.length;
+	}
+
+	public int getDocumentCount() {
+		return documents.size();
+	}
+
+	public List<T> find(String query) {
+		List<String> queryTerms = tokenize(query);
+		if (queryTerms.isEmpty() || documents.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		float[] scores = null;
+		for (String queryTerm : queryTerms) {
+			float[] termScores = new float[documents.size()];
+			int i = Arrays.binarySearch(terms, queryTerm);
+			if (i < 0) {
+				i = -i - 1;
+			}
+
+			for (; i < terms.length && terms[i].startsWith(queryTerm); i++) {
+				float factor = terms[i].length() == queryTerm.length() ? 1.0f : PREFIX_MATCH_FACTOR;
+				int[] docs = postingDocs[i];
+				float[] weights = postingWeights[i];
+				for (int j = 0; j < docs.length; j++) {
+					termScores[docs[j]] += weights[j] * factor;
+				}
+			}
+
+			if (scores == null) {
+				scores = termScores;
+			} else {
+				for (int j = 0; j < scores.length; j++) {
+					scores[j] = termScores[j] > 0 ? scores[j] + termScores[j] : 0;
+				}
+			}
+		}
+
+		List<Integer> matches = new ArrayList<>();
+		for (int j = 0; j < scores.length; j++) {
+			if (scores[j] > 0) {
+				matches.add(j);
+			}
+		}
+
+		final float[] scoresF = scores;
+		matches.sort((a, b) -> {
+			int c = Float.compare(scoresF[b], scoresF[a]);
+			return c != 0 ? c : Integer.compare(a, b);
+		});
+
+		List<T> results = new ArrayList<>(matches.size());
+		for (int j : matches) {
+			results.add(documents.get(j));
+		}
+		return results;
+	}
+}
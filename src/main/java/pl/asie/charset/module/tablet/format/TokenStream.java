@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The fully tokenized form of a document. Streams for whole documents are
+ * cached, so that laying the same document out again (at another width, or
+ * after reopening it) skips the tokenizer.
+ */
+public final class TokenStream {
+    private static final Cache<String, TokenStream> CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(4 * 1024 * 1024)
+            .weigher((String key, TokenStream value) -> key.length())
+            .build();
+
+    private final Tokenizer.TokenType[] types;
+    private final String[] tokens;
+
+    private TokenStream(Tokenizer.TokenType[] types, String[] tokens) {
+        this.types = types;
+        this.tokens = tokens;
+    }
+
+    public static TokenStream tokenize(String text) {
+        List<Tokenizer.TokenType> types = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        Tokenizer tokenizer = new Tokenizer(text);
+        while (tokenizer.nextToken()) {
+            types.add(tokenizer.getType());
+            tokens.add(tokenizer.getToken());
+        }
+        return new TokenStream(types.toArray(new Tokenizer.TokenType[0]), tokens.toArray(new String[0]));
+    }
+
+    public static TokenStream get(String text) {
+        TokenStream stream = CACHE.getIfPresent(text);
+        if (stream == null) {
+            stream = tokenize(text);
+            CACHE.put(text, stream);
+        }
+        return stream;
+    }
+
+    public static void clearCache() {
+        CACHE.invalidateAll();
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    public ITokenCursor cursor() {
+        return new Cursor();
+    }
+
+    private class Cursor implements ITokenCursor {
+        private int pos = -1;
+        private int prevPos = -2;
+
+        @Override
+        public boolean nextToken() {
+            prevPos = pos;
+            if (pos + 1 >= tokens.length) {
+                return false;
+            }
+            pos++;
+            return true;
+        }
+
+        @Override
+        public void prevToken() {
+            if (prevPos == -2) throw new IllegalStateException("No previous token available");
+            pos = prevPos;
+            prevPos = -2;
+        }
+
+        @Override
+        public String getToken() {
+            return pos >= 0 ? tokens[pos] : "";
+        }
+
+        @Override
+        public Tokenizer.TokenType getType() {
+            return pos >= 0 ? types[pos] : null;
+        }
+    }
+}
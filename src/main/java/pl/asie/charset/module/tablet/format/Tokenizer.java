@@ -19,32 +19,9 @@
 
 package pl.asie.charset.module.tablet.format;
 
-import pl.asie.charset.module.tablet.format.api.TruthError;
-
 import static pl.asie.charset.module.tablet.format.Tokenizer.TokenType.*;
 
-public class Tokenizer implements ITokenizer {
-    @Override
-    public String getParameter(String info) throws TruthError {
-        if (!nextToken()) {
-            throw new TruthError("EOF while reading parameter: " + info);
-        }
-        if (type != Tokenizer.TokenType.PARAMETER) {
-            throw new TruthError("Expected parameter, not " + type + ": " + info);
-        }
-        return token;
-    }
-
-    @Override
-    public String getOptionalParameter() {
-        if (!nextToken()) return null;
-        if (type != Tokenizer.TokenType.PARAMETER) {
-            prevToken();
-            return null;
-        }
-        return token;
-    }
-
+public class Tokenizer implements ITokenCursor {
     public enum TokenType {
         WORD, COMMAND, PARAMETER
     }
@@ -66,14 +43,17 @@ public class Tokenizer implements ITokenizer {
     private int contigLines = 0;
     private int contigSpaces = 0;
 
+    @Override
     public String getToken() {
         return token;
     }
 
+    @Override
     public TokenType getType() {
         return type;
     }
 
+    @Override
     public boolean nextToken() {
         prevScan = scan;
         mainloop: while (true) {
@@ -120,6 +100,7 @@ public class Tokenizer implements ITokenizer {
         }
     }
 
+    @Override
     public void prevToken() {
         if (prevScan == -1) throw new IllegalStateException("No previous token available");
         scan = prevScan;
@@ -55,4 +55,12 @@ public interface IRouterSearchable extends IRouter {
 	}
 
 	void find(Collection<SearchResult> results, String query);
+
+	/**
+	 * Called after a resource reload. Routers which keep an index of their
+	 * documents should drop it here.
+	 */
+	default void invalidate() {
+
+	}
 }
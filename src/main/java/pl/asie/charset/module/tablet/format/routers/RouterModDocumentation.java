@@ -28,7 +28,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.text.translation.I18n;
 import net.minecraftforge.fml.common.Loader;
-import pl.asie.charset.module.tablet.format.api.IRouter;
+import pl.asie.charset.module.tablet.format.SearchIndex;
 import pl.asie.charset.module.tablet.format.api.IRouterSearchable;
 
 import javax.annotation.Nullable;
@@ -36,10 +36,12 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
-import java.util.Locale;
+import java.util.regex.Pattern;
 
 public class RouterModDocumentation implements IRouterSearchable {
+	private static final Pattern COMMAND_PATTERN = Pattern.compile("\\\\[A-Za-z]+");
 	private final String modid, friendlyName;
+	private volatile SearchIndex<SearchResult> index;
 
 	public RouterModDocumentation(String modid, String friendlyName) {
 		this.modid = modid;
@@ -77,23 +79,52 @@ public class RouterModDocumentation implements IRouterSearchable {
 	}
 
 	@Override
-	public void find(Collection<SearchResult> results, String query) {
+	public void invalidate() {
+		index = null;
+	}
+
+	private SearchIndex<SearchResult> getIndex() {
+		SearchIndex<SearchResult> index = this.index;
+		if (index == null) {
+			synchronized (this) {
+				index = this.index;
+				if (index == null) {
+					index = this.index = buildIndex();
+				}
+			}
+		}
+		return index;
+	}
+
+	private SearchIndex<SearchResult> buildIndex() {
+		SearchIndex.Builder<SearchResult> builder = new SearchIndex.Builder<>();
+
 		for (Item i : Item.REGISTRY) {
 			if (modid.equals(i.getRegistryName().getNamespace())) {
 				ResourceLocation loc = new ResourceLocation(modid, "doc/item/" + i.getRegistryName().getPath() + ".txt");
-				try (IResource resource = Minecraft.getMinecraft().getResourceManager().getResource(loc)) {
+				try (IResource resource = Minecraft.getMinecraft().getResourceManager().getResource(loc); InputStream stream = resource.getInputStream()) {
+					String text = new String(ByteStreams.toByteArray(stream), Charsets.UTF_8);
 					String name = I18n.translateToLocal(i.getTranslationKey() + ".name");
-					if (query.toLowerCase().contains(name.toLowerCase())) {
-						results.add(new SearchResult(
-								name,
-								friendlyName,
-								new URI("item://" + modid + "/" + i.getRegistryName().getPath())
-						));
-					}
+					int doc = builder.addDocument(new SearchResult(
+							name,
+							friendlyName,
+							new URI("item://" + modid + "/" + i.getRegistryName().getPath())
+					));
+
+					builder.addText(doc, name, 8.0f)
+							.addText(doc, i.getRegistryName().getPath(), 4.0f)
+							.addText(doc, COMMAND_PATTERN.matcher(text).replaceAll(" "), 1.0f);
 				} catch (Exception e) {
 					// Skip
 				}
 			}
 		}
+
+		return builder.build();
+	}
+
+	@Override
+	public void find(Collection<SearchResult> results, String query) {
+		results.addAll(getIndex().find(query));
 	}
 }
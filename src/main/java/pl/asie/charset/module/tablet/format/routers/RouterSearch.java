@@ -38,6 +38,10 @@ public class RouterSearch implements IRouter {
 			.expireAfterWrite(30, TimeUnit.MINUTES)
 			.build();
 
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
 	@Nullable
 	@Override
 	public String get(URI path) {
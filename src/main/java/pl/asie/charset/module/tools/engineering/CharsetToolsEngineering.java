@@ -81,12 +81,14 @@ public class CharsetToolsEngineering {
 	private static CapabilityProviderFactory<ISignalMeterTracker> meterTrackerProvider;
 
 	public static double maxSendDistance, maxRenderDistanceSq;
+	public static int minUpdateInterval;
 
 	@Mod.EventHandler
 	public void loadConfig(CharsetLoadConfigEvent event) {
 		double maxRenderDistance = ConfigUtils.getDouble(config, "signalMeter", "maxRenderDistance", 8, 0, 32, "The maximum render/synchronization distance for Signal Meter Data. Lower this value if the packet usage becomes too high.", false);
 		maxRenderDistanceSq = maxRenderDistance * maxRenderDistance;
 		maxSendDistance = maxRenderDistance >= 0.01 ? maxRenderDistance + 2 : 0;
+		minUpdateInterval = ConfigUtils.getInt(config, "signalMeter", "minUpdateInterval", 2, 1, 200, "The minimum amount of ticks between two Signal Meter Data updates for a given player. Data is only sent when it changes.", false);
 	}
 
 	@Mod.EventHandler
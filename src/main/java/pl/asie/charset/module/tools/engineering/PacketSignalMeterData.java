@@ -19,9 +19,10 @@
 
 package pl.asie.charset.module.tools.engineering;
 
-import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.Entity;
 import net.minecraft.network.INetHandler;
 import net.minecraft.network.PacketBuffer;
+import net.minecraft.world.World;
 import pl.asie.charset.api.CharsetAPI;
 import pl.asie.charset.api.lib.ISimpleInstantiatingRegistry;
 import pl.asie.charset.lib.network.Packet;
@@ -31,17 +32,32 @@ public class PacketSignalMeterData extends Packet {
 	private static final ISimpleInstantiatingRegistry<ISignalMeterData> REGISTRY
 			= CharsetAPI.INSTANCE.findSimpleInstantiatingRegistry(ISignalMeterData.class);
 	private ISignalMeterData data;
+	private int[] entityIds;
 
 	public PacketSignalMeterData() {
 
 	}
 
-	public PacketSignalMeterData(ISignalMeterData data) {
+	/**
+	 * @param data The signal meter data.
+	 * @param entityIds The IDs of every entity whose meter is pointed at
+	 *                  the source of this data.
+	 */
+	public PacketSignalMeterData(ISignalMeterData data, int... entityIds) {
 		this.data = data;
+		this.entityIds = entityIds;
+	}
+
+	public static int getId(ISignalMeterData data) {
+		return REGISTRY.getId(data);
 	}
 
 	@Override
 	public void readData(INetHandler handler, PacketBuffer buf) {
+		entityIds = new int[buf.readVarInt()];
+		for (int i = 0; i < entityIds.length; i++) {
+			entityIds[i] = buf.readVarInt();
+		}
 		int id = buf.readVarInt();
 		data = REGISTRY.create(id);
 		data.deserialize(buf);
@@ -49,14 +65,25 @@ public class PacketSignalMeterData extends Packet {
 
 	@Override
 	public void apply(INetHandler handler) {
-		EntityPlayer player = getPlayer(handler);
-		if (player != null && player.hasCapability(CharsetToolsEngineering.meterTrackerCap, null)) {
-			player.getCapability(CharsetToolsEngineering.meterTrackerCap, null).setClientData(data);
+		World world = getWorld(handler);
+		if (world == null) {
+			return;
+		}
+
+		for (int id : entityIds) {
+			Entity entity = world.getEntityByID(id);
+			if (entity != null && entity.hasCapability(CharsetToolsEngineering.meterTrackerCap, null)) {
+				entity.getCapability(CharsetToolsEngineering.meterTrackerCap, null).setClientData(data);
+			}
 		}
 	}
 
 	@Override
 	public void writeData(PacketBuffer buf) {
+		buf.writeVarInt(entityIds.length);
+		for (int id : entityIds) {
+			buf.writeVarInt(id);
+		}
 		buf.writeVarInt(REGISTRY.getId(data));
 		data.serialize(buf);
 	}
@@ -20,7 +20,6 @@
 package pl.asie.charset.module.tools.engineering;
 
 import net.minecraft.entity.EntityLivingBase;
-import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import pl.asie.charset.lib.stagingapi.ISignalMeterData;
@@ -31,19 +30,43 @@ import javax.annotation.Nullable;
 public class SignalMeterTracker implements ISignalMeterTracker {
 	private ISignalMeterData signalMeterDataClient;
 
+	// server-side; the last payload sent for this player and when
+	// lastSentTime is only meaningful while lastSentData != null
+	byte[] lastSentData;
+	long lastSentTime;
+
 	@Nullable
-	public ISignalMeterData getNewDataToSend(EntityLivingBase entity) {
+	public RayTraceResult getTarget(EntityLivingBase entity) {
 		Vec3d start = RayTraceUtils.getStart(entity);
 		Vec3d end = RayTraceUtils.getEnd(entity);
 
 		RayTraceResult result = entity.getEntityWorld().rayTraceBlocks(start, end, true);
 		if (result != null && result.typeOfHit == RayTraceResult.Type.BLOCK) {
+			return result;
+		} else {
+			return null;
+		}
+	}
+
+	@Nullable
+	public ISignalMeterData getNewDataToSend(EntityLivingBase entity) {
+		RayTraceResult result = getTarget(entity);
+		if (result != null) {
 			return SignalMeterProviderHandler.INSTANCE.getSignalMeterData(entity.getEntityWorld(), result.getBlockPos(), result).orElse(null);
 		} else {
 			return null;
 		}
 	}
 
+	boolean hasSentSince(long time, int interval) {
+		return lastSentData != null && time - lastSentTime < interval;
+	}
+
+	void resetSentData() {
+		lastSentData = null;
+		lastSentTime = 0;
+	}
+
 	@Override
 	public ISignalMeterData getClientData() {
 		return signalMeterDataClient;
@@ -19,45 +19,190 @@
 
 package pl.asie.charset.module.tools.engineering;
 
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.world.World;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import pl.asie.charset.lib.stagingapi.ISignalMeterData;
 
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Streams Signal Meter Data to clients. Holders are grouped by the block they
+ * are pointing at, so that every target is only queried and serialized once
+ * per tick; data is only sent when it differs from what the holder was last
+ * sent, at most once every {@link CharsetToolsEngineering#minUpdateInterval}
+ * ticks.
+ */
 public class SignalMeterTrackerEventHandler {
+	// Unchanged data is still re-sent this often, so that players
+	// walking into range eventually see other players' meters.
+	private static final int REFRESH_INTERVAL = 40;
+
+	private static final class TargetKey {
+		private final BlockPos pos;
+		private final EnumFacing side;
+		private final int subHit;
+
+		TargetKey(@Nullable RayTraceResult result) {
+			this.pos = result != null ? result.getBlockPos() : null;
+			this.side = result != null ? result.sideHit : null;
+			this.subHit = result != null ? result.subHit : -1;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof TargetKey)) {
+				return false;
+			}
+
+			TargetKey other = (TargetKey) o;
+			return Objects.equals(pos, other.pos) && side == other.side && subHit == other.subHit;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(pos, side, subHit);
+		}
+	}
+
+	private static final class TargetGroup {
+		private final RayTraceResult result;
+		private final List<EntityPlayer> holders = new ArrayList<>(1);
+
+		TargetGroup(@Nullable RayTraceResult result) {
+			this.result = result;
+		}
+	}
+
+	private static boolean isHoldingMeter(EntityPlayer player) {
+		ItemStack mainHand = player.getHeldItemMainhand();
+		ItemStack offHand = player.getHeldItemOffhand();
+		return (!mainHand.isEmpty() && mainHand.getItem() instanceof ItemSignalMeter)
+				|| (!offHand.isEmpty() && offHand.getItem() instanceof ItemSignalMeter);
+	}
+
+	@Nullable
+	private static SignalMeterTracker getTracker(EntityPlayer player) {
+		if (player.hasCapability(CharsetToolsEngineering.meterTrackerCap, null)) {
+			ISignalMeterTracker tracker = player.getCapability(CharsetToolsEngineering.meterTrackerCap, null);
+			if (tracker instanceof SignalMeterTracker) {
+				return (SignalMeterTracker) tracker;
+			}
+		}
+
+		return null;
+	}
+
+	private static byte[] serialize(ISignalMeterData data) {
+		PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+		buf.writeVarInt(PacketSignalMeterData.getId(data));
+		data.serialize(buf);
+		byte[] bytes = new byte[buf.readableBytes()];
+		buf.readBytes(bytes);
+		buf.release();
+		return bytes;
+	}
+
 	@SubscribeEvent
-	public void onPlayerTick(TickEvent.PlayerTickEvent event) {
-		if (event.phase == TickEvent.Phase.START && event.side == Side.SERVER) {
-			ItemStack mainHand = event.player.getHeldItemMainhand();
-			ItemStack offHand = event.player.getHeldItemOffhand();
-			if ((!mainHand.isEmpty() && mainHand.getItem() instanceof ItemSignalMeter)
-				|| (!offHand.isEmpty() && offHand.getItem() instanceof ItemSignalMeter)) {
-
-				if (event.player.hasCapability(CharsetToolsEngineering.meterTrackerCap, null)) {
-					ISignalMeterTracker tracker = event.player.getCapability(CharsetToolsEngineering.meterTrackerCap, null);
-					if (tracker instanceof SignalMeterTracker) {
-						ISignalMeterData data = ((SignalMeterTracker) tracker).getNewDataToSend(event.player);
-						if (data == null) {
-							data = new SignalMeterDataDummy();
-						}
-
-						if (CharsetToolsEngineering.maxSendDistance >= 1) {
-							try {
-								CharsetToolsEngineering.packet.sendToAllAround(new PacketSignalMeterData(data), event.player, CharsetToolsEngineering.maxSendDistance);
-							} catch (Exception e) {
-								e.printStackTrace();
-							}
-						} else {
-							try {
-								CharsetToolsEngineering.packet.sendTo(new PacketSignalMeterData(data), event.player);
-							} catch (Exception e) {
-								e.printStackTrace();
-							}
-						}
+	public void onWorldTick(TickEvent.WorldTickEvent event) {
+		if (event.phase != TickEvent.Phase.END || event.side != Side.SERVER) {
+			return;
+		}
+
+		World world = event.world;
+		long time = world.getTotalWorldTime();
+		Map<TargetKey, TargetGroup> groups = null;
+
+		for (EntityPlayer player : world.playerEntities) {
+			SignalMeterTracker tracker = getTracker(player);
+			if (tracker == null) {
+				continue;
+			}
+
+			if (!isHoldingMeter(player)) {
+				// make sure the next time the meter is picked up, data is sent anew
+				if (tracker.lastSentData != null) {
+					tracker.resetSentData();
+				}
+				continue;
+			}
+
+			if (tracker.hasSentSince(time, CharsetToolsEngineering.minUpdateInterval)) {
+				continue;
+			}
+
+			if (groups == null) {
+				groups = new HashMap<>();
+			}
+
+			RayTraceResult result = tracker.getTarget(player);
+			groups.computeIfAbsent(new TargetKey(result), (k) -> new TargetGroup(result)).holders.add(player);
+		}
+
+		if (groups == null) {
+			return;
+		}
+
+		for (TargetGroup group : groups.values()) {
+			try {
+				sendGroup(world, time, group);
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void sendGroup(World world, long time, TargetGroup group) {
+		ISignalMeterData data = null;
+		if (group.result != null) {
+			data = SignalMeterProviderHandler.INSTANCE.getSignalMeterData(world, group.result.getBlockPos(), group.result).orElse(null);
+		}
+		if (data == null) {
+			data = new SignalMeterDataDummy();
+		}
+
+		byte[] bytes = serialize(data);
+		List<EntityPlayer> changed = new ArrayList<>(group.holders.size());
+		for (EntityPlayer holder : group.holders) {
+			SignalMeterTracker tracker = getTracker(holder);
+			if (tracker != null && (!tracker.hasSentSince(time, REFRESH_INTERVAL) || !Arrays.equals(bytes, tracker.lastSentData))) {
+				tracker.lastSentData = bytes;
+				tracker.lastSentTime = time;
+				changed.add(holder);
+			}
+		}
+
+		if (changed.isEmpty()) {
+			return;
+		}
+
+		int[] ids = new int[changed.size()];
+		Set<EntityPlayer> recipients = Collections.newSetFromMap(new IdentityHashMap<>());
+		double maxDistanceSq = CharsetToolsEngineering.maxSendDistance * CharsetToolsEngineering.maxSendDistance;
+
+		for (int i = 0; i < ids.length; i++) {
+			EntityPlayer holder = changed.get(i);
+			ids[i] = holder.getEntityId();
+			recipients.add(holder);
+
+			if (CharsetToolsEngineering.maxSendDistance >= 1) {
+				for (EntityPlayer observer : world.playerEntities) {
+					if (observer.getDistanceSq(holder) < maxDistanceSq) {
+						recipients.add(observer);
 					}
 				}
 			}
 		}
+
+		CharsetToolsEngineering.packet.sendToPlayers(new PacketSignalMeterData(data, ids), recipients, null);
 	}
 }
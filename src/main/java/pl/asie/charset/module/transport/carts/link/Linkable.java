@@ -29,6 +29,7 @@ import pl.asie.charset.lib.capability.CapabilityProviderFactory;
 import pl.asie.charset.lib.utils.FunctionalUtils;
 import pl.asie.charset.module.transport.carts.CharsetTransportCarts;
 
+import javax.annotation.Nullable;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -39,6 +40,7 @@ public final class Linkable {
 	));
 	public static final ResourceLocation ID = new ResourceLocation("charsetcarts", "linkable");
 	public Linkable previous, next;
+	Train train;
 	private final Entity owner;
 
 	public Linkable() {
@@ -53,6 +55,11 @@ public final class Linkable {
 		return owner;
 	}
 
+	@Nullable
+	public Train getTrain() {
+		return train;
+	}
+
 	public UUID getId() {
 		return owner != null ? owner.getPersistentID() : null;
 	}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.transport.carts.link;
+
+import net.minecraft.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A consist of two or more linked carts, ordered from front to back.
+ */
+public final class Train {
+	private final List<Linkable> cars = new ArrayList<>();
+
+	Train(Linkable front) {
+		Linkable link = front;
+		while (link != null) {
+			cars.add(link);
+			link.train = this;
+			link = link.next;
+		}
+	}
+
+	public List<Linkable> getCars() {
+		return Collections.unmodifiableList(cars);
+	}
+
+	public Linkable getFront() {
+		return cars.get(0);
+	}
+
+	public int size() {
+		return cars.size();
+	}
+
+	/**
+	 * @return The speed of the given car along the train, positive towards
+	 * the front; the direction is taken from the link to its neighbour, so it
+	 * follows the track through curves. NaN if it cannot be determined.
+	 */
+	private double getSpeedAlongTrain(int i) {
+		Entity owner = cars.get(i).getOwner();
+		Entity from = i > 0 ? owner : cars.get(1).getOwner();
+		Entity to = i > 0 ? cars.get(i - 1).getOwner() : owner;
+		double forwardX = to.posX - from.posX;
+		double forwardZ = to.posZ - from.posZ;
+		double along = owner.motionX * forwardX + owner.motionZ * forwardZ;
+		double speed = Math.sqrt(owner.motionX * owner.motionX + owner.motionZ * owner.motionZ);
+		if (speed <= 1.0E-4) {
+			return 0;
+		} else if (Math.abs(along) <= 1.0E-8) {
+			return Double.NaN;
+		} else {
+			return Math.copySign(speed, along);
+		}
+	}
+
+	/**
+	 * Brings every moving car in the train to the consist's mean speed along
+	 * the track, so that the consist moves as one. Speeds are signed by each
+	 * car's heading relative to the link to its neighbour, so cars going
+	 * round a bend keep their speed.
+	 */
+	void solveVelocity() {
+		double[] speeds = new double[cars.size()];
+		double speed = 0;
+		for (int i = 0; i < speeds.length; i++) {
+			speeds[i] = getSpeedAlongTrain(i);
+			if (!Double.isNaN(speeds[i])) {
+				speed += speeds[i];
+			}
+		}
+		speed /= speeds.length;
+
+		for (int i = 0; i < speeds.length; i++) {
+			if (speeds[i] != 0 && !Double.isNaN(speeds[i])) {
+				Entity owner = cars.get(i).getOwner();
+				// speed / speeds[i] is negative if the car runs against the rest of the train
+				double scale = speed / speeds[i];
+				owner.motionX *= scale;
+				owner.motionZ *= scale;
+			}
+		}
+	}
+}
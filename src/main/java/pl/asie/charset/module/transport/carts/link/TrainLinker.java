@@ -23,16 +23,19 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.world.World;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 public class TrainLinker {
 	private final BiMap<UUID, Linkable> linkableMap;
+	private final Set<Train> trains = Collections.newSetFromMap(new IdentityHashMap<>());
 
 	public TrainLinker() {
 		linkableMap = HashBiMap.create();
@@ -47,59 +50,178 @@ public class TrainLinker {
 		}
 	}
 
-	private double getDistanceXZ(Entity one, Entity two) {
-		double a = one.posX - two.posX;
-		double b = one.posZ - two.posZ;
-		return a*a+b*b;
+	@SubscribeEvent
+	public void onChunkUnload(ChunkEvent.Unload event) {
+		if (event.getWorld().isRemote || linkableMap.isEmpty()) {
+			return;
+		}
+
+		// unloaded carts are not marked dead; their links are restored from NBT on reload
+		for (ClassInheritanceMultiMap<Entity> entities : event.getChunk().getEntityLists()) {
+			for (EntityMinecart cart : entities.getByClass(EntityMinecart.class)) {
+				Linkable link = linkableMap.get(cart.getPersistentID());
+				if (link != null && link.getOwner() == cart) {
+					detach(link);
+				}
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		World world = event.getWorld();
+		List<Linkable> links = null;
+		for (Linkable link : linkableMap.values()) {
+			if (link.getOwner().world == world) {
+				if (links == null) {
+					links = new ArrayList<>();
+				}
+				links.add(link);
+			}
+		}
+
+		if (links != null) {
+			for (Linkable link : links) {
+				detach(link);
+			}
+		}
+	}
+
+	private static boolean isRemoved(Linkable link) {
+		return link.getOwner().isDead || !link.getOwner().isAddedToWorld();
 	}
 
 	@SubscribeEvent
 	public void onWorldTickEnd(TickEvent.ServerTickEvent event) {
-		if (event.phase == TickEvent.Phase.END) {
-			for (Linkable link : linkableMap.values()) {
-				if (link.previous == null && link.next != null) {
-					List<Linkable> linked = new ArrayList<>();
-					Entity front = link.getOwner();
-					linked.add(link);
-					while (link.next != null) {
-						link = link.next;
-						linked.add(link);
+		if (event.phase == TickEvent.Phase.END && !trains.isEmpty()) {
+			List<Linkable> removedCars = null;
+
+			for (Train train : trains) {
+				for (Linkable link : train.getCars()) {
+					if (isRemoved(link)) {
+						if (removedCars == null) {
+							removedCars = new ArrayList<>();
+						}
+						removedCars.add(link);
 					}
 				}
 			}
+
+			if (removedCars != null) {
+				for (Linkable link : removedCars) {
+					detach(link);
+				}
+			}
+
+			for (Train train : trains) {
+				if (!train.getFront().getOwner().world.isRemote) {
+					train.solveVelocity();
+				}
+			}
 		}
 	}
 
+	public Collection<Train> getTrains() {
+		return Collections.unmodifiableSet(trains);
+	}
+
 	public Linkable get(Entity entity) {
 		return get(entity.getPersistentID());
 	}
 
 	public Linkable get(UUID id) {
 		Linkable link = linkableMap.get(id);
+		if (link == null) {
+			return null;
+		}
 
 		if (link.getOwner().isDead) {
-			if (link.previous != null) unlink(link, link.previous);
-			if (link.next != null) unlink(link, link.next);
-			linkableMap.remove(id);
+			detach(link);
 			return null;
 		}
 
 		return link;
 	}
 
+	/**
+	 * Removes a cart which has left the world from its train and the link map.
+	 * Neighbours are only unlinked if they still point back at this cart - a
+	 * reloaded neighbour may already be linked to the cart's new instance.
+	 */
+	private void detach(Linkable link) {
+		Linkable prev = link.previous;
+		if (prev != null) {
+			if (prev.next == link) {
+				unlink(prev, link);
+			} else {
+				link.previous = null;
+			}
+		}
+
+		Linkable next = link.next;
+		if (next != null) {
+			if (next.previous == link) {
+				unlink(link, next);
+			} else {
+				link.next = null;
+			}
+		}
+
+		if (link.train != null) {
+			trains.remove(link.train);
+			link.train = null;
+		}
+
+		if (linkableMap.get(link.getId()) == link) {
+			linkableMap.remove(link.getId());
+		}
+	}
+
+	private Linkable getFront(Linkable link) {
+		while (link.previous != null) {
+			link = link.previous;
+		}
+		return link;
+	}
+
+	private void rebuildTrain(Linkable link) {
+		Linkable front = getFront(link);
+		if (front.next == null) {
+			// a single cart is not a train
+			if (front.train != null) {
+				trains.remove(front.train);
+				front.train = null;
+			}
+		} else {
+			trains.add(new Train(front));
+		}
+	}
+
 	public void link(Linkable first, Linkable second) {
+		if (first == second || getFront(first) == getFront(second)) {
+			return;
+		}
+
+		if (first.train != null) trains.remove(first.train);
+		if (second.train != null) trains.remove(second.train);
+
 		first.next = second;
 		second.previous = first;
+		rebuildTrain(first);
 	}
 
 	public boolean unlink(Linkable first, Linkable second) {
 		if (first.previous == second) {
-			first.previous = null;
-			second.next = null;
-			return true;
+			return unlink(second, first);
 		} else if (first.next == second) {
+			if (first.train != null) trains.remove(first.train);
+			first.train = null;
+			second.train = null;
+
 			first.next = null;
 			second.previous = null;
+			rebuildTrain(first);
+			rebuildTrain(second);
 			return true;
 		} else {
 			return false;
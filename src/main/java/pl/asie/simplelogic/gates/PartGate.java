@@ -53,8 +53,12 @@ import pl.asie.charset.lib.utils.ItemUtils;
 import pl.asie.charset.lib.utils.Orientation;
 import pl.asie.charset.lib.utils.Quaternion;
 import pl.asie.charset.lib.utils.RotationUtils;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
+import pl.asie.charset.lib.utils.redstone.IBundledEmitterPacked;
 import pl.asie.charset.lib.utils.redstone.RedstoneUtils;
 import pl.asie.charset.lib.wires.*;
+import pl.asie.simplelogic.gates.circuit.CircuitCompiler;
+import pl.asie.simplelogic.gates.circuit.NetlistGate;
 import pl.asie.simplelogic.gates.logic.*;
 import pl.asie.simplelogic.wires.logic.PartWireInsulated;
 
@@ -65,7 +69,7 @@ import java.util.Optional;
 import java.util.function.Predicate;
 
 public class PartGate extends TileBase implements IDebuggable, IGateContainer, IRenderComparable<PartGate>, ISignalMeterDataProvider, ITickable {
-	private class RedstoneCommunications implements IBundledEmitter, IBundledReceiver, IRedstoneEmitter, IRedstoneReceiver, ISimpleLogicSidedEmitter {
+	private class RedstoneCommunications implements IBundledEmitterPacked, IBundledReceiver, IRedstoneEmitter, IRedstoneReceiver, ISimpleLogicSidedEmitter {
 		private final EnumFacing side;
 
 		RedstoneCommunications(EnumFacing side) {
@@ -78,6 +82,12 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 			return type.isOutput() && type.isBundled() ? logic.getOutputValueBundled(side) : new byte[0];
 		}
 
+		@Override
+		public long getBundledSignalPacked() {
+			GateConnection type = logic.getType(side);
+			return type.isOutput() && type.isBundled() ? logic.getOutputValueBundledPacked(side) : BundledSignal.EMPTY;
+		}
+
 		@Override
 		public void onBundledInputChange() {
 			onChanged();
@@ -123,6 +133,11 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 	private long tickScheduleTime = -1;
 	private long pendingTick = -1;
 
+	// set while this gate is simulated as part of a compiled circuit
+	private NetlistGate circuitGate;
+	private long nextCompileTime;
+	private boolean circuitInputsStale;
+
 	private Orientation orientation = Orientation.FACE_UP_POINT_NORTH;
 
 	public Orientation getOrientation() {
@@ -173,6 +188,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 		for (int i = 0; i < rotationIn.ordinal(); i++) {
 			orientation = orientation.rotateAround(EnumFacing.UP);
 		}
+		invalidateCircuit();
 		onChanged();
 		scheduleTick(0);
 		markBlockForUpdate();
@@ -181,6 +197,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 	@Override
 	public void mirror(Mirror mirror) {
 		super.mirror(mirror);
+		invalidateCircuit();
 		if (orientation.facing.getAxis() == EnumFacing.Axis.Y && logic.canMirror()) {
 			switch (mirror) {
 				case LEFT_RIGHT:
@@ -264,7 +281,19 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 			}
 
 			if (!getWorld().isRemote) {
-				if (pendingTick >= 0 && world.getTotalWorldTime() >= pendingTick && logic.shouldTick()) {
+				if (circuitGate == null && SimpleLogicGates.compileCircuits && world.getTotalWorldTime() >= nextCompileTime) {
+					deferCircuitCompile();
+					CircuitCompiler.compile(this);
+				}
+
+				if (circuitInputsStale) {
+					circuitInputsStale = false;
+					if (circuitGate == null) {
+						onChanged();
+					}
+				}
+
+				if (circuitGate == null && pendingTick >= 0 && world.getTotalWorldTime() >= pendingTick && logic.shouldTick()) {
 					pendingTick = -1;
 					if (logic.tick(this)) {
 						markGateChanged(logic.updateOutputs(this));
@@ -353,6 +382,11 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 
 	@Override
 	public byte[] getBundledInput(EnumFacing facing) {
+		return BundledSignal.unpack(getBundledInputPacked(facing));
+	}
+
+	@Override
+	public long getBundledInputPacked(EnumFacing facing) {
 		GateConnection conn = logic.getType(facing);
 
 		if (conn.isInput() && conn.isBundled()) {
@@ -362,14 +396,14 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 				BlockPos p = getPos().offset(real);
 				byte[] mpValue = RedstoneUtils.getModdedBundledPower(w, p, real, getSide(), (t) -> true);
 				if (mpValue != null) {
-					return mpValue;
+					return BundledSignal.pack(mpValue);
 				} else {
 					TileEntity tile = w.getTileEntity(p);
 					if (tile != null) {
 						if (tile.hasCapability(Capabilities.BUNDLED_EMITTER, real.getOpposite())) {
 							IBundledEmitter emitter = tile.getCapability(Capabilities.BUNDLED_EMITTER, real.getOpposite());
 							if (!(emitter instanceof ISimpleLogicSidedEmitter) || ((ISimpleLogicSidedEmitter) emitter).getEmitterFace() == getOrientation().facing.getOpposite()) {
-								return emitter.getBundledSignal();
+								return IBundledEmitterPacked.getPacked(emitter);
 							}
 						}
 					}
@@ -377,7 +411,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 			}
 		}
 
-		return new byte[16];
+		return BundledSignal.EMPTY;
 	}
 
 	@Override
@@ -408,6 +442,11 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 	}
 
 	protected void onChanged() {
+		if (circuitGate != null) {
+			circuitGate.markInputsDirty();
+			return;
+		}
+
 		if ((pendingTick < 0 || tickScheduleTime == world.getTotalWorldTime()) && logic.updateInputs(this)) {
 			logic.onChanged(this);
 		}
@@ -424,6 +463,11 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 	}
 
 	public void scheduleTick(int duration) {
+		if (circuitGate != null) {
+			circuitGate.scheduleTick(duration);
+			return;
+		}
+
 		if (pendingTick < 0) {
 			pendingTick = world.getTotalWorldTime() + duration;
 			tickScheduleTime = world.getTotalWorldTime();
@@ -433,6 +477,46 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 	}
 
 
+	@Nullable
+	public NetlistGate getCircuitGate() {
+		return circuitGate;
+	}
+
+	public void attachCircuit(NetlistGate gate) {
+		gate.setPendingTick(pendingTick, tickScheduleTime);
+		circuitGate = gate;
+	}
+
+	public void detachCircuit(NetlistGate gate) {
+		if (circuitGate == gate) {
+			pendingTick = gate.getPendingTick();
+			tickScheduleTime = gate.getTickScheduleTime();
+			circuitGate = null;
+
+			deferCircuitCompile();
+			// the world may have changed under the circuit; re-read on the next update
+			circuitInputsStale = true;
+		}
+	}
+
+	public void deferCircuitCompile() {
+		if (world != null) {
+			nextCompileTime = world.getTotalWorldTime() + SimpleLogicGates.CIRCUIT_COMPILE_RETRY_TICKS;
+		}
+	}
+
+	private void invalidateCircuit() {
+		if (circuitGate != null) {
+			circuitGate.getNetlist().invalidate();
+		}
+	}
+
+	@Override
+	public void invalidate(InvalidationType type) {
+		super.invalidate(type);
+		invalidateCircuit();
+	}
+
 	@Override
 	public void validate() {
 		super.validate();
@@ -447,6 +531,10 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 			return;
 		}
 
+		if (circuitGate != null) {
+			circuitGate.verifyAttachments();
+		}
+
 		onChanged();
 	}
 
@@ -458,6 +546,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 				orientation = orientation.getPrevRotationOnFace();
 			}
 
+			invalidateCircuit();
 			onChanged();
 			markBlockForUpdate();
 			return true;
@@ -552,6 +641,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 		}
 
 		if (changed) {
+			invalidateCircuit();
 			logic.updateInputs(this);
 			logic.onChanged(this);
 			return true;
@@ -610,8 +700,9 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 		tag.setBoolean("m", mirrored);
 		tag.setByte("o", (byte) orientation.ordinal());
 		if (!isClient) {
-			if (pendingTick >= 0) {
-				tag.setLong("pt", pendingTick);
+			long pt = circuitGate != null ? circuitGate.getPendingTick() : pendingTick;
+			if (pt >= 0) {
+				tag.setLong("pt", pt);
 			}
 		}
 		return tag;
@@ -709,7 +800,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 			{EnumFacing.UP, EnumFacing.DOWN, EnumFacing.NORTH, EnumFacing.SOUTH}
 	};
 
-	protected EnumFacing gateToReal(EnumFacing dir) {
+	public EnumFacing gateToReal(EnumFacing dir) {
 		if (dir.getAxis() == EnumFacing.Axis.Y) {
 			return null;
 		}
@@ -731,7 +822,7 @@ public class PartGate extends TileBase implements IDebuggable, IGateContainer, I
 		return Quaternion.fromOrientation(orientation.getPrevRotationOnFace()).applyReverseRotation(vec.scale(2).subtract(1, 1, 1)).add(1, 1, 1).scale(0.5);
 	}
 
-	protected EnumFacing realToGate(EnumFacing rdir) {
+	public EnumFacing realToGate(EnumFacing rdir) {
 		if (rdir.getAxis() == orientation.facing.getAxis()) {
 			return null;
 		}
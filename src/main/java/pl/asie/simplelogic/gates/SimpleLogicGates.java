@@ -56,6 +56,7 @@ import pl.asie.charset.lib.config.ConfigUtils;
 import pl.asie.charset.lib.handlers.ShiftScrollHandler;
 import pl.asie.charset.shared.SimpleLogicShared;
 import pl.asie.simplelogic.gates.addon.GateRegisterEvent;
+import pl.asie.simplelogic.gates.circuit.CircuitManager;
 import pl.asie.simplelogic.gates.logic.*;
 import pl.asie.charset.lib.loader.CharsetModule;
 import pl.asie.charset.lib.loader.ModuleProfile;
@@ -85,7 +86,11 @@ public class SimpleLogicGates {
 	@CharsetModule.PacketRegistry
 	public static PacketRegistry packet;
 
+	public static final int CIRCUIT_COMPILE_RETRY_TICKS = 100;
+
 	public static int redstoneTickLength;
+	public static int maxCircuitSize;
+	public static boolean compileCircuits;
 	public static int minTimerTickTime;
 	public static boolean onlyBottomFace, useTESRs;
 	public static BlockGate blockGate;
@@ -107,6 +112,8 @@ public class SimpleLogicGates {
 		onlyBottomFace = ConfigUtils.getBoolean(config, "general", "gatesOnlyBottomFace", false, "Set to true if you wish that gates only be placed on the bottom face of a block - this is great for vanilla-plus style modpacks!", false);
 		useTESRs = ConfigUtils.getBoolean(config, "client", "forceGateTESRs", false, "Forces gates to render using TESRs.", false);
 		minTimerTickTime = ConfigUtils.getInt(config, "general", "minTimerTickTime", 4, 4, 24000, "The minimum amount of ticks, in 1/20-second units, Timers are allowed to tick at.", false);
+		compileCircuits = ConfigUtils.getBoolean(config, "expert", "compileCircuits", false, "Simulate connected groups of gates and insulated wires as compiled circuits, instead of through block updates. Experimental!", false);
+		maxCircuitSize = ConfigUtils.getInt(config, "expert", "maxCircuitSize", 4096, 16, 65536, "The maximum amount of gates and wires in a single compiled circuit.", false);
 		redstoneTickLength = ConfigUtils.getInt(config, "expert", "redstoneTickLength", 2, 1, 20, "The length of a redstone tick, in game ticks (1/20 second units). USE ONLY IF YOU REALLY KNOW WHAT YOU ARE DOING - VALUES OTHER THAN 2 DO *NOT* MATCH VANILLA EXPECTATIONS!", false);
 	}
 
@@ -160,6 +167,7 @@ public class SimpleLogicGates {
 		registerGate(new ResourceLocation("simplelogic:timer"), GateLogicTimer.class);
 
 		MinecraftForge.EVENT_BUS.register(proxy);
+		MinecraftForge.EVENT_BUS.register(CircuitManager.INSTANCE);
 
 		// configure creative tab
 		if (!ModCharset.isModuleLoaded("simplelogic.wires") && !gateStacks.isEmpty()) {
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.ICapabilityProvider;
+import pl.asie.charset.ModCharset;
+import pl.asie.charset.api.wires.WireFace;
+import pl.asie.charset.lib.wires.Wire;
+import pl.asie.charset.lib.wires.WireUtils;
+import pl.asie.simplelogic.gates.PartGate;
+import pl.asie.simplelogic.gates.SimpleLogicGates;
+import pl.asie.simplelogic.gates.logic.*;
+import pl.asie.simplelogic.wires.logic.PartWireInsulated;
+import pl.asie.simplelogic.wires.logic.PartWireSignalBase;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Snapshots a connected region of gates into a {@link Netlist}.
+ *
+ * A net is either two gates facing each other directly, or a network of
+ * insulated wires connecting only to compilable gates. Anything else a gate
+ * touches - normal wires, blocks, uncompilable gates - stays a pin, read
+ * from and written to the world as usual.
+ */
+public final class CircuitCompiler {
+	private static final class WireNet {
+		private final List<PartWireSignalBase> wires = new ArrayList<>();
+		private final List<PartGate> gates = new ArrayList<>();
+		private final List<EnumFacing> gateSides = new ArrayList<>();
+		private boolean external;
+		private int id = -1;
+	}
+
+	private static final class State {
+		private final World world;
+		private final Map<PartGate, int[]> gateNets = new LinkedHashMap<>();
+		private final Map<PartGate, Object[]> gateAttachments = new HashMap<>();
+		private final Map<Wire, WireNet> wireNets = new IdentityHashMap<>();
+		private final List<WireNet> nets = new ArrayList<>();
+		private final Deque<PartGate> queue = new ArrayDeque<>();
+		private final Netlist.Builder builder = new Netlist.Builder();
+		private int parts;
+
+		State(World world) {
+			this.world = world;
+		}
+
+		boolean addGate(PartGate gate) {
+			if (!gateNets.containsKey(gate)) {
+				gateNets.put(gate, new int[] { -1, -1, -1, -1 });
+				gateAttachments.put(gate, new Object[4]);
+				queue.add(gate);
+				parts++;
+			}
+			return parts <= SimpleLogicGates.maxCircuitSize;
+		}
+
+		void connect(PartGate gate, EnumFacing side, int net, Object attachment) {
+			int i = side.ordinal() - 2;
+			gateNets.get(gate)[i] = net;
+			gateAttachments.get(gate)[i] = attachment;
+		}
+	}
+
+	private CircuitCompiler() {
+
+	}
+
+	public static boolean canCompile(PartGate gate) {
+		GateLogic logic = gate.getLogic();
+		if (logic instanceof GateLogicDummy || logic instanceof IGateTickable || logic instanceof ICapabilityProvider
+				|| logic.hasComparatorInputs()) {
+			return false;
+		}
+
+		for (EnumFacing facing : EnumFacing.HORIZONTALS) {
+			if (logic.getType(facing).isBundled()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static boolean canConnectNet(PartGate gate, @Nullable EnumFacing side) {
+		if (side == null || !canCompile(gate)) {
+			return false;
+		}
+
+		GateConnection type = gate.getLogic().getType(side);
+		return type != GateConnection.NONE && type.isRedstone();
+	}
+
+	@Nullable
+	private static PartGate getGate(World world, BlockPos pos, EnumFacing side) {
+		TileEntity tile = world.getTileEntity(pos);
+		if (tile != null && tile.hasCapability(SimpleLogicGates.GATE_CAP, side)) {
+			return tile.getCapability(SimpleLogicGates.GATE_CAP, side);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The wire or gate on the given side of a gate, if any.
+	 */
+	@Nullable
+	static Object getAttachment(PartGate gate, EnumFacing side) {
+		EnumFacing real = gate.gateToReal(side);
+		if (real == null) {
+			return null;
+		}
+
+		World world = gate.getWorld();
+		BlockPos pos = gate.getPos().offset(real);
+		if (!world.isBlockLoaded(pos)) {
+			return null;
+		}
+
+		Wire wire = WireUtils.getWire(world, pos, WireFace.get(gate.getSide()));
+		if (wire != null) {
+			return wire;
+		} else {
+			return getGate(world, pos, gate.getSide());
+		}
+	}
+
+	@Nullable
+	public static Netlist compile(PartGate start) {
+		if (!ModCharset.isModuleLoaded("simplelogic.wires") || !canCompile(start)) {
+			return null;
+		}
+
+		State state = new State(start.getWorld());
+		Netlist netlist = compile(state, start);
+		if (netlist == null) {
+			// don't let every other gate in the region retry right away
+			for (PartGate gate : state.gateNets.keySet()) {
+				gate.deferCircuitCompile();
+			}
+		}
+		return netlist;
+	}
+
+	@Nullable
+	private static Netlist compile(State state, PartGate start) {
+		state.addGate(start);
+
+		while (!state.queue.isEmpty()) {
+			PartGate gate = state.queue.remove();
+			int[] nets = state.gateNets.get(gate);
+
+			for (EnumFacing side : EnumFacing.HORIZONTALS) {
+				if (nets[side.ordinal() - 2] >= 0 || !canConnectNet(gate, side)) {
+					continue;
+				}
+
+				EnumFacing real = gate.gateToReal(side);
+				Object attachment = getAttachment(gate, side);
+
+				if (attachment instanceof PartGate) {
+					PartGate other = (PartGate) attachment;
+					EnumFacing otherSide = other.realToGate(real.getOpposite());
+					if (other.getSide() == gate.getSide() && canConnectNet(other, otherSide)) {
+						if (!state.addGate(other)) {
+							return null;
+						}
+
+						int net = state.builder.addNet();
+						state.connect(gate, side, net, other);
+						state.connect(other, otherSide, net, gate);
+					}
+				} else if (attachment instanceof PartWireInsulated && ((Wire) attachment).connectsExternal(real.getOpposite())) {
+					WireNet net = state.wireNets.get(attachment);
+					if (net == null) {
+						net = traceWires(state, (PartWireSignalBase) attachment);
+						if (net == null) {
+							return null;
+						}
+					}
+
+					if (!net.external && net.id < 0) {
+						net.id = state.builder.addNet();
+						for (int i = 0; i < net.gates.size(); i++) {
+							PartGate netGate = net.gates.get(i);
+							EnumFacing netSide = net.gateSides.get(i);
+							if (!state.addGate(netGate)) {
+								return null;
+							}
+
+							state.connect(netGate, netSide, net.id, getAttachment(netGate, netSide));
+						}
+					}
+				}
+			}
+		}
+
+		if (state.gateNets.size() < 2 || state.builder.getNetCount() == 0) {
+			return null;
+		}
+
+		CompiledCircuit circuit = new CompiledCircuit(state.world);
+		for (WireNet net : state.nets) {
+			if (net.id >= 0) {
+				circuit.addNetWires(net.id, net.wires);
+			}
+		}
+		for (Map.Entry<PartGate, int[]> entry : state.gateNets.entrySet()) {
+			PartGate gate = entry.getKey();
+			state.builder.addGate(gate.getLogic(), gate, entry.getValue(), state.gateAttachments.get(gate));
+			circuit.addPosition(gate.getPos());
+		}
+
+		Netlist netlist = state.builder.build(state.world.getTotalWorldTime());
+		circuit.setNetlist(netlist);
+		return netlist;
+	}
+
+	private static boolean addWire(State state, WireNet net, Deque<PartWireSignalBase> queue, @Nullable Wire wire) {
+		if (!(wire instanceof PartWireInsulated)) {
+			net.external = true;
+			return true;
+		}
+
+		if (!state.wireNets.containsKey(wire)) {
+			state.wireNets.put(wire, net);
+			net.wires.add((PartWireSignalBase) wire);
+			queue.add((PartWireSignalBase) wire);
+			state.parts++;
+		}
+
+		return state.parts <= SimpleLogicGates.maxCircuitSize;
+	}
+
+	@Nullable
+	private static WireNet traceWires(State state, PartWireSignalBase start) {
+		WireNet net = new WireNet();
+		Deque<PartWireSignalBase> queue = new ArrayDeque<>();
+		state.nets.add(net);
+
+		if (!addWire(state, net, queue, start)) {
+			return null;
+		}
+
+		while (!queue.isEmpty()) {
+			PartWireSignalBase wire = queue.remove();
+			BlockPos pos = wire.getContainer().pos();
+			WireFace location = wire.getLocation();
+
+			for (WireFace face : WireFace.VALUES) {
+				if (wire.connectsInternal(face) && !addWire(state, net, queue, WireUtils.getWire(state.world, pos, face))) {
+					return null;
+				}
+			}
+
+			for (EnumFacing facing : EnumFacing.VALUES) {
+				if (wire.connectsExternal(facing)) {
+					BlockPos nPos = pos.offset(facing);
+					if (!state.world.isBlockLoaded(nPos)) {
+						net.external = true;
+						continue;
+					}
+
+					Wire other = WireUtils.getWire(state.world, nPos, location);
+					if (other != null) {
+						if (!addWire(state, net, queue, other)) {
+							return null;
+						}
+					} else if (location != WireFace.CENTER) {
+						PartGate gate = getGate(state.world, nPos, location.facing);
+						EnumFacing gateSide = gate != null ? gate.realToGate(facing.getOpposite()) : null;
+						if (gate != null && canConnectNet(gate, gateSide)) {
+							net.gates.add(gate);
+							net.gateSides.add(gateSide);
+						} else {
+							net.external = true;
+						}
+					} else {
+						net.external = true;
+					}
+				} else if (wire.connectsCorner(facing)) {
+					BlockPos nPos = pos.offset(facing).offset(location.facing);
+					if (!state.world.isBlockLoaded(nPos)) {
+						net.external = true;
+						continue;
+					}
+
+					if (!addWire(state, net, queue, WireUtils.getWire(state.world, nPos, WireFace.get(facing.getOpposite())))) {
+						return null;
+					}
+				}
+			}
+		}
+
+		return net;
+	}
+}
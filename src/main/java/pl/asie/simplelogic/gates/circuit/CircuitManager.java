@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import pl.asie.simplelogic.gates.SimpleLogicGates;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Evaluates every compiled circuit once per server tick, after the world
+ * has ticked its gates.
+ */
+public final class CircuitManager {
+	public static final CircuitManager INSTANCE = new CircuitManager();
+	private static final int CHUNK_CHECK_INTERVAL = 20;
+
+	private final Set<CompiledCircuit> circuits = Collections.newSetFromMap(new IdentityHashMap<>());
+	private int ticks;
+
+	private CircuitManager() {
+
+	}
+
+	void add(CompiledCircuit circuit) {
+		circuits.add(circuit);
+	}
+
+	void remove(CompiledCircuit circuit) {
+		circuits.remove(circuit);
+	}
+
+	public int getCircuitCount() {
+		return circuits.size();
+	}
+
+	@SubscribeEvent
+	public void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase != TickEvent.Phase.END || circuits.isEmpty()) {
+			return;
+		}
+
+		boolean checkChunks = (++ticks % CHUNK_CHECK_INTERVAL) == 0;
+
+		// circuits remove themselves when invalidated
+		for (CompiledCircuit circuit : circuits.toArray(new CompiledCircuit[0])) {
+			Netlist netlist = circuit.getNetlist();
+			if (!SimpleLogicGates.compileCircuits || (checkChunks && !circuit.areChunksLoaded())) {
+				netlist.invalidate();
+			} else if (netlist.isValid()) {
+				netlist.evaluate(circuit.getWorld().getTotalWorldTime());
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		for (CompiledCircuit circuit : circuits.toArray(new CompiledCircuit[0])) {
+			if (circuit.getWorld() == event.getWorld()) {
+				circuit.getNetlist().invalidate();
+			}
+		}
+	}
+}
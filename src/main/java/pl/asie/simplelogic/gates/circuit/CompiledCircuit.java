@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import pl.asie.simplelogic.wires.logic.PartWireSignalBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds a compiled {@link Netlist} to the world it was compiled from:
+ * writes net values back to the wires and tears the netlist down when
+ * its structure changes.
+ */
+public class CompiledCircuit implements Netlist.Listener {
+	private final World world;
+	private final List<List<PartWireSignalBase>> netWires = new ArrayList<>();
+	private final TLongSet chunks = new TLongHashSet();
+	private Netlist netlist;
+
+	CompiledCircuit(World world) {
+		this.world = world;
+	}
+
+	void addNetWires(int net, List<PartWireSignalBase> wires) {
+		while (netWires.size() <= net) {
+			netWires.add(null);
+		}
+		netWires.set(net, wires);
+		for (PartWireSignalBase wire : wires) {
+			addPosition(wire.getContainer().pos());
+		}
+	}
+
+	void addPosition(BlockPos pos) {
+		chunks.add(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+	}
+
+	void setNetlist(Netlist netlist) {
+		this.netlist = netlist;
+		netlist.setListener(this);
+
+		for (List<PartWireSignalBase> wires : netWires) {
+			if (wires != null) {
+				for (PartWireSignalBase wire : wires) {
+					wire.setCircuitListener(netlist::invalidate);
+				}
+			}
+		}
+
+		netlist.initialize(world.getTotalWorldTime());
+		if (netlist.isValid()) {
+			CircuitManager.INSTANCE.add(this);
+		}
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public Netlist getNetlist() {
+		return netlist;
+	}
+
+	boolean areChunksLoaded() {
+		return chunks.forEach((l) -> world.getChunkProvider().getLoadedChunk((int) l, (int) (l >> 32)) != null);
+	}
+
+	@Override
+	public void onNetChanged(int net, byte value) {
+		List<PartWireSignalBase> wires = net < netWires.size() ? netWires.get(net) : null;
+		if (wires != null) {
+			for (PartWireSignalBase wire : wires) {
+				wire.setCircuitSignal(value);
+			}
+		}
+	}
+
+	@Override
+	public void onInvalidated() {
+		for (List<PartWireSignalBase> wires : netWires) {
+			if (wires != null) {
+				for (PartWireSignalBase wire : wires) {
+					wire.setCircuitListener(null);
+				}
+			}
+		}
+
+		CircuitManager.INSTANCE.remove(this);
+	}
+}
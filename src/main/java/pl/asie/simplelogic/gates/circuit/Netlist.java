@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.MathHelper;
+import pl.asie.simplelogic.gates.PartGate;
+import pl.asie.simplelogic.gates.logic.GateConnection;
+import pl.asie.simplelogic.gates.logic.GateLogic;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A flattened gate circuit. Gates refer to nets by index; every net carries
+ * a single redstone level, equal to the strongest signal driving it.
+ *
+ * Netlists are either compiled from the world by {@link CircuitCompiler},
+ * or built by hand with a {@link Builder} and stepped without a world.
+ */
+public class Netlist {
+	public interface Listener {
+		void onNetChanged(int net, byte value);
+		void onInvalidated();
+	}
+
+	private final NetlistGate[] gates;
+	private final int[][] netEndpoints;
+	private final byte[] netValues;
+	private final byte[] netInputs;
+	private final boolean[] inputsQueued, outputsQueued;
+	private final IntArrayFIFOQueue inputQueue = new IntArrayFIFOQueue();
+	private final IntArrayFIFOQueue outputQueue = new IntArrayFIFOQueue();
+	private Listener listener;
+	private boolean valid = true;
+	private long time;
+
+	private Netlist(List<NetlistGate> gates, List<IntList> netEndpoints) {
+		this.gates = gates.toArray(new NetlistGate[0]);
+		this.netEndpoints = new int[netEndpoints.size()][];
+		for (int i = 0; i < this.netEndpoints.length; i++) {
+			this.netEndpoints[i] = netEndpoints.get(i).toIntArray();
+		}
+		this.netValues = new byte[this.netEndpoints.length];
+		this.netInputs = new byte[this.netEndpoints.length];
+		this.inputsQueued = new boolean[this.gates.length];
+		this.outputsQueued = new boolean[this.gates.length];
+
+		for (int i = 0; i < this.gates.length; i++) {
+			this.gates[i].attach(this, i);
+		}
+	}
+
+	void setListener(@Nullable Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Computes the initial net values from the current gate outputs, then
+	 * lets every gate see them.
+	 */
+	void initialize(long time) {
+		this.time = time;
+		for (int i = 0; i < netValues.length; i++) {
+			netValues[i] = computeNetValue(i);
+		}
+		for (int i = 0; i < gates.length; i++) {
+			queueInputs(i);
+		}
+		settle();
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	public int getGateCount() {
+		return gates.length;
+	}
+
+	public int getNetCount() {
+		return netValues.length;
+	}
+
+	public GateLogic getLogic(int gate) {
+		return gates[gate].getLogic();
+	}
+
+	public byte getNetValue(int net) {
+		return netValues[net];
+	}
+
+	/**
+	 * Drive a net from outside the circuit, as if an external emitter was
+	 * connected to it. The strongest of this and all gate outputs wins.
+	 */
+	public void setNetInput(int net, int value) {
+		byte v = (byte) MathHelper.clamp(value, 0, 15);
+		if (netInputs[net] != v) {
+			netInputs[net] = v;
+			updateNet(net);
+			settle();
+		}
+	}
+
+	/**
+	 * Advance a world-less netlist by one game tick.
+	 */
+	public void step() {
+		evaluate(time + 1);
+	}
+
+	public void evaluate(long time) {
+		this.time = time;
+
+		for (int i = 0; i < gates.length && valid; i++) {
+			NetlistGate gate = gates[i];
+			if (gate.isTickDue(time)) {
+				gate.runTick();
+			}
+		}
+
+		settle();
+	}
+
+	public void invalidate() {
+		if (!valid) {
+			return;
+		}
+
+		valid = false;
+		for (NetlistGate gate : gates) {
+			gate.detach();
+		}
+
+		if (listener != null) {
+			listener.onInvalidated();
+		}
+	}
+
+	void queueInputs(int gate) {
+		if (!inputsQueued[gate]) {
+			inputsQueued[gate] = true;
+			inputQueue.enqueue(gate);
+		}
+	}
+
+	void queueOutputs(int gate) {
+		if (!outputsQueued[gate]) {
+			outputsQueued[gate] = true;
+			outputQueue.enqueue(gate);
+		}
+	}
+
+	private void settle() {
+		// Zero-delay loops could otherwise oscillate forever; the world
+		// would spread such a loop over ticks, so just carry on next tick.
+		int budget = 16 + gates.length * 8;
+
+		while (valid && (!outputQueue.isEmpty() || !inputQueue.isEmpty()) && budget-- > 0) {
+			while (!outputQueue.isEmpty()) {
+				int gate = outputQueue.dequeueInt();
+				outputsQueued[gate] = false;
+				int[] nets = gates[gate].getNets();
+				for (int net : nets) {
+					if (net >= 0) {
+						updateNet(net);
+					}
+				}
+			}
+
+			while (!inputQueue.isEmpty() && valid) {
+				int gate = inputQueue.dequeueInt();
+				inputsQueued[gate] = false;
+				gates[gate].onInputsChanged();
+			}
+		}
+	}
+
+	private byte computeNetValue(int net) {
+		byte value = netInputs[net];
+		for (int endpoint : netEndpoints[net]) {
+			byte v = gates[endpoint >> 2].getDriveValue(EnumFacing.byIndex((endpoint & 3) + 2));
+			if (v > value) {
+				value = v;
+			}
+		}
+		return value;
+	}
+
+	private void updateNet(int net) {
+		byte value = computeNetValue(net);
+		if (netValues[net] != value) {
+			netValues[net] = value;
+			for (int endpoint : netEndpoints[net]) {
+				queueInputs(endpoint >> 2);
+			}
+			if (listener != null) {
+				listener.onNetChanged(net, value);
+			}
+		}
+	}
+
+	public static final class Builder {
+		private final List<NetlistGate> gates = new ArrayList<>();
+		private final List<IntList> netEndpoints = new ArrayList<>();
+
+		public int addNet() {
+			netEndpoints.add(new IntArrayList());
+			return netEndpoints.size() - 1;
+		}
+
+		/**
+		 * @return The index of the gate in the netlist. Pass -1 for a side
+		 * which is not connected to any net.
+		 */
+		public int addGate(GateLogic logic, int north, int south, int west, int east) {
+			return addGate(logic, null, new int[] { north, south, west, east }, null);
+		}
+
+		int addGate(GateLogic logic, @Nullable PartGate host, int[] nets, @Nullable Object[] attachments) {
+			int index = gates.size();
+			for (int i = 0; i < 4; i++) {
+				if (nets[i] >= 0) {
+					GateConnection type = logic.getType(EnumFacing.byIndex(i + 2));
+					if (type == GateConnection.NONE || !type.isRedstone()) {
+						throw new IllegalArgumentException("Side " + EnumFacing.byIndex(i + 2) + " of " + logic.getClass().getSimpleName() + " cannot be connected to a net!");
+					}
+					netEndpoints.get(nets[i]).add((index << 2) | i);
+				}
+			}
+			gates.add(new NetlistGate(logic, host, nets, attachments));
+			return index;
+		}
+
+		public int getGateCount() {
+			return gates.size();
+		}
+
+		public int getNetCount() {
+			return netEndpoints.size();
+		}
+
+		public Netlist build() {
+			Netlist netlist = new Netlist(gates, netEndpoints);
+			netlist.initialize(0);
+			return netlist;
+		}
+
+		Netlist build(long time) {
+			Netlist netlist = new Netlist(gates, netEndpoints);
+			netlist.time = time;
+			return netlist;
+		}
+	}
+}
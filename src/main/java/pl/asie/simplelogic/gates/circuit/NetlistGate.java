@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import pl.asie.charset.lib.notify.Notice;
+import pl.asie.charset.lib.notify.component.NotificationComponent;
+import pl.asie.simplelogic.gates.PartGate;
+import pl.asie.simplelogic.gates.logic.GateConnection;
+import pl.asie.simplelogic.gates.logic.GateLogic;
+import pl.asie.simplelogic.gates.logic.IGateContainer;
+
+import javax.annotation.Nullable;
+
+/**
+ * The gate container used while a gate is part of a {@link Netlist}.
+ * Sides connected to a net read from it; all other sides ("pins") are
+ * read from the world through the host gate, if there is one.
+ */
+public class NetlistGate implements IGateContainer {
+	private final GateLogic logic;
+	private final PartGate host;
+	private final int[] nets;
+	private final Object[] attachments;
+	private final boolean hasOutputPins;
+	private Netlist netlist;
+	private int index;
+	private long pendingTick = -1;
+	private long tickScheduleTime = -1;
+
+	NetlistGate(GateLogic logic, @Nullable PartGate host, int[] nets, @Nullable Object[] attachments) {
+		this.logic = logic;
+		this.host = host;
+		this.nets = nets;
+		this.attachments = attachments;
+
+		boolean outputPins = false;
+		if (host != null) {
+			for (int i = 0; i < 4; i++) {
+				if (nets[i] < 0 && logic.getType(EnumFacing.byIndex(i + 2)).isOutput()) {
+					outputPins = true;
+				}
+			}
+		}
+		this.hasOutputPins = outputPins;
+	}
+
+	void attach(Netlist netlist, int index) {
+		this.netlist = netlist;
+		this.index = index;
+		if (host != null) {
+			host.attachCircuit(this);
+		}
+	}
+
+	void detach() {
+		if (host != null) {
+			host.detachCircuit(this);
+		}
+	}
+
+	public Netlist getNetlist() {
+		return netlist;
+	}
+
+	int[] getNets() {
+		return nets;
+	}
+
+	public long getPendingTick() {
+		return pendingTick;
+	}
+
+	public long getTickScheduleTime() {
+		return tickScheduleTime;
+	}
+
+	public void setPendingTick(long pendingTick, long tickScheduleTime) {
+		this.pendingTick = pendingTick;
+		this.tickScheduleTime = tickScheduleTime;
+	}
+
+	/**
+	 * Check that every side connected to a net still sees the same wire
+	 * or gate it was compiled with; if not, the netlist is invalidated.
+	 */
+	public void verifyAttachments() {
+		if (host == null || attachments == null || !netlist.isValid()) {
+			return;
+		}
+
+		for (int i = 0; i < 4; i++) {
+			if (nets[i] >= 0 && CircuitCompiler.getAttachment(host, EnumFacing.byIndex(i + 2)) != attachments[i]) {
+				netlist.invalidate();
+				return;
+			}
+		}
+	}
+
+	public void markInputsDirty() {
+		netlist.queueInputs(index);
+	}
+
+	boolean isTickDue(long time) {
+		return pendingTick >= 0 && time >= pendingTick && logic.shouldTick();
+	}
+
+	// Mirrors PartGate.update()
+	void runTick() {
+		pendingTick = -1;
+		if (logic.tick(this)) {
+			markGateChanged(logic.updateOutputs(this));
+		}
+		if (logic.updateInputs(this)) {
+			logic.onChanged(this);
+		}
+	}
+
+	// Mirrors PartGate.onChanged()
+	void onInputsChanged() {
+		if ((pendingTick < 0 || tickScheduleTime == netlist.getTime()) && logic.updateInputs(this)) {
+			logic.onChanged(this);
+		}
+	}
+
+	byte getDriveValue(EnumFacing side) {
+		GateConnection type = logic.getType(side);
+		return type.isOutput() && type.isRedstone() ? logic.getOutputValueOutside(side) : 0;
+	}
+
+	@Override
+	public World getGateWorld() {
+		return host != null ? host.getGateWorld() : null;
+	}
+
+	@Override
+	public BlockPos getGatePos() {
+		return host != null ? host.getGatePos() : BlockPos.ORIGIN;
+	}
+
+	@Override
+	public long getGateTime() {
+		return netlist.getTime();
+	}
+
+	@Override
+	public boolean isGateRemote() {
+		return false;
+	}
+
+	@Override
+	public EnumFacing getSide() {
+		return host != null ? host.getSide() : EnumFacing.DOWN;
+	}
+
+	@Override
+	public EnumFacing getTop() {
+		return host != null ? host.getTop() : EnumFacing.NORTH;
+	}
+
+	@Override
+	public GateLogic getLogic() {
+		return logic;
+	}
+
+	@Override
+	public void scheduleTick(int gameTicks) {
+		long time = netlist.getTime();
+		if (pendingTick < 0) {
+			pendingTick = time + gameTicks;
+			tickScheduleTime = time;
+		} else {
+			pendingTick = Math.min(pendingTick, time + gameTicks);
+		}
+	}
+
+	// Mirrors PartGate.getRedstoneInput(), without the comparator handling
+	@Override
+	public byte getRedstoneInput(EnumFacing facing) {
+		int net = nets[facing.ordinal() - 2];
+		if (net < 0) {
+			return host != null ? host.getRedstoneInput(facing) : 0;
+		}
+
+		GateConnection conn = logic.getType(facing);
+		byte v = 0;
+		if (conn.isInput() && conn.isRedstone() && logic.isSideOpen(facing)) {
+			v = netlist.getNetValue(net);
+
+			if (conn.isDigital()) {
+				v = v != 0 ? (byte) 15 : 0;
+			}
+
+			if (logic.isSideInverted(facing)) {
+				v = v != 0 ? 0 : (byte) 15;
+			}
+		}
+
+		return v;
+	}
+
+	@Override
+	public byte[] getBundledInput(EnumFacing facing) {
+		return host != null ? host.getBundledInput(facing) : new byte[16];
+	}
+
+	@Override
+	public long getBundledInputPacked(EnumFacing facing) {
+		return host != null ? host.getBundledInputPacked(facing) : 0L;
+	}
+
+	@Override
+	public Notice createNotice(NotificationComponent component) {
+		// a notice without a location is never sent anywhere
+		return host != null ? host.createNotice(component) : new Notice(null, component);
+	}
+
+	@Override
+	public void markGateChanged(boolean changedIO) {
+		if (changedIO) {
+			netlist.queueOutputs(index);
+		}
+
+		if (host != null) {
+			// only pins are seen by the world; nets are written back by the circuit
+			host.markGateChanged(changedIO && hasOutputPins);
+		}
+	}
+
+	@Override
+	public void openGUI(EntityPlayer playerIn) {
+		if (host != null) {
+			host.openGUI(playerIn);
+		}
+	}
+}
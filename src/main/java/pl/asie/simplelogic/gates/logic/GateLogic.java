@@ -25,6 +25,7 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.Vec3d;
 import net.minecraftforge.common.util.Constants;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,9 +36,13 @@ import java.util.List;
 public abstract class GateLogic {
 	public byte enabledSides, invertedSides;
 	protected byte[] outputValues = new byte[4];
-	protected final byte[][] outputValuesBundled = new byte[4][];
+	// Bundled values are packed, see BundledSignal; a side only has a value
+	// if its bit in the corresponding "present" mask is set.
+	protected final long[] outputValuesBundled = new long[4];
+	protected byte outputBundledPresent;
 	private byte[] inputValues = new byte[4];
-	private final byte[][] inputValuesBundled = new byte[4][];
+	private final long[] inputValuesBundled = new long[4];
+	private byte inputBundledPresent;
 
 	public GateLogic() {
 		enabledSides = getSideMask();
@@ -58,11 +63,11 @@ public abstract class GateLogic {
 		tag.setByteArray("lvo", outputValues);
 		if (!isClient || shouldSyncBundledWithClient()) {
 			for (int i = 0; i < 4; i++) {
-				if (inputValuesBundled[i] != null) {
-					tag.setByteArray("lbi" + i, inputValuesBundled[i]);
+				if ((inputBundledPresent & (1 << i)) != 0) {
+					tag.setByteArray("lbi" + i, BundledSignal.unpack(inputValuesBundled[i]));
 				}
-				if (outputValuesBundled[i] != null) {
-					tag.setByteArray("lbo" + i, outputValuesBundled[i]);
+				if ((outputBundledPresent & (1 << i)) != 0) {
+					tag.setByteArray("lbo" + i, BundledSignal.unpack(outputValuesBundled[i]));
 				}
 			}
 		}
@@ -123,15 +128,17 @@ public abstract class GateLogic {
 
 		for (int i = 0; i < 4; i++) {
 			if (compound.hasKey("lbi" + i, Constants.NBT.TAG_BYTE_ARRAY)) {
-				byte[] old = inputValuesBundled[i];
-				inputValuesBundled[i] = ensureSizeAndCopy(compound.getByteArray("lbi" + i), 16);
-				update |= !Arrays.equals(old, inputValuesBundled[i]);
+				long old = inputValuesBundled[i];
+				inputValuesBundled[i] = BundledSignal.pack(compound.getByteArray("lbi" + i));
+				update |= (inputBundledPresent & (1 << i)) == 0 || old != inputValuesBundled[i];
+				inputBundledPresent |= (1 << i);
 			}
 
 			if (compound.hasKey("lbo" + i, Constants.NBT.TAG_BYTE_ARRAY)) {
-				byte[] old = outputValuesBundled[i];
-				outputValuesBundled[i] = ensureSizeAndCopy(compound.getByteArray("lbo" + i), 16);
-				update |= !Arrays.equals(old, outputValuesBundled[i]);
+				long old = outputValuesBundled[i];
+				outputValuesBundled[i] = BundledSignal.pack(compound.getByteArray("lbo" + i));
+				update |= (outputBundledPresent & (1 << i)) == 0 || old != outputValuesBundled[i];
+				outputBundledPresent |= (1 << i);
 			}
 		}
 
@@ -144,20 +151,21 @@ public abstract class GateLogic {
 
 		if (conn.isInput()) {
 			byte oldOV = inputValues[i];
-			byte[] oldOVB = inputValuesBundled[i];
+			long oldOVB = inputValuesBundled[i];
+			byte oldPresent = inputBundledPresent;
 
 			if (!isSideOpen(facing)) {
 				inputValues[i] = 0;
-				inputValuesBundled[i] = null;
+				setInputBundled(i, false, 0);
 			} else if (conn.isBundled()) {
 				inputValues[i] = 0;
-				inputValuesBundled[i] = gate.getBundledInput(facing);
+				setInputBundled(i, true, gate.getBundledInputPacked(facing));
 			} else {
 				inputValues[i] = gate.getRedstoneInput(facing);
-				inputValuesBundled[i] = null;
+				setInputBundled(i, false, 0);
 			}
 
-			return (oldOV != inputValues[i]) || !Arrays.equals(oldOVB, inputValuesBundled[i]);
+			return (oldOV != inputValues[i]) || oldOVB != inputValuesBundled[i] || oldPresent != inputBundledPresent;
 		} else {
 			return false;
 		}
@@ -169,21 +177,21 @@ public abstract class GateLogic {
 
 		if (conn.isOutput()) {
 			byte oldOV = outputValues[i];
-			byte[] oldOVB = outputValuesBundled[i];
+			long oldOVB = outputValuesBundled[i];
+			byte oldPresent = outputBundledPresent;
 
 			if (!isSideOpen(facing)) {
 				outputValues[i] = 0;
-				outputValuesBundled[i] = null;
+				setOutputBundled(facing, false, 0);
 			} else if (conn.isBundled()) {
 				outputValues[i] = 0;
-				outputValuesBundled[i] = new byte[16];
-				calculateOutputBundled(facing, outputValuesBundled[i]);
+				setOutputBundled(facing, true, calculateOutputBundledPacked(facing));
 			} else {
 				outputValues[i] = calculateOutputInside(facing);
-				outputValuesBundled[i] = null;
+				setOutputBundled(facing, false, 0);
 			}
 
-			return (oldOV != outputValues[i]) || !Arrays.equals(oldOVB, outputValuesBundled[i]);
+			return (oldOV != outputValues[i]) || oldOVB != outputValuesBundled[i] || oldPresent != outputBundledPresent;
 		} else {
 			return false;
 		}
@@ -227,6 +235,35 @@ public abstract class GateLogic {
 		throw new RuntimeException("Implement me!");
 	}
 
+	/**
+	 * Override this instead of {@link #calculateOutputBundled(EnumFacing, byte[])}
+	 * to work on packed bundled signals directly.
+	 */
+	protected long calculateOutputBundledPacked(EnumFacing side) {
+		byte[] data = new byte[16];
+		calculateOutputBundled(side, data);
+		return BundledSignal.pack(data);
+	}
+
+	private void setInputBundled(int i, boolean present, long value) {
+		inputValuesBundled[i] = value;
+		if (present) {
+			inputBundledPresent |= (1 << i);
+		} else {
+			inputBundledPresent &= ~(1 << i);
+		}
+	}
+
+	protected final void setOutputBundled(EnumFacing side, boolean present, long value) {
+		int i = side.ordinal() - 2;
+		outputValuesBundled[i] = value;
+		if (present) {
+			outputBundledPresent |= (1 << i);
+		} else {
+			outputBundledPresent &= ~(1 << i);
+		}
+	}
+
 	public GateConnection getType(EnumFacing dir) {
 		return dir == EnumFacing.NORTH ? GateConnection.OUTPUT : GateConnection.INPUT;
 	}
@@ -279,14 +316,30 @@ public abstract class GateLogic {
 		return (invertedSides & (1 << (side.ordinal() - 2))) != 0;
 	}
 
+	public final boolean hasInputValueBundled(EnumFacing side) {
+		return (inputBundledPresent & (1 << (side.ordinal() - 2))) != 0;
+	}
+
+	public final boolean hasOutputValueBundled(EnumFacing side) {
+		return (outputBundledPresent & (1 << (side.ordinal() - 2))) != 0;
+	}
+
+	public final long getInputValueBundledPacked(EnumFacing side) {
+		return inputValuesBundled[side.ordinal() - 2];
+	}
+
+	public final long getOutputValueBundledPacked(EnumFacing side) {
+		return outputValuesBundled[side.ordinal() - 2];
+	}
+
 	@Nullable
 	public final byte[] getInputValueBundled(EnumFacing side) {
-		return inputValuesBundled[side.ordinal() - 2];
+		return hasInputValueBundled(side) ? BundledSignal.unpack(getInputValueBundledPacked(side)) : null;
 	}
 
 	@Nullable
 	public final byte[] getOutputValueBundled(EnumFacing side) {
-		return outputValuesBundled[side.ordinal() - 2];
+		return hasOutputValueBundled(side) ? BundledSignal.unpack(getOutputValueBundledPacked(side)) : null;
 	}
 
 	public final byte getInputValueOutside(EnumFacing side) {
@@ -20,7 +20,7 @@
 package pl.asie.simplelogic.gates.logic;
 
 import net.minecraft.util.EnumFacing;
-import net.minecraft.util.math.MathHelper;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
 
 public class GateLogicBundledInverter extends GateLogic {
 	@Override
@@ -29,11 +29,8 @@ public class GateLogicBundledInverter extends GateLogic {
 	}
 
 	@Override
-	public void calculateOutputBundled(EnumFacing side, byte[] data) {
-		byte[] input = getInputValueBundled(EnumFacing.SOUTH);
-		for (int i = 0; i < 16; i++) {
-			data[i] = (byte) (input != null ? (15 - MathHelper.clamp(input[i], 0, 15)) : 15);
-		}
+	protected long calculateOutputBundledPacked(EnumFacing side) {
+		return hasInputValueBundled(EnumFacing.SOUTH) ? BundledSignal.invert(getInputValueBundledPacked(EnumFacing.SOUTH)) : BundledSignal.FULL;
 	}
 
 	@Override
@@ -20,6 +20,7 @@
 package pl.asie.simplelogic.gates.logic;
 
 import net.minecraft.util.EnumFacing;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
 
 public class GateLogicBundledTransceiver extends GateLogic {
 	private int inputState = 0;
@@ -31,41 +32,21 @@ public class GateLogicBundledTransceiver extends GateLogic {
 		return true;
 	}
 
+	// absent inputs are packed as 0
 	@Override
-	public void calculateOutputBundled(EnumFacing side, byte[] data) {
+	protected long calculateOutputBundledPacked(EnumFacing side) {
 		if (inputState == 3) {
-			byte[] inputNorth = getInputValueBundled(EnumFacing.NORTH);
-			byte[] inputSouth = getInputValueBundled(EnumFacing.SOUTH);
-			for (int i = 0; i < 16; i++) {
-				data[i] = (byte) Math.max(inputNorth != null ? inputNorth[i] : 0, inputSouth != null ? inputSouth[i] : 0);
-			}
-			return;
+			return BundledSignal.max(getInputValueBundledPacked(EnumFacing.NORTH), getInputValueBundledPacked(EnumFacing.SOUTH));
 		}
 
-		byte[] src = null;
-
 		switch (side) {
 			case SOUTH:
-				if (((inputState & 2) != 0)) {
-					src = getInputValueBundled(EnumFacing.NORTH);
-				}
-				break;
+				return (inputState & 2) != 0 ? getInputValueBundledPacked(EnumFacing.NORTH) : BundledSignal.EMPTY;
 			case NORTH:
-				if (((inputState & 1) != 0)) {
-					src = getInputValueBundled(EnumFacing.SOUTH);
-				}
-				break;
+				return (inputState & 1) != 0 ? getInputValueBundledPacked(EnumFacing.SOUTH) : BundledSignal.EMPTY;
 			default:
 				throw new RuntimeException("No bundled input here!");
 		}
-
-		if (src == null) {
-			for (int i = 0; i < 16; i++) {
-				data[i] = 0;
-			}
-		} else {
-			System.arraycopy(src, 0, data, 0, 16);
-		}
 	}
 
 	@Override
@@ -30,6 +30,7 @@ import net.minecraftforge.common.capabilities.ICapabilityProvider;
 import net.minecraftforge.common.util.Constants;
 import pl.asie.charset.lib.capability.Capabilities;
 import pl.asie.charset.lib.stagingapi.IConfigurationHolder;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -82,29 +83,20 @@ public class GateLogicBundledTransposer extends GateLogic implements ICapability
 
 	@Override
 	public void onChanged(IGateContainer gate) {
-		byte[] input = getInputValueBundled(EnumFacing.SOUTH);
-		byte[] oldOutput = getOutputValueBundled(EnumFacing.NORTH);
-		byte[] data = new byte[16];
+		long input = getInputValueBundledPacked(EnumFacing.SOUTH);
+		long data = BundledSignal.EMPTY;
 
-		if (input == null) {
-			for (int i = 0; i < 16; i++)
-				data[i] = 0;
-		} else {
+		if (hasInputValueBundled(EnumFacing.SOUTH)) {
 			for (int from = 0; from < 16; from++) {
-				int v = transpositionMap[from];
-				int i = 0;
-				while (v != 0) {
-					if ((v & 1) != 0) {
-						data[i] = (byte) Math.max(data[i], input[from]);
-					}
-					v >>= 1;
-					i++;
+				int level = BundledSignal.get(input, from);
+				if (level != 0 && transpositionMap[from] != 0) {
+					data = BundledSignal.max(data, BundledSignal.fromMask(transpositionMap[from], level));
 				}
 			}
 		}
 
-		if (!Arrays.equals(oldOutput, data)) {
-			outputValuesBundled[0] = data;
+		if (!hasOutputValueBundled(EnumFacing.NORTH) || getOutputValueBundledPacked(EnumFacing.NORTH) != data) {
+			setOutputBundled(EnumFacing.NORTH, true, data);
 			gate.markGateChanged(true);
 		}
 	}
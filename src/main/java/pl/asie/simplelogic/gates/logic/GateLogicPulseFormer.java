@@ -55,7 +55,7 @@ public class GateLogicPulseFormer extends GateLogic {
 
 	@Override
 	public boolean updateInputs(IGateContainer gate) {
-		long time = gate.getGateWorld().getTotalWorldTime();
+		long time = gate.getGateTime();
 		if (checkTime != time) {
 			checkTime = time;
 			prevValue = getInputValueInside(EnumFacing.SOUTH);
@@ -67,7 +67,7 @@ public class GateLogicPulseFormer extends GateLogic {
 
 	@Override
 	public void onChanged(IGateContainer gate) {
-		long time = gate.getGateWorld().getTotalWorldTime();
+		long time = gate.getGateTime();
 		if (pulse == 0 || tickTime == time) {
 			pulse = getInputValueInside(EnumFacing.SOUTH);
 			if (pulse == prevValue) {
@@ -125,7 +125,7 @@ public class GateLogicRepeater extends GateLogic {
 
 	@Override
 	public void onChanged(IGateContainer gate) {
-		if (!gate.getGateWorld().isRemote) {
+		if (!gate.isGateRemote()) {
 			gate.markGateChanged(false);
 		}
 
@@ -25,6 +25,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import pl.asie.charset.lib.notify.Notice;
 import pl.asie.charset.lib.notify.component.NotificationComponent;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
 import pl.asie.simplelogic.gates.SimpleLogicGates;
 
 public interface IGateContainer {
@@ -34,6 +35,14 @@ public interface IGateContainer {
 	EnumFacing getTop();
 	GateLogic getLogic();
 
+	default long getGateTime() {
+		return getGateWorld().getTotalWorldTime();
+	}
+
+	default boolean isGateRemote() {
+		return getGateWorld().isRemote;
+	}
+
 	void scheduleTick(int gameTicks);
 	default void scheduleRedstoneTick() {
 		scheduleTick(SimpleLogicGates.redstoneTickLength);
@@ -42,6 +51,10 @@ public interface IGateContainer {
 	byte getRedstoneInput(EnumFacing facing);
 	byte[] getBundledInput(EnumFacing facing);
 
+	default long getBundledInputPacked(EnumFacing facing) {
+		return BundledSignal.pack(getBundledInput(facing));
+	}
+
 	Notice createNotice(NotificationComponent component);
 	void markGateChanged(boolean changedIO);
 	void openGUI(EntityPlayer playerIn);
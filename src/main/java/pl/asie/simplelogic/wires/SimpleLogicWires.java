@@ -51,6 +51,7 @@ import pl.asie.charset.lib.utils.RegistryUtils;
 import pl.asie.charset.lib.wires.*;
 import pl.asie.charset.shared.SimpleLogicShared;
 import pl.asie.simplelogic.wires.logic.LogicWireProvider;
+import pl.asie.simplelogic.wires.logic.PartWireSignalBase;
 import pl.asie.charset.lib.wires.SignalMeterDataBundledWire;
 import pl.asie.charset.lib.wires.SignalMeterDataWire;
 import pl.asie.simplelogic.wires.logic.WireRenderHandlerOverlay;
@@ -116,6 +117,8 @@ public class SimpleLogicWires {
 			}
 		}
 
+		WireUpdateQueue.INSTANCE.addBatchListener(PartWireSignalBase::onConnectionsUpdated);
+
 		if (enableInsulatedCables) {
 			for (int i = 0; i < 16; i++) {
 				IngredientGroup.register("simplelogic:wireInsulated", i, new ItemStack(wireItems[i + 1]));
@@ -37,16 +37,19 @@ import pl.asie.charset.api.wires.*;
 import pl.asie.charset.lib.capability.Capabilities;
 import pl.asie.charset.lib.stagingapi.ISignalMeterData;
 import pl.asie.charset.lib.utils.ColorUtils;
+import pl.asie.charset.lib.utils.redstone.BundledSignal;
+import pl.asie.charset.lib.utils.redstone.IBundledEmitterPacked;
 import pl.asie.charset.lib.wires.*;
 import pl.asie.simplelogic.wires.LogicWireUtils;
 import pl.asie.simplelogic.wires.SimpleLogicWires;
 
 import javax.annotation.Nonnull;
 
-public class PartWireBundled extends PartWireSignalBase implements IBundledReceiver, IBundledEmitter {
+public class PartWireBundled extends PartWireSignalBase implements IBundledReceiver, IBundledEmitterPacked {
 	private int[] insulatedColorCache = null;
 	private int[] signalLevel = new int[16];
-	private byte[] signalValue = new byte[16];
+	// see BundledSignal
+	private long signalValue;
 
 	public PartWireBundled(@Nonnull IWireContainer container, @Nonnull WireProvider factory, @Nonnull WireFace location) {
 		super(container, factory, location);
@@ -116,8 +119,9 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 			signalLevel = new int[16];
 		}
 
+		signalValue = 0;
 		for (int i = 0; i < 16; i++) {
-			signalValue[i] = (byte) (signalLevel[i] >> 8);
+			signalValue = BundledSignal.set(signalValue, i, signalLevel[i] >> 8);
 		}
 
 		insulatedColorCache = null;
@@ -130,7 +134,7 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 		return nbt;
 	}
 
-	private void propagate(int color, PropagationQueue queue, byte[][] nValues) {
+	private void propagate(int color, PropagationQueue queue, long[] nValues, int nPresent) {
 		boolean[] isWire = new boolean[7];
 		int[] neighborLevel = new int[7];
 
@@ -148,12 +152,9 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 
 		for (EnumFacing facing : EnumFacing.VALUES) {
 			if (connectsExternal(facing)) {
-				if (nValues[facing.ordinal()] != null) {
-					int nv = nValues[facing.ordinal()][color];
-					// clamp nv
-					if (nv < 0 || nv > 0x0F) nv = 0x0F;
-
-					int v = nv << 8;
+				if ((nPresent & (1 << facing.ordinal())) != 0) {
+					// BundledSignal.pack() has already clamped the value
+					int v = BundledSignal.get(nValues[facing.ordinal()], color) << 8;
 					if (v != 0) {
 						neighborLevel[facing.ordinal()] = v | 0xFF;
 					}
@@ -210,7 +211,7 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 		}
 
 		signalLevel[color] = newSignal;
-		signalValue[color] = (byte) (newSignal >> 8);
+		signalValue = BundledSignal.set(signalValue, color, newSignal >> 8);
 
 		if (DEBUG) {
 			System.out.println("Switch: " + oldSignal + " -> " + newSignal);
@@ -276,19 +277,14 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 
 	@Override
 	public void propagate(int color, PropagationQueue queue) {
-		if (color == -1) {
-			for (int i = 0; i < 16; i++) {
-				propagate(i, queue);
-			}
-			return;
-		}
-
 		if (DEBUG) {
 			System.out.println("--- B! PROPAGATE " + getContainer().pos().toString() + " " + getLocation().name() + " --- " + color);
 // TODO			System.out.println("ConnectionCache: " + Integer.toBinaryString(internalConnections) + " " + Integer.toBinaryString(externalConnections) + " " + Integer.toBinaryString(cornerConnections));
 		}
 
-		byte[][] nValues = new byte[6][];
+		// Query the neighbouring emitters once, even when propagating all colors.
+		long[] nValues = new long[6];
+		int nPresent = 0;
 
 		for (EnumFacing facing : EnumFacing.VALUES) {
 			if (connectsExternal(facing)) {
@@ -300,16 +296,19 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 				}
 
 				if (emitter != null) {
-					if (emitter instanceof PartWireBundled) {
-						nValues[facing.ordinal()] = ((PartWireBundled) emitter).getBundledSignalUnsafe();
-					} else {
-						nValues[facing.ordinal()] = emitter.getBundledSignal();
-					}
+					nValues[facing.ordinal()] = IBundledEmitterPacked.getPacked(emitter);
+					nPresent |= 1 << facing.ordinal();
 				}
 			}
 		}
 
-		propagate(color, queue, nValues);
+		if (color == -1) {
+			for (int i = 0; i < 16; i++) {
+				propagate(i, queue, nValues, nPresent);
+			}
+		} else {
+			propagate(color, queue, nValues, nPresent);
+		}
 	}
 
 	@Override
@@ -347,11 +346,7 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 	}
 
 	@Override
-	public byte[] getBundledSignal() {
-		return Arrays.copyOf(signalValue, 16);
-	}
-
-	protected byte[] getBundledSignalUnsafe() {
+	public long getBundledSignalPacked() {
 		return signalValue;
 	}
 
@@ -402,10 +397,10 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 		builder.append(' ');
 		for (int i = 0; i < 16; i++) {
 			EnumDyeColor c = EnumDyeColor.byMetadata(i);
-			int v = signalValue[i];
+			int v = BundledSignal.get(signalValue, i);
 
 			builder.append(ColorUtils.getNearestTextFormatting(c));
-			builder.append(v <= 0 ? '_' : Integer.toHexString(signalValue[i]).toUpperCase(Locale.ROOT));
+			builder.append(v <= 0 ? '_' : Integer.toHexString(v).toUpperCase(Locale.ROOT));
 
 			if (v > 0) {
 				extraString.add(ColorUtils.getNearestTextFormatting(c) + I18n.translateToLocal(ColorUtils.getLangEntry("charset.color.", c)) + " R:" + v + " S:" + (signalLevel[i] & 0xFF));
@@ -417,6 +412,6 @@ public class PartWireBundled extends PartWireSignalBase implements IBundledRecei
 
 	@Override
 	public ISignalMeterData getSignalMeterData(RayTraceResult result) {
-		return new SignalMeterDataBundledWire(signalValue);
+		return new SignalMeterDataBundledWire(BundledSignal.unpack(signalValue));
 	}
 }
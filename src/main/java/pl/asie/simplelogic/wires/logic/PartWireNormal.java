@@ -326,6 +326,23 @@ public class PartWireNormal extends PartWireSignalBase implements IRedstoneEmitt
 		}
 	}
 
+	@Override
+	public void setCircuitSignal(int level) {
+		int oldSignal = signalLevel;
+		// 0xFE: as strong as a wire next to the source
+		signalLevel = level > 0 ? ((level & 15) << 8) | 0xFE : 0;
+
+		if ((oldSignal & 0xF00) != (signalLevel & 0xF00)) {
+			if (getWireType() == WireType.NORMAL || PartWireSignalBase.DEBUG_CLIENT_WIRE_STATE) {
+				if (SimpleLogicWires.useTESRs) {
+					getContainer().requestNetworkUpdate();
+				} else {
+					getContainer().requestRenderUpdate();
+				}
+			}
+		}
+	}
+
 	@Override
 	public int getSignalLevel() {
 		return signalLevel;
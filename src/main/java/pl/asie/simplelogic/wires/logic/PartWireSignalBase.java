@@ -29,6 +29,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
 
 import net.minecraftforge.common.capabilities.Capability;
 import pl.asie.charset.ModCharset;
@@ -47,6 +48,7 @@ import pl.asie.charset.lib.wires.*;
 import pl.asie.simplelogic.gates.PartGate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public abstract class PartWireSignalBase extends Wire implements IWire, ISignalMeterDataProvider, IDebuggable, ISimpleLogicSidedEmitter {
 	@SuppressWarnings("PointlessBooleanExpression")
@@ -58,6 +60,7 @@ public abstract class PartWireSignalBase extends Wire implements IWire, ISignalM
 	public static boolean WIRES_CONNECT_REDSTONE = true;
 	private final EnumSet<EnumFacing> propagationDirs = EnumSet.noneOf(EnumFacing.class);
 	private int color = -1;
+	private Runnable circuitListener;
 
 	public PartWireSignalBase(@Nonnull IWireContainer container, @Nonnull WireProvider factory, @Nonnull WireFace location) {
 		super(container, factory, location);
@@ -167,6 +170,20 @@ public abstract class PartWireSignalBase extends Wire implements IWire, ISignalM
 
 	public abstract int getRedstoneLevel();
 
+	/**
+	 * Called with a compiled circuit's net value, instead of propagating.
+	 */
+	public void setCircuitSignal(int level) {
+
+	}
+
+	/**
+	 * @param listener Run once, the next time this wire's connections change.
+	 */
+	public void setCircuitListener(@Nullable Runnable listener) {
+		this.circuitListener = listener;
+	}
+
 	@Override
 	public void readNBTData(NBTTagCompound nbt, boolean isClient) {
 		super.readNBTData(nbt, isClient);
@@ -201,9 +218,46 @@ public abstract class PartWireSignalBase extends Wire implements IWire, ISignalM
 			}
 		}
 
+		int oldConnections = getConnectionMask();
 		super.updateConnections();
 
-		scheduleLogicUpdate();
+		if (circuitListener != null && oldConnections != getConnectionMask()) {
+			Runnable listener = circuitListener;
+			circuitListener = null;
+			listener.run();
+		}
+
+		// The signal itself is propagated once per batch, see onConnectionsUpdated.
+	}
+
+	/**
+	 * Propagates the signals of all wires whose connections were updated
+	 * in one batch through a single queue, instead of one queue per wire.
+	 */
+	public static void onConnectionsUpdated(World world, Collection<Wire> wires) {
+		if (world.isRemote) {
+			return;
+		}
+
+		PropagationQueue queue = null;
+		for (Wire wire : wires) {
+			if (wire instanceof PartWireSignalBase && wire.getContainer().world() != null) {
+				PartWireSignalBase signalWire = (PartWireSignalBase) wire;
+				if (signalWire.getContainer().pos() == null) {
+					signalWire.scheduleLogicUpdate();
+					continue;
+				}
+
+				if (queue == null) {
+					queue = new PropagationQueue(false);
+				}
+				queue.add(signalWire, -1);
+			}
+		}
+
+		if (queue != null) {
+			queue.propagate();
+		}
 	}
 
 	protected void propagateNotifyCorner(EnumFacing side, EnumFacing direction, PropagationQueue queue, int color) {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import net.minecraft.util.ResourceLocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.asie.charset.lib.utils.ThreeState;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The locks module checks the "lock" rule for every tile entity which
+ * gets capabilities attached. Constructing real tiles needs a world, so
+ * this replays the rule checks for 100k tiles drawn from a modpack-sized
+ * set of tile entity IDs instead: without the locks module (no check),
+ * with the compiled rule, and with the previous per-call string lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharsetIMCBenchmark {
+	private static final String KEY = "benchmarkLock";
+	private static final int TILES = 100000;
+	private static final int DOMAINS = 40;
+	private static final int TILE_TYPES = 600;
+
+	private final Multimap<String, ResourceLocation> legacyLocs = HashMultimap.create();
+	private final Multimap<String, String> legacyDomainLocs = HashMultimap.create();
+	private CharsetIMC.Rule rule;
+	private ResourceLocation[] tiles;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0x4c4f434bL);
+		ResourceLocation[] types = new ResourceLocation[TILE_TYPES];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = new ResourceLocation("mod" + random.nextInt(DOMAINS), "tile" + i);
+		}
+
+		// a handful of explicit entries and whole-mod entries, as sent over IMC
+		for (int i = 0; i < 20; i++) {
+			add(i % 3 == 0 ? ThreeState.NO : ThreeState.YES, types[random.nextInt(types.length)]);
+		}
+		add(ThreeState.NO, new ResourceLocation("mod0", "*"));
+		add(ThreeState.YES, new ResourceLocation("mod1", "*"));
+
+		rule = CharsetIMC.INSTANCE.getRule(KEY);
+		tiles = new ResourceLocation[TILES];
+		for (int i = 0; i < tiles.length; i++) {
+			// fresh instances, as TileEntity.getKey returns registry keys rather than our own
+			ResourceLocation type = types[random.nextInt(types.length)];
+			tiles[i] = new ResourceLocation(type.getNamespace(), type.getPath());
+		}
+	}
+
+	private void add(ThreeState state, ResourceLocation location) {
+		CharsetIMC.INSTANCE.add(state, KEY, location);
+		String entryKey = (state == ThreeState.YES ? "w:" : "b:") + KEY;
+		if (location.getPath().equals("*")) {
+			legacyDomainLocs.put(entryKey, location.getNamespace());
+		} else {
+			legacyLocs.put(entryKey, location);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		for (String prefix : new String[] { "w:", "b:" }) {
+			ThreeState state = prefix.equals("w:") ? ThreeState.YES : ThreeState.NO;
+			for (ResourceLocation location : legacyLocs.get(prefix + KEY)) {
+				CharsetIMC.INSTANCE.remove(state, KEY, location);
+			}
+			for (String domain : legacyDomainLocs.get(prefix + KEY)) {
+				CharsetIMC.INSTANCE.remove(state, KEY, new ResourceLocation(domain, "*"));
+			}
+		}
+	}
+
+	private ThreeState allowsLegacy(ResourceLocation location) {
+		String bKey = "b:" + KEY;
+		String wKey = "w:" + KEY;
+
+		if (legacyLocs.get(bKey).contains(location)) {
+			return ThreeState.NO;
+		} else if (legacyLocs.get(wKey).contains(location)) {
+			return ThreeState.YES;
+		} else if (legacyDomainLocs.get(bKey).contains(location.getNamespace())) {
+			return ThreeState.NO;
+		} else if (legacyDomainLocs.get(wKey).contains(location.getNamespace())) {
+			return ThreeState.YES;
+		} else {
+			return ThreeState.MAYBE;
+		}
+	}
+
+	@Benchmark
+	public void withoutLocks(Blackhole blackhole) {
+		for (ResourceLocation tile : tiles) {
+			blackhole.consume(tile);
+		}
+	}
+
+	@Benchmark
+	public void withLocks(Blackhole blackhole) {
+		for (ResourceLocation tile : tiles) {
+			blackhole.consume(rule.allows(tile));
+		}
+	}
+
+	@Benchmark
+	public void withLocksStringKeys(Blackhole blackhole) {
+		for (ResourceLocation tile : tiles) {
+			blackhole.consume(allowsLegacy(tile));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib;
+
+import net.minecraft.util.ResourceLocation;
+import org.junit.Test;
+import pl.asie.charset.lib.utils.ThreeState;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class CharsetIMCTest {
+	private static final CharsetIMC IMC = CharsetIMC.INSTANCE;
+
+	@Test
+	public void testRuleResults() {
+		String key = "testRuleResults";
+		CharsetIMC.Rule rule = IMC.getRule(key);
+		ResourceLocation listed = new ResourceLocation("foo", "listed");
+		ResourceLocation other = new ResourceLocation("foo", "other");
+		ResourceLocation unrelated = new ResourceLocation("bar", "unrelated");
+
+		assertEquals(ThreeState.MAYBE, rule.allows(listed));
+
+		IMC.add(ThreeState.NO, key, new ResourceLocation("foo", "*"));
+		IMC.add(ThreeState.YES, key, listed);
+		assertEquals(ThreeState.YES, rule.allows(listed));
+		assertEquals(ThreeState.NO, rule.allows(other));
+		assertEquals(ThreeState.MAYBE, rule.allows(unrelated));
+
+		// blacklist entries win over whitelist entries
+		IMC.add(ThreeState.NO, key, listed);
+		assertEquals(ThreeState.NO, rule.allows(listed));
+		assertEquals(ThreeState.NO, IMC.allows(key, Arrays.asList(unrelated, listed)));
+	}
+
+	@Test
+	public void testRuleInvalidation() {
+		String key = "testRuleInvalidation";
+		CharsetIMC.Rule rule = IMC.getRule(key);
+		ResourceLocation location = new ResourceLocation("foo", "bar");
+
+		// results are cached per location; changes must still show up
+		assertEquals(ThreeState.MAYBE, rule.allows(location));
+		IMC.add(ThreeState.YES, key, location);
+		assertEquals(ThreeState.YES, rule.allows(location));
+		IMC.remove(ThreeState.YES, key, location);
+		assertEquals(ThreeState.MAYBE, rule.allows(location));
+
+		// cached by equals, not by identity
+		IMC.add(ThreeState.NO, key, location);
+		assertEquals(ThreeState.NO, rule.allows(new ResourceLocation("foo", "bar")));
+	}
+
+	@Test
+	public void testRulesAreShared() {
+		assertEquals(IMC.getRule("testRulesAreShared"), IMC.getRule("testRulesAreShared"));
+	}
+}
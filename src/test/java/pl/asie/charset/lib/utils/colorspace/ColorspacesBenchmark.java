@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.utils.colorspace;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dye matching compares texture colours against a small palette in LAB;
+ * this measures that pattern with and without the RGB -> LAB cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorspacesBenchmark {
+	private int[] palette;
+	private int[] colors;
+	private float[] tmp1, tmp2;
+
+	@Setup
+	public void setup() {
+		Colorspaces.init();
+
+		Random random = new Random(0x42454e43L);
+		palette = new int[16];
+		for (int i = 0; i < palette.length; i++) {
+			palette[i] = random.nextInt(0x1000000);
+		}
+		colors = new int[256];
+		for (int i = 0; i < colors.length; i++) {
+			colors[i] = random.nextInt(0x1000000);
+		}
+		tmp1 = new float[3];
+		tmp2 = new float[3];
+	}
+
+	@Benchmark
+	public double paletteDistanceCached() {
+		double sum = 0;
+		for (int color : colors) {
+			for (int p : palette) {
+				sum += Colorspaces.getColorDistanceSq(color, p, Colorspace.LAB);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double paletteDistanceUncached() {
+		double sum = 0;
+		for (int color : colors) {
+			for (int p : palette) {
+				sum += Colorspaces.getColorDistanceSq(toLAB(color, tmp1), toLAB(p, tmp2));
+			}
+		}
+		return sum;
+	}
+
+	private static float[] toLAB(int rgb, float[] out) {
+		out[0] = ((rgb >> 16) & 0xFF) / 255.0f;
+		out[1] = ((rgb >> 8) & 0xFF) / 255.0f;
+		out[2] = (rgb & 0xFF) / 255.0f;
+		return Colorspaces.convert(out, Colorspace.sRGB, Colorspace.LAB, out);
+	}
+}
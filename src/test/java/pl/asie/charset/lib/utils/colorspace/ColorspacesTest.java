@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.utils.colorspace;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ColorspacesTest {
+	private static final int SAMPLES = 200000;
+
+	@BeforeClass
+	public static void init() {
+		Colorspaces.init();
+	}
+
+	/**
+	 * The uncached reference: the allocating sRGB -> XYZ -> LAB chain.
+	 */
+	private static float[] getReferenceLAB(int rgb) {
+		float[] v = new float[] {
+				((rgb >> 16) & 0xFF) / 255.0f,
+				((rgb >> 8) & 0xFF) / 255.0f,
+				(rgb & 0xFF) / 255.0f
+		};
+		return ColorspaceFunctions.XYZtoLAB(ColorspaceFunctions.sRGBtoXYZ(v));
+	}
+
+	private static void assertLABEquals(int rgb, float[] expected, float[] actual) {
+		for (int i = 0; i < 3; i++) {
+			// the cache must not change results at all, so compare bit patterns
+			assertEquals("LAB[" + i + "] of " + Integer.toHexString(rgb), Float.floatToIntBits(expected[i]), Float.floatToIntBits(actual[i]));
+		}
+	}
+
+	@Test
+	public void testCachedLABMatchesUncached() {
+		Random random = new Random(0x43485253L);
+		float[] out = new float[3];
+
+		for (int i = 0; i < SAMPLES; i++) {
+			int rgb = random.nextInt(0x1000000);
+			float[] expected = getReferenceLAB(rgb);
+			// the first lookup usually misses, the second one hits
+			assertLABEquals(rgb, expected, Colorspaces.convertFromRGB(rgb, Colorspace.LAB, out));
+			assertLABEquals(rgb, expected, Colorspaces.convertFromRGB(rgb, Colorspace.LAB, out));
+		}
+	}
+
+	@Test
+	public void testCachedLABIgnoresAlpha() {
+		Random random = new Random(0x414c5048L);
+
+		for (int i = 0; i < 1000; i++) {
+			int rgb = random.nextInt(0x1000000);
+			assertLABEquals(rgb, getReferenceLAB(rgb), Colorspaces.convertFromRGB(0xFF000000 | rgb, Colorspace.LAB));
+		}
+	}
+
+	@Test
+	public void testCachedLABMatchesGenericConversion() {
+		Random random = new Random(0x47454e52L);
+		float[] tmp = new float[3];
+
+		for (int i = 0; i < 10000; i++) {
+			int rgb = random.nextInt(0x1000000);
+			tmp[0] = ((rgb >> 16) & 0xFF) / 255.0f;
+			tmp[1] = ((rgb >> 8) & 0xFF) / 255.0f;
+			tmp[2] = (rgb & 0xFF) / 255.0f;
+			assertLABEquals(rgb, Colorspaces.convert(tmp, Colorspace.sRGB, Colorspace.LAB), Colorspaces.convertFromRGB(rgb, Colorspace.LAB));
+		}
+	}
+
+	@Test
+	public void testCachedLABDistanceMatchesUncached() {
+		Random random = new Random(0x44495354L);
+
+		for (int i = 0; i < SAMPLES / 10; i++) {
+			int c1 = random.nextInt(0x1000000);
+			int c2 = random.nextInt(0x1000000);
+			double expected = Colorspaces.getColorDistanceSq(getReferenceLAB(c1), getReferenceLAB(c2));
+			assertEquals(expected, Colorspaces.getColorDistanceSq(c1, c2, Colorspace.LAB), 0.0);
+		}
+	}
+}
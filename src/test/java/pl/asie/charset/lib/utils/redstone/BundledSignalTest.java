@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.lib.utils.redstone;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class BundledSignalTest {
+	private static final int SAMPLES = 100000;
+
+	private static byte[] randomLevels(Random random) {
+		byte[] levels = new byte[16];
+		for (int i = 0; i < 16; i++) {
+			// bias towards the extremes, as real buses carry mostly 0 and 15
+			int r = random.nextInt(4);
+			levels[i] = (byte) (r == 0 ? 0 : r == 1 ? 15 : random.nextInt(16));
+		}
+		return levels;
+	}
+
+	@Test
+	public void testPackRoundTrip() {
+		Random random = new Random(0x5041434bL);
+		for (int i = 0; i < SAMPLES; i++) {
+			byte[] levels = randomLevels(random);
+			long packed = BundledSignal.pack(levels);
+			assertArrayEquals(levels, BundledSignal.unpack(packed));
+			for (int c = 0; c < 16; c++) {
+				assertEquals(levels[c], BundledSignal.get(packed, c));
+				assertEquals(packed, BundledSignal.set(packed, c, levels[c]));
+			}
+		}
+	}
+
+	@Test
+	public void testPackEdgeCases() {
+		assertEquals(BundledSignal.EMPTY, BundledSignal.pack(null));
+		assertEquals(BundledSignal.EMPTY, BundledSignal.pack(new byte[0]));
+		assertEquals(BundledSignal.FULL, BundledSignal.pack(new byte[] { 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 15, 7 }));
+		assertEquals(0xF0F0L, BundledSignal.pack(new byte[] { 0, -1, 0, 16 }));
+	}
+
+	@Test
+	public void testSet() {
+		long packed = BundledSignal.FULL;
+		for (int c = 0; c < 16; c++) {
+			packed = BundledSignal.set(packed, c, c);
+		}
+		assertEquals(0xFEDCBA9876543210L, packed);
+		assertEquals(BundledSignal.set(0, 3, 5), BundledSignal.set(0, 3, 0x25));
+	}
+
+	@Test
+	public void testInvert() {
+		Random random = new Random(0x494e5654L);
+		for (int i = 0; i < SAMPLES; i++) {
+			byte[] levels = randomLevels(random);
+			long inverted = BundledSignal.invert(BundledSignal.pack(levels));
+			for (int c = 0; c < 16; c++) {
+				assertEquals(15 - levels[c], BundledSignal.get(inverted, c));
+			}
+		}
+	}
+
+	@Test
+	public void testMaxAllLevelPairs() {
+		// every pair of levels, in every channel (the lanes are split by byte parity)
+		for (int a = 0; a < 16; a++) {
+			for (int b = 0; b < 16; b++) {
+				long max = BundledSignal.max(BundledSignal.fromMask(0xFFFF, a), BundledSignal.fromMask(0xFFFF, b));
+				assertEquals("max(" + a + ", " + b + ")", BundledSignal.fromMask(0xFFFF, Math.max(a, b)), max);
+			}
+		}
+	}
+
+	@Test
+	public void testMax() {
+		Random random = new Random(0x4d415821L);
+		for (int i = 0; i < SAMPLES; i++) {
+			byte[] a = randomLevels(random);
+			byte[] b = randomLevels(random);
+			long max = BundledSignal.max(BundledSignal.pack(a), BundledSignal.pack(b));
+			for (int c = 0; c < 16; c++) {
+				assertEquals("channel " + c, Math.max(a[c], b[c]), BundledSignal.get(max, c));
+			}
+		}
+	}
+
+	@Test
+	public void testMaskRoundTrip() {
+		for (int mask = 0; mask < 0x10000; mask++) {
+			long full = BundledSignal.fromMask(mask, 15);
+			assertEquals(mask, BundledSignal.mask(full));
+			assertEquals(mask, BundledSignal.mask(BundledSignal.fromMask(mask, 1)));
+			assertEquals(full, BundledSignal.digital(BundledSignal.fromMask(mask, 6)));
+			assertEquals(0, BundledSignal.fromMask(mask, 0));
+		}
+	}
+
+	@Test
+	public void testMask() {
+		Random random = new Random(0x4d41534bL);
+		for (int i = 0; i < SAMPLES; i++) {
+			byte[] levels = randomLevels(random);
+			int expected = 0;
+			for (int c = 0; c < 16; c++) {
+				if (levels[c] != 0) {
+					expected |= 1 << c;
+				}
+			}
+			assertEquals(expected, BundledSignal.mask(BundledSignal.pack(levels)));
+		}
+	}
+}
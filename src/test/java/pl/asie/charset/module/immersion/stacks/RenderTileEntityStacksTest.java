@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.immersion.stacks;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.util.EnumFacing;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RenderTileEntityStacksTest {
+	private final Function<EnumFacing, TextureAtlasSprite> getter = StacksQuadBenchmark.createGetter();
+	private final float[] color = new float[] { 1.0f, 1.0f, 1.0f, 1.0f };
+
+	@Test
+	public void testIngotQuadsCoverAllFaces() {
+		for (int i = 0; i < 64; i++) {
+			List<BakedQuad> quads = RenderTileEntityStacks.buildIngotQuads(i, getter, color, true);
+			assertEquals("slot " + i, 6, quads.size());
+
+			Set<EnumFacing> faces = EnumSet.noneOf(EnumFacing.class);
+			for (BakedQuad quad : quads) {
+				faces.add(quad.getFace());
+				assertSame("slot " + i + ", face " + quad.getFace(), getter.apply(quad.getFace()), quad.getSprite());
+			}
+			assertEquals("slot " + i, EnumSet.allOf(EnumFacing.class), faces);
+		}
+	}
+
+	/**
+	 * Pile quads are shared between tiles, so building the same slot twice
+	 * has to produce the same geometry.
+	 */
+	@Test
+	public void testIngotQuadsDeterministic() {
+		for (int i = 0; i < 64; i++) {
+			List<BakedQuad> a = RenderTileEntityStacks.buildIngotQuads(i, getter, color, true);
+			List<BakedQuad> b = RenderTileEntityStacks.buildIngotQuads(i, getter, color, true);
+			for (int j = 0; j < a.size(); j++) {
+				assertTrue("slot " + i + ", quad " + j, Arrays.equals(a.get(j).getVertexData(), b.get(j).getVertexData()));
+			}
+		}
+	}
+}
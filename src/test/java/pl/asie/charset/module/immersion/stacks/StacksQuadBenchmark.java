@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.immersion.stacks;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.util.EnumFacing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Generates stack pile geometry without a running client: a full 64-ingot
+ * pile, as rebuilt on every re-mesh before per-slot caching, against the
+ * single slot rebuilt when one ingot is added or removed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StacksQuadBenchmark {
+	private Function<EnumFacing, TextureAtlasSprite> getter;
+	private float[] color;
+
+	static TextureAtlasSprite createSprite(String name, int x, int y) {
+		TextureAtlasSprite sprite = new TextureAtlasSprite(name) { };
+		sprite.setIconWidth(16);
+		sprite.setIconHeight(16);
+		sprite.initSprite(256, 256, x, y, false);
+		return sprite;
+	}
+
+	static Function<EnumFacing, TextureAtlasSprite> createGetter() {
+		EnumMap<EnumFacing, TextureAtlasSprite> sprites = new EnumMap<>(EnumFacing.class);
+		for (EnumFacing facing : EnumFacing.VALUES) {
+			sprites.put(facing, createSprite("charset:test_" + facing.getName(), facing.ordinal() * 16, 0));
+		}
+		TextureAtlasSprite fallback = createSprite("charset:test", 0, 16);
+		return (f) -> f != null ? sprites.get(f) : fallback;
+	}
+
+	@Setup
+	public void setup() {
+		getter = createGetter();
+		color = new float[] { 0.8f, 0.6f, 0.2f, 1.0f };
+	}
+
+	@Benchmark
+	public void buildFullPile(Blackhole blackhole) {
+		for (int i = 0; i < 64; i++) {
+			blackhole.consume(RenderTileEntityStacks.buildIngotQuads(i, getter, color, true));
+		}
+	}
+
+	@Benchmark
+	public List<BakedQuad> buildChangedSlot() {
+		return RenderTileEntityStacks.buildIngotQuads(63, getter, color, true);
+	}
+}
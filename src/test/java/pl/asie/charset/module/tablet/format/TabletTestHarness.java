@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import pl.asie.charset.module.tablet.format.api.*;
+import pl.asie.charset.module.tablet.format.commands.CommandURL;
+import pl.asie.charset.module.tablet.format.commands.CommandURLMissing;
+import pl.asie.charset.module.tablet.format.words.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sets up the tablet formatting pipeline without a running client, so that
+ * the tokenizer and ClientTypesetter can be driven from tests and
+ * benchmarks.
+ *
+ * The commands match CharsetTablet's registrations; those which need the
+ * game (items, images, mod checks) are replaced by stand-ins which consume
+ * the same parameters and write plain text. Words are measured by a
+ * monospace printer, so no FontRenderer is needed.
+ */
+public final class TabletTestHarness {
+    public static final int CHAR_WIDTH = 6;
+    public static final int LINE_HEIGHT = 9;
+
+    private static boolean initialized;
+
+    private TabletTestHarness() {
+
+    }
+
+    private static class MonospacePrinter extends WordPrinterMinecraft<Word> {
+        private final DisplayType displayType;
+
+        MonospacePrinter(DisplayType displayType) {
+            this.displayType = displayType;
+        }
+
+        @Override
+        public DisplayType getDisplayType() {
+            return displayType;
+        }
+
+        @Override
+        public int getWidth(IPrintingContextMinecraft context, Word word) {
+            if (word instanceof WordText) {
+                return ((WordText) word).getText().length() * CHAR_WIDTH;
+            } else if (word instanceof WordNewline) {
+                return 0;
+            } else {
+                return 2 * CHAR_WIDTH;
+            }
+        }
+
+        @Override
+        public int getHeight(IPrintingContextMinecraft context, Word word) {
+            return LINE_HEIGHT;
+        }
+
+        @Override
+        public int getPaddingAbove(IPrintingContextMinecraft context, Word word) {
+            return word instanceof WordNewline ? (((WordNewline) word).getLines() - 1) * LINE_HEIGHT : 1;
+        }
+
+        @Override
+        public void draw(IPrintingContextMinecraft context, Word word, int x, int y, boolean isHovering) {
+
+        }
+    }
+
+    private static void registerStyled(String name, IStyle... styles) {
+        TabletAPI.INSTANCE.registerCommand(name, ((typesetter, tokenizer) -> {
+            typesetter.pushStyle(styles);
+            typesetter.write(tokenizer.getParameter("text"));
+            typesetter.popStyle(styles.length);
+        }));
+    }
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        ICommand spaceCommand = ((typesetter, tokenizer) -> typesetter.write(new WordText(" ")));
+        TabletAPI.INSTANCE.registerCommand("\\", spaceCommand);
+        TabletAPI.INSTANCE.registerCommand("\\ ", spaceCommand);
+        TabletAPI.INSTANCE.registerCommand("\\nl", ((typesetter, tokenizer) -> typesetter.write(new WordNewline(1))));
+        TabletAPI.INSTANCE.registerCommand("\\p", ((typesetter, tokenizer) -> typesetter.write(new WordNewline(2))));
+        TabletAPI.INSTANCE.registerCommand("\\\\", ((typesetter, tokenizer) -> typesetter.write(new WordText("\\"))));
+        TabletAPI.INSTANCE.registerCommand("\\-", ((typesetter, tokenizer) -> {
+            String padS = tokenizer.getOptionalParameter();
+            typesetter.write(new WordBullet(padS != null ? Integer.parseInt(padS) : 0));
+        }));
+        TabletAPI.INSTANCE.registerCommand("\\scale", ((typesetter, tokenizer) -> {
+            String scaleS = tokenizer.getParameter("\\scale scaling amount");
+            String content = tokenizer.getParameter("\\scale content");
+
+            typesetter.pushStyle(new StyleScale(Float.parseFloat(scaleS)));
+            typesetter.write(content);
+            typesetter.popStyle(1);
+        }));
+        registerStyled("\\title", StyleFormat.ITALIC, StyleFormat.UNDERLINE, new StyleScale(2.0f));
+        registerStyled("\\header", StyleFormat.BOLD, StyleFormat.UNDERLINE);
+        registerStyled("\\b", StyleFormat.BOLD);
+        registerStyled("\\i", StyleFormat.ITALIC);
+        registerStyled("\\u", StyleFormat.UNDERLINE);
+        registerStyled("\\del", StyleFormat.STRIKETHROUGH);
+        TabletAPI.INSTANCE.registerCommand("\\url", new CommandURL());
+        TabletAPI.INSTANCE.registerCommand("\\urlmissing", new CommandURLMissing());
+
+        // stand-ins for commands which need the game
+        TabletAPI.INSTANCE.registerCommand("\\local", ((typesetter, tokenizer) -> typesetter.write(new WordText(tokenizer.getParameter("text")))));
+        TabletAPI.INSTANCE.registerCommand("\\item", ((typesetter, tokenizer) -> {
+            String name = tokenizer.getParameter("No item specified");
+            if (tokenizer.getOptionalParameter() != null) {
+                tokenizer.getOptionalParameter();
+            }
+            typesetter.write(new WordText("[" + name + "]"));
+        }));
+        TabletAPI.INSTANCE.registerCommand("\\img", ((typesetter, tokenizer) -> {
+            String name = tokenizer.getParameter("domain:path/to/image.png");
+            tokenizer.getOptionalParameter();
+            tokenizer.getOptionalParameter();
+            typesetter.write(new WordText("[" + name + "]"));
+        }));
+        TabletAPI.INSTANCE.registerCommand("\\checkmods", ((typesetter, tokenizer) -> {
+            tokenizer.getParameter("\\checkmods mod mode: all|none|any");
+            tokenizer.getParameter("\\checkmods list of mods");
+            String content = tokenizer.getParameter("\\checkmods when mods installed");
+            tokenizer.getOptionalParameter();
+            typesetter.write(content);
+        }));
+
+        TabletAPIClient.INSTANCE.registerPrinterMinecraft(Word.class, new MonospacePrinter(WordPrinterMinecraft.DisplayType.INLINE));
+        TabletAPIClient.INSTANCE.registerPrinterMinecraft(WordNewline.class, new MonospacePrinter(WordPrinterMinecraft.DisplayType.BLOCK));
+    }
+
+    /**
+     * A typesetter measuring words with the monospace printer. No font
+     * renderer is attached, so only layout (not drawing) is supported.
+     */
+    public static ClientTypesetter createTypesetter(int pageWidth) {
+        init();
+        return new ClientTypesetter(null, pageWidth);
+    }
+
+    /**
+     * @return A textual dump of the lines laid out so far, for comparisons.
+     */
+    public static List<String> describe(ClientTypesetter typesetter) {
+        List<String> lines = new ArrayList<>();
+        for (ClientTypesetter.Line line : typesetter.lines) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(line.length).append('/').append(line.height).append('/').append(line.paddingAbove).append(':');
+            for (ClientTypesetter.WordContainer container : line.words) {
+                builder.append(' ');
+                if (container.word instanceof WordText) {
+                    builder.append('"').append(((WordText) container.word).getText()).append('"');
+                } else if (container.word instanceof WordNewline) {
+                    builder.append("<nl ").append(((WordNewline) container.word).getLines()).append('>');
+                } else {
+                    builder.append('<').append(container.word.getClass().getSimpleName()).append('>');
+                }
+                for (IStyle style : container.styles) {
+                    builder.append(style instanceof Enum ? ((Enum) style).name() : style.getClass().getSimpleName()).append(';');
+                }
+            }
+            lines.add(builder.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * @return The documentation pages shipped with the mods, read from the
+     * source tree (tests run from the project directory).
+     */
+    public static List<String> loadDocumentation() throws IOException {
+        List<String> documents = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(new File("src/main/resources/assets").toPath())) {
+            for (Path path : paths.filter((p) -> p.toString().endsWith(".txt") && p.toString().contains(File.separator + "doc" + File.separator)).sorted().collect(Collectors.toList())) {
+                documents.add(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return documents;
+    }
+
+    private static final String[] WORDS = {
+            "charset", "barrel", "module", "redstone", "the", "a", "of", "and", "is", "to", "wire", "gate",
+            "storage", "lock", "key", "crafting", "tablet", "page", "item", "block", "which", "can", "be",
+            "placed", "on", "with", "signal", "bundled", "configuration", "documentation", "compatibility"
+    };
+
+    private static String sentence(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int count = 4 + random.nextInt(16);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            String word = WORDS[random.nextInt(WORDS.length)];
+            switch (random.nextInt(24)) {
+                case 0:
+                    builder.append("**").append(word).append("**");
+                    break;
+                case 1:
+                    builder.append("__").append(word).append("__");
+                    break;
+                case 2:
+                    builder.append('[').append(word).append("](").append(word).append(".md)");
+                    break;
+                default:
+                    builder.append(word);
+            }
+        }
+        return builder.append('.').toString();
+    }
+
+    /**
+     * @return A wiki-style markdown document of roughly the given length,
+     * with headers, lists, emphasis and links.
+     */
+    public static String generateMarkdown(long seed, int length) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < length) {
+            int kind = random.nextInt(8);
+            if (kind == 0) {
+                builder.append("## ").append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(WORDS[random.nextInt(WORDS.length)]).append("\n\n");
+            } else if (kind == 1) {
+                int items = 2 + random.nextInt(5);
+                for (int i = 0; i < items; i++) {
+                    builder.append("* ").append(sentence(random)).append('\n');
+                }
+                builder.append('\n');
+            } else {
+                int sentences = 2 + random.nextInt(6);
+                for (int i = 0; i < sentences; i++) {
+                    builder.append(sentence(random)).append(i % 3 == 2 ? '\n' : ' ');
+                }
+                builder.append("\n\n");
+            }
+        }
+        return builder.toString();
+    }
+}
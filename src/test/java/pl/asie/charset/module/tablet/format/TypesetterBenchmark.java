@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import org.openjdk.jmh.annotations.*;
+import pl.asie.charset.module.tablet.format.api.TruthError;
+import pl.asie.charset.module.tablet.format.parsers.MarkdownParser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing, parsing and typesetting a large wiki-style markdown document,
+ * as the tablet does when a page is opened: the previous eager path
+ * against the cached token stream and lazy (first page only) layout.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypesetterBenchmark {
+    private static final int PAGE_WIDTH = 280;
+    private static final int PAGE_HEIGHT = 200;
+
+    @Param({ "262144" })
+    public int length;
+
+    private String markdown;
+    private String document;
+    private TokenStream stream;
+
+    @Setup
+    public void setup() {
+        TabletTestHarness.init();
+        markdown = TabletTestHarness.generateMarkdown(0x54414231L, length);
+        document = new MarkdownParser().parse(markdown);
+        stream = TokenStream.tokenize(document);
+    }
+
+    @Benchmark
+    public String parseMarkdown() {
+        return new MarkdownParser().parse(markdown);
+    }
+
+    @Benchmark
+    public TokenStream tokenize() {
+        return TokenStream.tokenize(document);
+    }
+
+    @Benchmark
+    public ClientTypesetter typesetEager() throws TruthError {
+        ClientTypesetter typesetter = TabletTestHarness.createTypesetter(PAGE_WIDTH);
+        typesetter.write(document);
+        return typesetter;
+    }
+
+    @Benchmark
+    public ClientTypesetter typesetFromStream() {
+        ClientTypesetter typesetter = TabletTestHarness.createTypesetter(PAGE_WIDTH);
+        typesetter.begin(stream);
+        typesetter.layoutUntil(Integer.MAX_VALUE);
+        return typesetter;
+    }
+
+    @Benchmark
+    public ClientTypesetter typesetFirstPage() {
+        ClientTypesetter typesetter = TabletTestHarness.createTypesetter(PAGE_WIDTH);
+        typesetter.begin(stream);
+        typesetter.layoutUntil(PAGE_HEIGHT);
+        return typesetter;
+    }
+}
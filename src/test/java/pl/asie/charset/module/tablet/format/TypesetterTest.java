@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.charset.module.tablet.format;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pl.asie.charset.module.tablet.format.api.TruthError;
+import pl.asie.charset.module.tablet.format.parsers.MarkdownParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypesetterTest {
+    private static final int[] PAGE_WIDTHS = { 120, 300 };
+    private static List<String> documents;
+
+    @BeforeClass
+    public static void init() throws IOException {
+        TabletTestHarness.init();
+        documents = new ArrayList<>(TabletTestHarness.loadDocumentation());
+        assertFalse("no documentation found", documents.isEmpty());
+        documents.add(new MarkdownParser().parse(TabletTestHarness.generateMarkdown(1, 32 * 1024)));
+    }
+
+    private static List<String> describeTokens(ITokenCursor cursor) {
+        List<String> tokens = new ArrayList<>();
+        while (cursor.nextToken()) {
+            tokens.add(cursor.getType() + " " + cursor.getToken());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testTokenStreamMatchesTokenizer() {
+        for (String document : documents) {
+            List<String> expected = describeTokens(new Tokenizer(document));
+            TokenStream stream = TokenStream.tokenize(document);
+            assertEquals(expected.size(), stream.size());
+            assertEquals(expected, describeTokens(stream.cursor()));
+        }
+    }
+
+    @Test
+    public void testTokenStreamCursorsIndependent() {
+        TokenStream stream = TokenStream.tokenize("\\b{one} two \\nl three");
+        ITokenCursor a = stream.cursor();
+        ITokenCursor b = stream.cursor();
+        assertTrue(a.nextToken());
+        assertTrue(a.nextToken());
+        assertTrue(b.nextToken());
+        assertEquals(describeTokens(new Tokenizer("\\b{one} two \\nl three")), describeTokens(stream.cursor()));
+        assertNotEquals(a.getToken(), b.getToken());
+    }
+
+    @Test
+    public void testLazyLayoutMatchesEager() throws TruthError {
+        for (int width : PAGE_WIDTHS) {
+            for (String document : documents) {
+                ClientTypesetter eager = TabletTestHarness.createTypesetter(width);
+                eager.write(document);
+
+                ClientTypesetter lazy = TabletTestHarness.createTypesetter(width);
+                lazy.begin(TokenStream.tokenize(document));
+                int height = 0;
+                while (!lazy.isComplete()) {
+                    height += 5 * TabletTestHarness.LINE_HEIGHT;
+                    lazy.layoutUntil(height);
+                }
+
+                assertEquals(TabletTestHarness.describe(eager), TabletTestHarness.describe(lazy));
+                assertEquals(eager.getLayoutHeight(), lazy.getLayoutHeight());
+            }
+        }
+    }
+
+    @Test
+    public void testLazyLayoutStopsEarly() {
+        String document = new MarkdownParser().parse(TabletTestHarness.generateMarkdown(2, 64 * 1024));
+        int pageHeight = 20 * TabletTestHarness.LINE_HEIGHT;
+
+        ClientTypesetter typesetter = TabletTestHarness.createTypesetter(200);
+        typesetter.begin(TokenStream.tokenize(document));
+        typesetter.layoutUntil(pageHeight);
+
+        assertFalse(typesetter.isComplete());
+        assertTrue(typesetter.getLayoutHeight() >= pageHeight);
+        // a single line's worth of words past the requested height, at most
+        assertTrue(typesetter.getLayoutHeight() < pageHeight + 4 * TabletTestHarness.LINE_HEIGHT);
+
+        typesetter.layoutUntil(Integer.MAX_VALUE);
+        assertTrue(typesetter.isComplete());
+    }
+
+    @Test
+    public void testLayoutCache() {
+        TabletTestHarness.init();
+        String document = documents.get(0);
+
+        ClientTypesetter a = ClientTypesetter.getLayout(null, 200, document);
+        assertSame(a, ClientTypesetter.getLayout(null, 200, document));
+        assertSame(a, ClientTypesetter.getLayout(null, 200, new String(document.toCharArray())));
+        assertNotSame(a, ClientTypesetter.getLayout(null, 201, document));
+
+        ClientTypesetter.clearCache();
+        assertNotSame(a, ClientTypesetter.getLayout(null, 200, document));
+    }
+}
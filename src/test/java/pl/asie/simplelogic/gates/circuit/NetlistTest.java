@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2015, 2016, 2017, 2018, 2019, 2020 Adrian Siekierka
+ *
+ * This file is part of Charset.
+ *
+ * Charset is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Charset is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Charset.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package pl.asie.simplelogic.gates.circuit;
+
+import org.junit.Test;
+import pl.asie.simplelogic.gates.logic.GateLogicNOR;
+
+import static org.junit.Assert.assertEquals;
+
+public class NetlistTest {
+	private static void stepUntilSettled(Netlist netlist) {
+		for (int i = 0; i < 16; i++) {
+			netlist.step();
+		}
+	}
+
+	private static void setInput(Netlist netlist, int net, int value) {
+		netlist.setNetInput(net, value);
+		stepUntilSettled(netlist);
+	}
+
+	/**
+	 * Gate outputs start out unpowered, as if freshly placed; one
+	 * transition of the input brings them in line.
+	 */
+	private static void warmUp(Netlist netlist, int net) {
+		setInput(netlist, net, 15);
+		setInput(netlist, net, 0);
+	}
+
+	@Test
+	public void testNorInverts() {
+		Netlist.Builder builder = new Netlist.Builder();
+		int in = builder.addNet();
+		int out = builder.addNet();
+		builder.addGate(new GateLogicNOR(), out, -1, in, -1);
+		Netlist netlist = builder.build();
+		warmUp(netlist, in);
+
+		for (int value : new int[] { 0, 15, 7, 0 }) {
+			setInput(netlist, in, value);
+			assertEquals("input " + value, value != 0 ? 0 : 15, netlist.getNetValue(out));
+		}
+	}
+
+	@Test
+	public void testNorChainBuffers() {
+		Netlist.Builder builder = new Netlist.Builder();
+		int in = builder.addNet();
+		int mid = builder.addNet();
+		int out = builder.addNet();
+		builder.addGate(new GateLogicNOR(), mid, -1, in, -1);
+		builder.addGate(new GateLogicNOR(), out, -1, mid, -1);
+		Netlist netlist = builder.build();
+		assertEquals(2, netlist.getGateCount());
+		assertEquals(3, netlist.getNetCount());
+		warmUp(netlist, in);
+
+		for (int value : new int[] { 0, 15, 0, 15 }) {
+			setInput(netlist, in, value);
+			assertEquals("middle net, input " + value, 15 - value, netlist.getNetValue(mid));
+			assertEquals("output net, input " + value, value, netlist.getNetValue(out));
+		}
+	}
+
+	@Test
+	public void testStrongestDriverWins() {
+		Netlist.Builder builder = new Netlist.Builder();
+		int in = builder.addNet();
+		int out = builder.addNet();
+		builder.addGate(new GateLogicNOR(), out, -1, in, -1);
+		Netlist netlist = builder.build();
+		warmUp(netlist, in);
+
+		// the gate drives the output net at 15 with its input low
+		setInput(netlist, out, 4);
+		assertEquals(15, netlist.getNetValue(out));
+
+		// with the gate off, only the external input remains
+		setInput(netlist, in, 15);
+		assertEquals(4, netlist.getNetValue(out));
+
+		setInput(netlist, out, 0);
+		assertEquals(0, netlist.getNetValue(out));
+	}
+}